@@ -1,4 +1,14 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collector;
 
 /**
  * AVL Tree implementation that inherits from BST class.
@@ -10,16 +20,298 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
      * Constructs a new AVL tree with no elements.
      */
     public AVL() {
-        super();
+        super(Node.Layout.PARENT_AND_HEIGHT);
     }
 
     /**
-     * Constructs a AVL tree with the given root node.
+     * Constructs a new AVL tree with no elements, optionally without parent pointers.
+     * Without parent pointers every node is 8 bytes smaller, while {@link #getSuccessor(Node)} and
+     * {@link #getPredecessor(Node)} fall back to a search from the root and the iterative operations remember their
+     * path on a stack.
+     *
+     * @param trackParents true to store a parent pointer in every node, false to leave it out
+     */
+    public AVL(boolean trackParents) {
+        super(trackParents ? Node.Layout.PARENT_AND_HEIGHT : Node.Layout.HEIGHT);
+    }
+
+    /**
+     * Constructs a new AVL tree with no elements whose elements are ordered by the given comparator.
+     *
+     * @param comparator the comparator that orders the elements, or null for their natural order
+     */
+    public AVL(Comparator<? super T> comparator) {
+        super(Node.Layout.PARENT_AND_HEIGHT, comparator);
+    }
+
+    /**
+     * Constructs a new AVL tree with no elements whose nodes use the given layout and whose elements are ordered by
+     * the given comparator.
+     *
+     * @param nodeLayout the field layout of the nodes created by the tree
+     * @param comparator the comparator that orders the elements, or null for their natural order
+     */
+    protected AVL(Node.Layout nodeLayout, Comparator<? super T> comparator) {
+        super(nodeLayout, comparator);
+    }
+
+    /**
+     * Constructs a new AVL tree with no elements whose nodes use the given layout, whose elements are ordered by the
+     * given comparator, and which optionally counts equal elements in a single node.
+     *
+     * @param nodeLayout      the field layout of the nodes created by the tree
+     * @param comparator      the comparator that orders the elements, or null for their natural order
+     * @param countDuplicates true to count the occurrences of equal elements, false to reject equal elements
+     */
+    protected AVL(Node.Layout nodeLayout, Comparator<? super T> comparator, boolean countDuplicates) {
+        super(nodeLayout, comparator, countDuplicates);
+    }
+
+    /**
+     * Constructs a AVL tree with the given root node. Nodes without parent pointers or stored heights, such as plain
+     * {@link Node}s, are copied into nodes that store both, so that rebalancing reads every height in O(1).
      *
      * @param root The root node of the AVL tree.
      */
     public AVL(Node<T> root) {
-        super(root);
+        super(root, Node.Layout.PARENT_AND_HEIGHT);
+    }
+
+    /**
+     * Subtrees with fewer elements than this are built on the calling thread instead of being forked.
+     */
+    private static final int PARALLEL_BUILD_THRESHOLD = 1 << 13;
+
+    private T removedValue; // The element removed by the running recursive removal
+
+    /**
+     * Creates an AVL tree in multiset mode, which keeps every occurrence of an element instead of rejecting equal
+     * elements. All occurrences of an element share one {@link Node.Counted} node, which is as large as a regular AVL
+     * node, so inserting an element that is already present only increments the count of its node without allocating
+     * anything or rotating, {@link #count(Comparable)} reads the count in O(log(n)), and {@link #delete(Comparable)}
+     * removes one occurrence at a time.
+     * <p>
+     * The size, the iteration order, the ranks and the range operations of the tree refer to its distinct elements.
+     * Splits and joins move the counts along with their nodes, while the set operations are not supported.
+     *
+     * @param <T> the data type of the elements in the tree
+     * @return a new empty AVL tree in multiset mode
+     */
+    public static <T extends Comparable<T>> AVL<T> multiset() {
+        return multiset(null);
+    }
+
+    /**
+     * Creates an AVL tree in multiset mode whose elements are ordered by the given comparator, so that all elements
+     * the comparator considers equal are counted in one node holding the first of them.
+     *
+     * @param comparator the comparator that orders the elements, or null for their natural order
+     * @param <T>        the data type of the elements in the tree
+     * @return a new empty AVL tree in multiset mode
+     * @see #multiset()
+     */
+    public static <T extends Comparable<T>> AVL<T> multiset(Comparator<? super T> comparator) {
+        return new AVL<T>(Node.Layout.PARENT_AND_HEIGHT, comparator, true);
+    }
+
+    /**
+     * Builds a perfectly balanced AVL tree from values that are already sorted in ascending order.
+     * Duplicate values are kept only once. No comparisons beyond the sortedness check and no rotations are performed.
+     *
+     * @param values the values in ascending order
+     * @param <T>    the data type of the elements in the tree
+     * @return a new AVL tree holding the distinct values
+     * @throws IllegalArgumentException if the list or one of its values is null, or if the values are not sorted
+     * @implNote This method has a time complexity of O(n)
+     */
+    public static <T extends Comparable<T>> AVL<T> fromSorted(List<T> values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        List<T> distinct = new ArrayList<>(values.size());
+        T previous = null;
+        for (T value : values) {
+            if (value == null) {
+                throw new IllegalArgumentException("Value cannot be null.");
+            }
+            if (previous != null) {
+                int cmp = previous.compareTo(value);
+                if (cmp > 0) {
+                    throw new IllegalArgumentException("Values must be sorted in ascending order.");
+                } else if (cmp == 0) {
+                    continue;
+                }
+            }
+            distinct.add(value);
+            previous = value;
+        }
+
+        AVL<T> tree = new AVL<>();
+        if (distinct.size() < PARALLEL_BUILD_THRESHOLD) {
+            tree.root = buildBalanced(tree::createNode, distinct, 0, distinct.size());
+        } else {
+            tree.root = ForkJoinPool.commonPool().invoke(new BuildTask<>(tree::createNode, distinct, 0, distinct.size()));
+        }
+        tree.size = distinct.size();
+        return tree;
+    }
+
+    /**
+     * Builds a perfectly balanced AVL tree from values in any order.
+     * The values are sorted in parallel first and then handed to {@link #fromSorted(List)}.
+     *
+     * @param values the values to store in the tree
+     * @param <T>    the data type of the elements in the tree
+     * @return a new AVL tree holding the distinct values
+     * @throws IllegalArgumentException if the collection or one of its values is null
+     * @implNote This method has a time complexity of O(n log(n)) for the sort and O(n) for the construction
+     */
+    public static <T extends Comparable<T>> AVL<T> fromUnsorted(Collection<T> values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) values.toArray(new Comparable<?>[0]);
+        for (T value : array) {
+            if (value == null) {
+                throw new IllegalArgumentException("Value cannot be null.");
+            }
+        }
+        Arrays.parallelSort(array);
+        return fromSorted(Arrays.asList(array));
+    }
+
+    /**
+     * Returns a collector that gathers the elements of a stream into an AVL tree. Every chunk of a parallel stream
+     * is sorted and built into its own perfectly balanced tree on the thread that collected it, and the combiner
+     * merges the trees of two chunks with {@link #union(AVL)}, so the tree is built in parallel rather than at the
+     * end. A sequential stream ends up with a single perfectly balanced tree.
+     *
+     * @param <T> the data type of the elements in the tree
+     * @return a collector producing a new AVL tree
+     */
+    public static <T extends Comparable<T>> Collector<T, ?, AVL<T>> toAVL() {
+        return Collector.<T, ChunkBuilder<T>, AVL<T>>of(ChunkBuilder::new, ChunkBuilder::add, ChunkBuilder::combine,
+                ChunkBuilder::build, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Helper method to recursively build a perfectly balanced subtree from a range of sorted distinct values.
+     * Heights and subtree sizes are filled in by {@link Node#setLeft(Node)} and {@link Node#setRight(Node)}.
+     *
+     * @param factory the function creating the nodes, usually {@link #createNode(Comparable)} of the target tree
+     * @param values  the sorted distinct values
+     * @param from    the index of the first value of the subtree (inclusive)
+     * @param to      the index after the last value of the subtree (exclusive)
+     * @param <T>     the data type of the elements in the tree
+     * @return the root of the built subtree, or null if the range is empty
+     * @implNote This method has a time complexity of O(n), where n is the number of values in the range.
+     */
+    private static <T extends Comparable<T>> Node<T> buildBalanced(Function<T, Node<T>> factory, List<T> values, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node<T> node = factory.apply(values.get(mid));
+        node.setLeft(buildBalanced(factory, values, from, mid));
+        node.setRight(buildBalanced(factory, values, mid + 1, to));
+        return node;
+    }
+
+    /**
+     * A fork-join task that builds both halves of a large balanced subtree in parallel and joins them
+     * under the middle value.
+     *
+     * @param <T> the data type of the elements in the tree
+     */
+    private static class BuildTask<T extends Comparable<T>> extends RecursiveTask<Node<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Function<T, Node<T>> factory; // The function creating the nodes
+        private final List<T> values; // The sorted distinct values
+        private final int from; // The index of the first value of the subtree (inclusive)
+        private final int to; // The index after the last value of the subtree (exclusive)
+
+        BuildTask(Function<T, Node<T>> factory, List<T> values, int from, int to) {
+            this.factory = factory;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Node<T> compute() {
+            if (to - from < PARALLEL_BUILD_THRESHOLD) {
+                return buildBalanced(factory, values, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            BuildTask<T> leftTask = new BuildTask<>(factory, values, from, mid);
+            leftTask.fork();
+            Node<T> rightChild = new BuildTask<>(factory, values, mid + 1, to).compute();
+            Node<T> node = factory.apply(values.get(mid));
+            node.setLeft(leftTask.join());
+            node.setRight(rightChild);
+            return node;
+        }
+    }
+
+    /**
+     * The mutable result container of {@link #toAVL()}, which gathers the values of one chunk of a stream and turns
+     * them into a tree once the chunk is complete.
+     *
+     * @param <T> the data type of the elements in the tree
+     */
+    private static class ChunkBuilder<T extends Comparable<T>> {
+        private List<T> values = new ArrayList<>(); // The values collected since the tree was last built
+        private AVL<T> tree; // The tree of the values collected before, or null if there is none yet
+
+        void add(T value) {
+            values.add(value);
+        }
+
+        /**
+         * Builds the trees of both chunks and merges them, with {@link #join(AVL)} if their ranges do not overlap and
+         * with {@link #union(AVL)} otherwise.
+         *
+         * @param other the other chunk
+         * @return this chunk, holding the values of both chunks
+         * @implNote This method has a time complexity of O(k log(k)) for the k values collected since the last build,
+         * plus the work of {@link #union(AVL)}.
+         */
+        ChunkBuilder<T> combine(ChunkBuilder<T> other) {
+            AVL<T> left = build();
+            AVL<T> right = other.build();
+            if (left.size() == 0 || right.size() == 0) {
+                tree = (left.size() == 0) ? right : left;
+            } else if (left.compare(left.getMax().getValue(), right.getMin().getValue()) < 0) {
+                // Chunks of an ordered source cover disjoint ranges, which a join links in O(log(n))
+                left.join(right);
+            } else if (left.compare(right.getMax().getValue(), left.getMin().getValue()) < 0) {
+                right.join(left);
+                tree = right;
+            } else {
+                left.union(right);
+            }
+            return this;
+        }
+
+        /**
+         * Sorts the values collected since the last build into a perfectly balanced tree, and merges it into the
+         * tree built before.
+         *
+         * @return the tree of all values of the chunk
+         * @implNote This method has a time complexity of O(k log(k)) for the k values collected since the last build,
+         * plus the work of {@link #union(AVL)}.
+         */
+        AVL<T> build() {
+            if (tree == null) {
+                tree = fromUnsorted(values);
+            } else if (!values.isEmpty()) {
+                tree.union(fromUnsorted(values));
+            }
+            values = new ArrayList<>();
+            return tree;
+        }
     }
 
     /**
@@ -37,9 +329,10 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
         if (useRecursiveApproach) {
             int beforeInsertSize = size;
             root = insertRecursive(root, value);
-            return size != beforeInsertSize;
+            root.setParent(null);
+            return size != beforeInsertSize || addOccurrence();
         } else {
-            return insertIterative(root, value);
+            return insertIterative(root, value) || addOccurrence();
         }
     }
 
@@ -54,20 +347,21 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
     private Node<T> insertRecursive(Node<T> node, T value) {
         if (node == null) {
             size++;
-            return new Node<>(value);
+            return createNode(value);
         }
-        if (value.compareTo(node.getValue()) < 0) {
+        int cmp = compare(value, node.getValue());
+        if (cmp < 0) {
             Node<T> leftChild = insertRecursive(node.getLeft(), value);
             node.setLeft(leftChild);
-        } else if (value.compareTo(node.getValue()) > 0) {
+        } else if (cmp > 0) {
             Node<T> rightChild = insertRecursive(node.getRight(), value);
             node.setRight(rightChild);
         } else {
+            matchedNode = node;
             return node;
         }
 
-        // update height of the current node
-        node.updateHeight();
+        // the height of the current node was already updated when its child was linked above
 
         // calculate the balance factor of the current node
         int balanceFactor = node.getBalanceFactor();
@@ -102,25 +396,29 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
      * @implNote This method has a time complexity of O(log(n))
      */
     private boolean insertIterative(Node<T> node, T value) {
-        Node<T> newNode = new Node<>(value);
         if (node == null) {
-            root = newNode;
+            root = createNode(value);
             size++;
             return true;
         }
 
+        // The node is only allocated once its place is known, so finding an existing value allocates nothing
+        Node<T> newNode;
+
         Stack<Node<T>> stack = new Stack<>();
         Node<T> current = node;
 
         while (true) {
             stack.push(current);
-            int cmp = value.compareTo(current.getValue());
+            int cmp = compare(value, current.getValue());
 
             if (cmp == 0) {
                 // The value already exists in the tree, so return current
+                matchedNode = current;
                 return false;
             } else if (cmp < 0) {
                 if (current.getLeft() == null) {
+                    newNode = createNode(value);
                     current.setLeft(newNode);
                     break;
                 } else {
@@ -128,6 +426,7 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
                 }
             } else {
                 if (current.getRight() == null) {
+                    newNode = createNode(value);
                     current.setRight(newNode);
                     break;
                 } else {
@@ -139,18 +438,20 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
         // Update heights and perform rotations
         while (!stack.isEmpty()) {
             current = stack.pop();
-            current.updateHeight();
+            // Remember the subtree root before any rotation so it can be located in its parent afterwards
+            Node<T> subtreeRoot = current;
+            // Its height is already up to date, since linking the child below it updated it
             int balanceFactor = current.getBalanceFactor();
 
             if (balanceFactor > 1) {
-                if (value.compareTo(current.getLeft().getValue()) < 0) {
+                if (compare(value, current.getLeft().getValue()) < 0) {
                     current = rightRotate(current);
                 } else {
                     current.setLeft(leftRotate(current.getLeft()));
                     current = rightRotate(current);
                 }
             } else if (balanceFactor < -1) {
-                if (value.compareTo(current.getRight().getValue()) > 0) {
+                if (compare(value, current.getRight().getValue()) > 0) {
                     current = leftRotate(current);
                 } else {
                     current.setRight(rightRotate(current.getRight()));
@@ -160,13 +461,14 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
 
             if (!stack.isEmpty()) {
                 Node<T> parent = stack.peek();
-                if (parent.getLeft() == current) {
+                if (parent.getLeft() == subtreeRoot) {
                     parent.setLeft(current);
                 } else {
                     parent.setRight(current);
                 }
             } else {
                 root = current;
+                root.setParent(null);
             }
         }
 
@@ -174,59 +476,146 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
     }
 
     /**
-     * Deletes an element from the AVL tree.
+     * Removes an element from the AVL tree in a single descent and returns the element that was stored in the tree.
+     * In multiset mode only one occurrence of the element is removed, and its node is only spliced out with its last
+     * occurrence.
      *
-     * @param value the value to delete
-     * @return true if the value was successfully deleted, false otherwise
+     * @param value the value to remove
+     * @return the removed element, or null if the value was not found in the tree
      * @implNote This method has a time complexity of O(log(n))
      */
     @Override
-    public boolean delete(T value) {
+    public T remove(T value) {
         if (value == null) {
             throw new IllegalArgumentException("Value cannot be null.");
         }
-        if (find(value) == null)
-            return false;
-        root = delete(root, value);
-        return true;
+        removedValue = null;
+        root = remove(root, value);
+        if (root != null) {
+            root.setParent(null);
+        }
+        T removed = removedValue;
+        removedValue = null;
+        // Removing one of several occurrences keeps the node, so the size follows the root
+        size = getSize(root);
+        return removed;
+    }
+
+    /**
+     * Removes the smallest or the largest element in a single walk down the left or the right spine, splicing out the
+     * extreme node directly and rebalancing the spine on the way back up.
+     *
+     * @param first true to remove the smallest element, false to remove the largest one
+     * @return the removed element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    protected T pollExtreme(boolean first) {
+        if (root == null) {
+            return null;
+        }
+        removedValue = null;
+        root = pollExtreme(root, first);
+        if (root != null) {
+            root.setParent(null);
+        }
+        T removed = removedValue;
+        removedValue = null;
+        return removed;
+    }
+
+    /**
+     * Helper method to recursively remove the smallest or the largest element of a subtree.
+     * The removed element is stored in {@link #removedValue}.
+     *
+     * @param node  the root of the subtree
+     * @param first true to remove the smallest element, false to remove the largest one
+     * @return the root of the updated, balanced subtree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private Node<T> pollExtreme(Node<T> node, boolean first) {
+        Node<T> next = first ? node.getLeft() : node.getRight();
+        if (next == null) {
+            removedValue = node.getValue();
+            if (removeOccurrence(node)) {
+                return node;
+            }
+            size--;
+            return first ? node.getRight() : node.getLeft();
+        }
+        if (first) {
+            node.setLeft(pollExtreme(next, true));
+        } else {
+            node.setRight(pollExtreme(next, false));
+        }
+        return rebalance(node);
     }
 
     /**
-     * Helper method to recursively delete a value from the AVL tree.
+     * Helper method to recursively remove a value from the AVL tree.
+     * The removed element is stored in {@link #removedValue}.
      *
-     * @param node  the root of the subtree to delete the value from
-     * @param value the value to delete
+     * @param node  the root of the subtree to remove the value from
+     * @param value the value to remove
      * @return the root of the updated subtree
      * @implNote This method has a time complexity of O(log(n))
      */
-    private Node<T> delete(Node<T> node, T value) {
+    private Node<T> remove(Node<T> node, T value) {
         if (node == null) {
             return null;
         }
-        if (value.compareTo(node.getValue()) < 0) {
-            Node<T> leftChild = delete(node.getLeft(), value);
+        int cmp = compare(value, node.getValue());
+        if (cmp < 0) {
+            Node<T> leftChild = remove(node.getLeft(), value);
             node.setLeft(leftChild);
-        } else if (value.compareTo(node.getValue()) > 0) {
-            Node<T> rightChild = delete(node.getRight(), value);
+        } else if (cmp > 0) {
+            Node<T> rightChild = remove(node.getRight(), value);
             node.setRight(rightChild);
         } else {
-            if (node.getLeft() == null && node.getRight() == null) {
-                return null;
-            } else if (node.getLeft() == null) {
+            removedValue = node.getValue();
+            if (removeOccurrence(node)) {
+                // In multiset mode a node with further occurrences stays in place
+                return node;
+            }
+            if (node.getLeft() == null) {
                 return node.getRight();
             } else if (node.getRight() == null) {
                 return node.getLeft();
             } else {
-                Node<T> temp = getMin(node.getRight());
-                node.setValue(temp.getValue());
-                Node<T> rightChild = delete(node.getRight(), temp.getValue());
+                // splice out the minimum of the right subtree and move its value into the current node
+                Node<T> rightChild = removeMin(node.getRight(), node);
                 node.setRight(rightChild);
             }
         }
+        return rebalance(node);
+    }
 
-        // update height of the current node
-        node.updateHeight();
+    /**
+     * Helper method to recursively splice the minimum node out of a subtree and move its value into another node.
+     *
+     * @param node   the root of the subtree
+     * @param target the node that receives the value of the minimum
+     * @return the root of the updated, balanced subtree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private Node<T> removeMin(Node<T> node, Node<T> target) {
+        if (node.getLeft() == null) {
+            moveValue(node, target);
+            return node.getRight();
+        }
+        node.setLeft(removeMin(node.getLeft(), target));
+        return rebalance(node);
+    }
 
+    /**
+     * Restores the balance of a node whose subtrees differ in height by at most two after a removal. The node must
+     * have just had one of its children linked, which already updated its height.
+     *
+     * @param node the node to rebalance
+     * @return the root of the balanced subtree
+     * @implNote This method has a time complexity of O(1)
+     */
+    private Node<T> rebalance(Node<T> node) {
         // calculate the balance factor of the current node
         int balanceFactor = node.getBalanceFactor();
 
@@ -260,10 +649,9 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
      */
     private Node<T> leftRotate(Node<T> node) {
         Node<T> newRoot = node.getRight();
+        // Both links update the node they are set on, the lower node first
         node.setRight(newRoot.getLeft());
         newRoot.setLeft(node);
-        node.updateHeight();
-        newRoot.updateHeight();
         return newRoot;
     }
 
@@ -276,10 +664,476 @@ public class AVL<T extends Comparable<T>> extends BST<T> {
      */
     private Node<T> rightRotate(Node<T> node) {
         Node<T> newRoot = node.getLeft();
+        // Both links update the node they are set on, the lower node first
         node.setLeft(newRoot.getRight());
         newRoot.setRight(node);
-        node.updateHeight();
-        newRoot.updateHeight();
         return newRoot;
     }
-}
\ No newline at end of file
+
+    /**
+     * Inserts a sorted batch of distinct values that is small compared to the tree. The batch is built into a
+     * perfectly balanced tree, which is then merged into this tree with a union, so that the rebalancing of the whole
+     * batch is done by a single pass of joins.
+     *
+     * @param batch the values to insert, sorted in ascending order and without duplicates
+     * @implNote This method has a work of O(k log(n / k + 1)) for a batch of k values.
+     */
+    @Override
+    protected void insertSorted(List<T> batch) {
+        union(batchTree(batch));
+    }
+
+    /**
+     * Deletes a sorted batch of distinct values that is small compared to the tree. The batch is built into a
+     * perfectly balanced tree, which is then subtracted from this tree with a difference.
+     *
+     * @param batch the values to delete, sorted in ascending order and without duplicates
+     * @implNote This method has a work of O(k log(n / k + 1)) for a batch of k values.
+     */
+    @Override
+    protected void deleteSorted(List<T> batch) {
+        difference(batchTree(batch));
+    }
+
+    /**
+     * Builds a perfectly balanced tree of the same kind as this tree from a sorted batch of distinct values.
+     *
+     * @param batch the values of the batch, sorted in ascending order and without duplicates
+     * @return a new AVL tree holding the values of the batch
+     * @implNote This method has a time complexity of O(k) for a batch of k values.
+     */
+    private AVL<T> batchTree(List<T> batch) {
+        AVL<T> tree = createEmptyTree();
+        if (batch.size() < PARALLEL_BUILD_THRESHOLD) {
+            tree.root = buildBalanced(this::createNode, batch, 0, batch.size());
+        } else {
+            tree.root = ForkJoinPool.commonPool().invoke(new BuildTask<>(this::createNode, batch, 0, batch.size()));
+        }
+        tree.size = batch.size();
+        return tree;
+    }
+
+    /**
+     * Creates an empty tree of the same kind as this tree, with the same node layout and order, which can receive
+     * nodes cut off from this tree or hand its nodes over to this tree.
+     *
+     * @return a new empty tree
+     */
+    protected AVL<T> createEmptyTree() {
+        return new AVL<T>(nodeLayout, comparator, countDuplicates);
+    }
+
+    /**
+     * Splits the tree around the given key. This tree keeps every element less than the key, and the returned tree
+     * receives every element greater than or equal to it.
+     *
+     * @param key the key to split around
+     * @return a new AVL tree holding the elements greater than or equal to the key
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public AVL<T> split(T key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        SplitResult<T> parts = split(root, key);
+        Node<T> greater = (parts.middle == null) ? parts.right : join(null, parts.middle, parts.right);
+        root = detach(parts.left);
+        size = getSize(root);
+
+        AVL<T> result = createEmptyTree();
+        result.root = detach(greater);
+        result.size = getSize(result.root);
+        return result;
+    }
+
+    /**
+     * Removes every element within the closed range [lo, hi]. The tree is split at both bounds and the outer parts
+     * are joined again, so the removed nodes are never visited one by one.
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return the number of removed elements, or 0 if lo is greater than hi
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public int deleteRange(T lo, T hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (compare(lo, hi) > 0) {
+            return 0;
+        }
+        SplitResult<T> below = split(root, lo);
+        SplitResult<T> above = split(below.right, hi);
+        int removed = getSize(above.left);
+        if (below.middle != null) removed++;
+        if (above.middle != null) removed++;
+        root = detach(join2(below.left, above.right));
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Appends every element of the other tree to this tree. All elements of this tree must be less than all elements
+     * of the other tree. The other tree is emptied, since its nodes are moved into this tree.
+     *
+     * @param other the tree whose elements follow the elements of this tree
+     * @throws IllegalArgumentException if the other tree is null, is this tree, overlaps with this tree,
+     *                                  or uses a different node layout or order
+     * @implNote This method has a time complexity of O(log(n + m))
+     */
+    public void join(AVL<T> other) {
+        if (other == null || other == this) {
+            throw new IllegalArgumentException("Cannot join a tree with null or with itself.");
+        }
+        requireCompatible(other);
+        if (root != null && other.root != null && compare(getMax().getValue(), other.getMin().getValue()) >= 0) {
+            throw new IllegalArgumentException("Every element of this tree must be less than every element of the other tree.");
+        }
+        root = detach(join2(root, other.root));
+        size = getSize(root);
+        other.clear();
+    }
+
+    /**
+     * Adds every element of the other tree to this tree. The other tree is emptied, since its nodes are reused.
+     * Independent subtrees are merged in parallel on the common fork-join pool.
+     *
+     * @param other the tree to merge into this tree
+     * @throws UnsupportedOperationException if the trees are in multiset mode
+     * @implNote This method has a work of O(m log(n / m + 1)), where m is the size of the smaller tree and n the size
+     * of the larger one, and a span of O(log(n) log(m)).
+     */
+    public void union(AVL<T> other) {
+        applySetOperation(other, SetOperation.UNION);
+    }
+
+    /**
+     * Removes every element of this tree that is not in the other tree. The other tree is emptied, since its nodes
+     * are consumed while splitting. Independent subtrees are processed in parallel on the common fork-join pool.
+     *
+     * @param other the tree to intersect this tree with
+     * @throws UnsupportedOperationException if the trees are in multiset mode
+     * @implNote This method has a work of O(m log(n / m + 1)), where m is the size of the smaller tree and n the size
+     * of the larger one, and a span of O(log(n) log(m)).
+     */
+    public void intersection(AVL<T> other) {
+        applySetOperation(other, SetOperation.INTERSECTION);
+    }
+
+    /**
+     * Removes every element of the other tree from this tree. The other tree is emptied, since its nodes are consumed
+     * while splitting. Independent subtrees are processed in parallel on the common fork-join pool.
+     *
+     * @param other the tree whose elements are removed from this tree
+     * @throws UnsupportedOperationException if the trees are in multiset mode
+     * @implNote This method has a work of O(m log(n / m + 1)), where m is the size of the smaller tree and n the size
+     * of the larger one, and a span of O(log(n) log(m)).
+     */
+    public void difference(AVL<T> other) {
+        applySetOperation(other, SetOperation.DIFFERENCE);
+    }
+
+    /**
+     * Ensures that the nodes of the other tree can be moved into this tree.
+     *
+     * @param other the tree whose nodes are about to be reused
+     * @throws IllegalArgumentException if the other tree uses a different node layout or order, or only one of the
+     *                                  trees is in multiset mode
+     */
+    protected void requireCompatible(AVL<T> other) {
+        if (other.nodeLayout != nodeLayout) {
+            throw new IllegalArgumentException("Both trees must use the same node layout.");
+        }
+        if (other.countDuplicates != countDuplicates) {
+            throw new IllegalArgumentException("Both trees must either count equal elements or reject them.");
+        }
+        if (!Objects.equals(other.comparator, comparator)) {
+            throw new IllegalArgumentException("Both trees must use the same order.");
+        }
+    }
+
+    /**
+     * Runs a set operation against the other tree, stores the result in this tree and empties the other tree.
+     *
+     * @param other     the second operand
+     * @param operation the set operation to run
+     */
+    private void applySetOperation(AVL<T> other, SetOperation operation) {
+        if (other == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        requireCompatible(other);
+        if (countDuplicates) {
+            throw new UnsupportedOperationException("Set operations are not supported in multiset mode.");
+        }
+        if (other == this) {
+            // A set is its own union and intersection, and its difference with itself is empty
+            if (operation == SetOperation.DIFFERENCE) {
+                clear();
+            }
+            return;
+        }
+        Node<T> result;
+        if (getSize(root) + getSize(other.root) < PARALLEL_BUILD_THRESHOLD) {
+            result = new SetOperationTask(operation, root, other.root).compute();
+        } else {
+            result = ForkJoinPool.commonPool().invoke(new SetOperationTask(operation, root, other.root));
+        }
+        root = detach(result);
+        size = getSize(root);
+        other.clear();
+    }
+
+    /**
+     * Helper method to split a subtree around a key. The nodes of the subtree are reused for the resulting parts.
+     *
+     * @param node the root of the subtree to split
+     * @param key  the key to split around
+     * @return the subtree of smaller elements, the node equal to the key (if any) and the subtree of greater elements
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private SplitResult<T> split(Node<T> node, T key) {
+        if (node == null) {
+            return new SplitResult<>(null, null, null);
+        }
+        Node<T> left = node.getLeft();
+        Node<T> right = node.getRight();
+        int cmp = compare(key, node.getValue());
+        if (cmp < 0) {
+            SplitResult<T> parts = split(left, key);
+            return new SplitResult<>(parts.left, parts.middle, join(parts.right, node, right));
+        } else if (cmp > 0) {
+            SplitResult<T> parts = split(right, key);
+            return new SplitResult<>(join(left, node, parts.left), parts.middle, parts.right);
+        } else {
+            return new SplitResult<>(left, node, right);
+        }
+    }
+
+    /**
+     * Helper method to join two subtrees under a key node. Every element of the left subtree must be less than the key,
+     * and every element of the right subtree must be greater than it.
+     *
+     * @param left  the subtree of smaller elements
+     * @param key   the node to place between the subtrees, whose current children are discarded
+     * @param right the subtree of greater elements
+     * @return the root of the joined, balanced subtree
+     * @implNote This method has a time complexity of O(|h(left) - h(right)| + 1)
+     */
+    private Node<T> join(Node<T> left, Node<T> key, Node<T> right) {
+        if (height(left) > height(right) + 1) {
+            return joinRight(left, key, right);
+        }
+        if (height(right) > height(left) + 1) {
+            return joinLeft(left, key, right);
+        }
+        key.setLeft(left);
+        key.setRight(right);
+        return key;
+    }
+
+    /**
+     * Helper method to join two subtrees under a key node when the left subtree is taller.
+     * Walks down the right spine of the left subtree until the heights match and rebalances on the way back.
+     *
+     * @param left  the taller subtree of smaller elements
+     * @param key   the node to place between the subtrees
+     * @param right the subtree of greater elements
+     * @return the root of the joined, balanced subtree
+     */
+    private Node<T> joinRight(Node<T> left, Node<T> key, Node<T> right) {
+        Node<T> inner = left.getRight();
+        if (height(inner) <= height(right) + 1) {
+            key.setLeft(inner);
+            key.setRight(right);
+            left.setRight(key);
+            if (height(key) <= height(left.getLeft()) + 1) {
+                return left;
+            }
+            left.setRight(rightRotate(key));
+            return leftRotate(left);
+        }
+        Node<T> joined = joinRight(inner, key, right);
+        left.setRight(joined);
+        if (height(joined) <= height(left.getLeft()) + 1) {
+            return left;
+        }
+        return leftRotate(left);
+    }
+
+    /**
+     * Helper method to join two subtrees under a key node when the right subtree is taller.
+     * Walks down the left spine of the right subtree until the heights match and rebalances on the way back.
+     *
+     * @param left  the subtree of smaller elements
+     * @param key   the node to place between the subtrees
+     * @param right the taller subtree of greater elements
+     * @return the root of the joined, balanced subtree
+     */
+    private Node<T> joinLeft(Node<T> left, Node<T> key, Node<T> right) {
+        Node<T> inner = right.getLeft();
+        if (height(inner) <= height(left) + 1) {
+            key.setLeft(left);
+            key.setRight(inner);
+            right.setLeft(key);
+            if (height(key) <= height(right.getRight()) + 1) {
+                return right;
+            }
+            right.setLeft(leftRotate(key));
+            return rightRotate(right);
+        }
+        Node<T> joined = joinLeft(left, key, inner);
+        right.setLeft(joined);
+        if (height(joined) <= height(right.getRight()) + 1) {
+            return right;
+        }
+        return rightRotate(right);
+    }
+
+    /**
+     * Helper method to concatenate two subtrees without a key node. Every element of the left subtree must be less
+     * than every element of the right subtree.
+     *
+     * @param left  the subtree of smaller elements
+     * @param right the subtree of greater elements
+     * @return the root of the concatenated, balanced subtree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private Node<T> join2(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        SplitResult<T> parts = splitLast(left);
+        return join(parts.left, parts.middle, right);
+    }
+
+    /**
+     * Helper method to detach the maximum node from a non-empty subtree.
+     *
+     * @param node the root of the subtree
+     * @return the remaining subtree as {@code left} and the detached maximum node as {@code middle}
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private SplitResult<T> splitLast(Node<T> node) {
+        Node<T> left = node.getLeft();
+        Node<T> right = node.getRight();
+        if (right == null) {
+            return new SplitResult<>(left, node, null);
+        }
+        SplitResult<T> parts = splitLast(right);
+        return new SplitResult<>(join(left, node, parts.left), parts.middle, null);
+    }
+
+    /**
+     * Returns the height of the given subtree.
+     *
+     * @param node the root of the subtree
+     * @return the height of the subtree, or -1 if the node is null
+     */
+    private int height(Node<T> node) {
+        return (node == null) ? -1 : node.getHeight();
+    }
+
+    /**
+     * Clears the parent pointer of a node that becomes the root of a tree.
+     *
+     * @param node the new root, possibly null
+     * @return the same node
+     */
+    private Node<T> detach(Node<T> node) {
+        if (node != null) {
+            node.setParent(null);
+        }
+        return node;
+    }
+
+    /**
+     * The three parts produced by splitting a subtree around a key.
+     *
+     * @param <T> the data type of the elements in the tree
+     */
+    private static class SplitResult<T extends Comparable<T>> {
+        private final Node<T> left; // The subtree of elements less than the key
+        private final Node<T> middle; // The node equal to the key, or null if the key was not present
+        private final Node<T> right; // The subtree of elements greater than the key
+
+        SplitResult(Node<T> left, Node<T> middle, Node<T> right) {
+            this.left = left;
+            this.middle = middle;
+            this.right = right;
+        }
+    }
+
+    /**
+     * The set operations that can be applied between two AVL trees.
+     */
+    private enum SetOperation {
+        UNION, INTERSECTION, DIFFERENCE
+    }
+
+    /**
+     * A fork-join task that applies a set operation to two subtrees. The first subtree is split around the root of
+     * the second (or the other way around for unions and intersections), both halves are processed in parallel,
+     * and the results are joined back together.
+     */
+    private class SetOperationTask extends RecursiveTask<Node<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final SetOperation operation; // The set operation to apply
+        private final Node<T> first; // The root of the first operand
+        private final Node<T> second; // The root of the second operand
+
+        SetOperationTask(SetOperation operation, Node<T> first, Node<T> second) {
+            this.operation = operation;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        protected Node<T> compute() {
+            if (first == null) {
+                return (operation == SetOperation.UNION) ? second : null;
+            }
+            if (second == null) {
+                return (operation == SetOperation.INTERSECTION) ? null : first;
+            }
+
+            // Unions and intersections split the second operand around the root of the first one,
+            // while differences split the first operand around the root of the second one
+            boolean parallel = getSize(first) + getSize(second) >= PARALLEL_BUILD_THRESHOLD;
+            Node<T> pivot = (operation == SetOperation.DIFFERENCE) ? second : first;
+            Node<T> pivotLeft = pivot.getLeft();
+            Node<T> pivotRight = pivot.getRight();
+            SplitResult<T> parts = split((pivot == first) ? second : first, pivot.getValue());
+
+            SetOperationTask leftTask = new SetOperationTask(operation,
+                    (pivot == first) ? pivotLeft : parts.left, (pivot == first) ? parts.left : pivotLeft);
+            SetOperationTask rightTask = new SetOperationTask(operation,
+                    (pivot == first) ? pivotRight : parts.right, (pivot == first) ? parts.right : pivotRight);
+            Node<T> leftResult;
+            Node<T> rightResult;
+            if (parallel) {
+                leftTask.fork();
+                rightResult = rightTask.compute();
+                leftResult = leftTask.join();
+            } else {
+                leftResult = leftTask.compute();
+                rightResult = rightTask.compute();
+            }
+
+            boolean keepPivot;
+            if (operation == SetOperation.UNION) {
+                keepPivot = true;
+            } else if (operation == SetOperation.INTERSECTION) {
+                keepPivot = parts.middle != null;
+            } else {
+                keepPivot = false;
+            }
+            return keepPivot ? AVL.this.join(leftResult, pivot, rightResult) : join2(leftResult, rightResult);
+        }
+    }
+}
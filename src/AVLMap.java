@@ -0,0 +1,652 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A sorted key-value map backed by an {@link AVL} tree.
+ * <p>
+ * Every mapping is stored as one {@link Entry} node of the tree, ordered by its key only, so callers no longer need
+ * composite values whose {@code compareTo} ignores the payload. Lookups and the navigation queries
+ * {@link #floorKey(Comparable)}, {@link #ceilingKey(Comparable)}, {@link #higherKey(Comparable)} and
+ * {@link #lowerKey(Comparable)} descend the tree once with a single key comparison per level, and insertions and
+ * removals reuse the balancing code of the AVL tree.
+ * <p>
+ * {@link #headMap(Comparable)} and {@link #tailMap(Comparable)} return views of a key range that are backed by the
+ * same tree, so changes in either are visible in both. Null keys are not permitted.
+ *
+ * @param <K> the data type of the keys
+ * @param <V> the data type of the mapped values
+ */
+public class AVLMap<K extends Comparable<K>, V> extends AbstractMap<K, V> {
+    private final AVL<Entry<K, V>> tree; // The tree holding the entries, shared with all views
+    private final K lo; // The lower bound of the keys of this view, or null if unbounded
+    private final boolean loInclusive; // Whether the lower bound belongs to the view
+    private final K hi; // The upper bound of the keys of this view, or null if unbounded
+    private final boolean hiInclusive; // Whether the upper bound belongs to the view
+    private Set<Map.Entry<K, V>> entrySet; // The lazily created entry set view
+
+    /**
+     * Constructs a new empty map.
+     */
+    public AVLMap() {
+        this(new AVL<>(), null, false, null, false);
+    }
+
+    /**
+     * Constructs a view of the given tree restricted to a key range.
+     *
+     * @param tree        the tree holding the entries
+     * @param lo          the lower bound of the keys, or null if unbounded
+     * @param loInclusive whether the lower bound belongs to the view
+     * @param hi          the upper bound of the keys, or null if unbounded
+     * @param hiInclusive whether the upper bound belongs to the view
+     */
+    private AVLMap(AVL<Entry<K, V>> tree, K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        this.tree = tree;
+        this.lo = lo;
+        this.loInclusive = loInclusive;
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+    }
+
+    /**
+     * Returns the number of mappings in the map.
+     *
+     * @return the number of mappings
+     * @implNote This method has a time complexity of O(1) for the whole map, and of O(log(n)) for a view.
+     */
+    @Override
+    public int size() {
+        if (lo == null && hi == null) {
+            return tree.size();
+        }
+        int below = (lo == null) ? 0 : rank(lo, !loInclusive);
+        int upTo = (hi == null) ? tree.size() : rank(hi, hiInclusive);
+        return Math.max(0, upTo - below);
+    }
+
+    /**
+     * Returns the value mapped to the given key.
+     *
+     * @param key the key to look up
+     * @return the mapped value, or null if the key is not mapped
+     * @throws ClassCastException if the key is not of the key type of the map
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public V get(Object key) {
+        Entry<K, V> entry = getEntry(key);
+        return (entry == null) ? null : entry.value;
+    }
+
+    /**
+     * Returns whether the given key is mapped.
+     *
+     * @param key the key to look up
+     * @return true if the key is mapped, false otherwise
+     * @throws ClassCastException if the key is not of the key type of the map
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return getEntry(key) != null;
+    }
+
+    /**
+     * Maps the given key to the given value, replacing any previous mapping of the key.
+     *
+     * @param key   the key to map
+     * @param value the value to map the key to
+     * @return the previously mapped value, or null if the key was not mapped
+     * @throws IllegalArgumentException if the key is null or lies outside the range of this view
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (!inRange(key)) {
+            throw new IllegalArgumentException("Key out of range.");
+        }
+        Node<Entry<K, V>> node = tree.findOrInsert(new Entry<>(key, value));
+        return (node != null) ? node.getValue().setValue(value) : null;
+    }
+
+    /**
+     * Removes the mapping of the given key.
+     *
+     * @param key the key to remove
+     * @return the previously mapped value, or null if the key was not mapped
+     * @throws ClassCastException if the key is not of the key type of the map
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        K k = (K) key;
+        if (!inRange(k)) {
+            return null;
+        }
+        Entry<K, V> removed = tree.remove(new Entry<>(k, null));
+        return (removed == null) ? null : removed.value;
+    }
+
+    /**
+     * Removes all mappings of the map, or of the key range of this view.
+     *
+     * @implNote This method has a time complexity of O(1) for the whole map, and of O(log(n)) for a view.
+     */
+    @Override
+    public void clear() {
+        if (lo == null && hi == null) {
+            tree.clear();
+            return;
+        }
+        Entry<K, V> first = firstEntryInRange();
+        Entry<K, V> last = lastEntryInRange();
+        if (first != null && last != null && first.key.compareTo(last.key) <= 0) {
+            tree.deleteRange(first, last);
+        }
+    }
+
+    /**
+     * Returns the smallest key of the map.
+     *
+     * @return the smallest key
+     * @throws NoSuchElementException if the map is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public K firstKey() {
+        Entry<K, V> entry = firstEntryInRange();
+        if (entry == null) {
+            throw new NoSuchElementException();
+        }
+        return entry.key;
+    }
+
+    /**
+     * Returns the largest key of the map.
+     *
+     * @return the largest key
+     * @throws NoSuchElementException if the map is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public K lastKey() {
+        Entry<K, V> entry = lastEntryInRange();
+        if (entry == null) {
+            throw new NoSuchElementException();
+        }
+        return entry.key;
+    }
+
+    /**
+     * Returns the largest key less than or equal to the given key.
+     *
+     * @param key the key to compare against
+     * @return the floor key, or null if there is none
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public K floorKey(K key) {
+        return keyOf(below(key, true));
+    }
+
+    /**
+     * Returns the smallest key greater than or equal to the given key.
+     *
+     * @param key the key to compare against
+     * @return the ceiling key, or null if there is none
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public K ceilingKey(K key) {
+        return keyOf(above(key, true));
+    }
+
+    /**
+     * Returns the smallest key strictly greater than the given key.
+     *
+     * @param key the key to compare against
+     * @return the higher key, or null if there is none
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public K higherKey(K key) {
+        return keyOf(above(key, false));
+    }
+
+    /**
+     * Returns the largest key strictly less than the given key.
+     *
+     * @param key the key to compare against
+     * @return the lower key, or null if there is none
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public K lowerKey(K key) {
+        return keyOf(below(key, false));
+    }
+
+    /**
+     * Returns a view of the mappings whose keys are strictly less than the given key.
+     *
+     * @param toKey the upper bound of the keys (exclusive)
+     * @return a view backed by this map
+     * @throws IllegalArgumentException if the key is null or lies outside the range of this view
+     */
+    public AVLMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    /**
+     * Returns a view of the mappings whose keys are less than, or equal to if inclusive, the given key.
+     *
+     * @param toKey     the upper bound of the keys
+     * @param inclusive whether the upper bound belongs to the view
+     * @return a view backed by this map
+     * @throws IllegalArgumentException if the key is null or lies outside the range of this view
+     */
+    public AVLMap<K, V> headMap(K toKey, boolean inclusive) {
+        if (toKey == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (!isValidBound(toKey, inclusive)) {
+            throw new IllegalArgumentException("toKey out of range.");
+        }
+        return new AVLMap<>(tree, lo, loInclusive, toKey, inclusive);
+    }
+
+    /**
+     * Returns a view of the mappings whose keys are greater than or equal to the given key.
+     *
+     * @param fromKey the lower bound of the keys (inclusive)
+     * @return a view backed by this map
+     * @throws IllegalArgumentException if the key is null or lies outside the range of this view
+     */
+    public AVLMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    /**
+     * Returns a view of the mappings whose keys are greater than, or equal to if inclusive, the given key.
+     *
+     * @param fromKey   the lower bound of the keys
+     * @param inclusive whether the lower bound belongs to the view
+     * @return a view backed by this map
+     * @throws IllegalArgumentException if the key is null or lies outside the range of this view
+     */
+    public AVLMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        if (fromKey == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (!isValidBound(fromKey, inclusive)) {
+            throw new IllegalArgumentException("fromKey out of range.");
+        }
+        return new AVLMap<>(tree, fromKey, inclusive, hi, hiInclusive);
+    }
+
+    /**
+     * Returns a set view of the mappings in ascending key order, backed by this map.
+     *
+     * @return the entry set view
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Looks up the entry of a key within the range of this view.
+     *
+     * @param key the key to look up
+     * @return the entry, or null if the key is not mapped
+     */
+    private Entry<K, V> getEntry(Object key) {
+        if (key == null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        K k = (K) key;
+        if (!inRange(k)) {
+            return null;
+        }
+        Node<Entry<K, V>> node = findNode(k);
+        return (node == null) ? null : node.getValue();
+    }
+
+    /**
+     * Descends the tree to the node holding the given key, comparing the key once per level.
+     *
+     * @param key the key to look up
+     * @return the node holding the key, or null if it is not mapped
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private Node<Entry<K, V>> findNode(K key) {
+        Node<Entry<K, V>> current = tree.root;
+        while (current != null) {
+            int cmp = key.compareTo(current.getValue().key);
+            if (cmp == 0) {
+                return current;
+            }
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the largest entry of this view whose key is less than, or equal to if inclusive, the given key.
+     *
+     * @param key       the key to compare against
+     * @param inclusive whether an entry with an equal key qualifies
+     * @return the entry, or null if there is none
+     */
+    private Entry<K, V> below(K key, boolean inclusive) {
+        if (key == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (tooHigh(key)) {
+            key = hi;
+            inclusive = hiInclusive;
+        }
+        Entry<K, V> result = null;
+        Node<Entry<K, V>> current = tree.root;
+        while (current != null) {
+            int cmp = key.compareTo(current.getValue().key);
+            if (cmp > 0 || (cmp == 0 && inclusive)) {
+                result = current.getValue();
+                if (cmp == 0) {
+                    break;
+                }
+                current = current.getRight();
+            } else {
+                current = current.getLeft();
+            }
+        }
+        return (result == null || tooLow(result.key)) ? null : result;
+    }
+
+    /**
+     * Returns the smallest entry of this view whose key is greater than, or equal to if inclusive, the given key.
+     *
+     * @param key       the key to compare against
+     * @param inclusive whether an entry with an equal key qualifies
+     * @return the entry, or null if there is none
+     */
+    private Entry<K, V> above(K key, boolean inclusive) {
+        if (key == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (tooLow(key)) {
+            key = lo;
+            inclusive = loInclusive;
+        }
+        Entry<K, V> result = null;
+        Node<Entry<K, V>> current = tree.root;
+        while (current != null) {
+            int cmp = key.compareTo(current.getValue().key);
+            if (cmp < 0 || (cmp == 0 && inclusive)) {
+                result = current.getValue();
+                if (cmp == 0) {
+                    break;
+                }
+                current = current.getLeft();
+            } else {
+                current = current.getRight();
+            }
+        }
+        return (result == null || tooHigh(result.key)) ? null : result;
+    }
+
+    /**
+     * Returns the smallest entry within the range of this view.
+     *
+     * @return the entry, or null if the view is empty
+     */
+    private Entry<K, V> firstEntryInRange() {
+        if (lo != null) {
+            return above(lo, loInclusive);
+        }
+        Node<Entry<K, V>> min = tree.getMin();
+        return (min == null || tooHigh(min.getValue().key)) ? null : min.getValue();
+    }
+
+    /**
+     * Returns the largest entry within the range of this view.
+     *
+     * @return the entry, or null if the view is empty
+     */
+    private Entry<K, V> lastEntryInRange() {
+        if (hi != null) {
+            return below(hi, hiInclusive);
+        }
+        Node<Entry<K, V>> max = tree.getMax();
+        return (max == null || tooLow(max.getValue().key)) ? null : max.getValue();
+    }
+
+    /**
+     * Counts the entries whose keys are less than, or equal to if inclusive, the given key, using the subtree sizes.
+     *
+     * @param key       the key to compare against
+     * @param inclusive whether an entry with an equal key is counted
+     * @return the number of such entries in the whole tree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private int rank(K key, boolean inclusive) {
+        int rank = 0;
+        Node<Entry<K, V>> current = tree.root;
+        while (current != null) {
+            int cmp = key.compareTo(current.getValue().key);
+            if (cmp > 0 || (cmp == 0 && inclusive)) {
+                rank += ((current.getLeft() == null) ? 0 : current.getLeft().getSize()) + 1;
+                if (cmp == 0) {
+                    break;
+                }
+                current = current.getRight();
+            } else {
+                current = current.getLeft();
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns whether a key lies below the range of this view.
+     *
+     * @param key the key to check
+     * @return true if the key is too low, false otherwise
+     */
+    private boolean tooLow(K key) {
+        if (lo == null) {
+            return false;
+        }
+        int cmp = key.compareTo(lo);
+        return cmp < 0 || (cmp == 0 && !loInclusive);
+    }
+
+    /**
+     * Returns whether a key lies above the range of this view.
+     *
+     * @param key the key to check
+     * @return true if the key is too high, false otherwise
+     */
+    private boolean tooHigh(K key) {
+        if (hi == null) {
+            return false;
+        }
+        int cmp = key.compareTo(hi);
+        return cmp > 0 || (cmp == 0 && !hiInclusive);
+    }
+
+    /**
+     * Returns whether a key lies within the range of this view.
+     *
+     * @param key the key to check
+     * @return true if the key is within the range, false otherwise
+     */
+    private boolean inRange(K key) {
+        return !tooLow(key) && !tooHigh(key);
+    }
+
+    /**
+     * Returns whether a key is a valid bound for a nested view. An inclusive bound must lie within the range of this
+     * view, while an exclusive bound may also be equal to one of its bounds, as in {@link java.util.TreeMap}.
+     *
+     * @param key       the key to check
+     * @param inclusive whether the key belongs to the nested view
+     * @return true if the key is a valid bound, false otherwise
+     */
+    private boolean isValidBound(K key, boolean inclusive) {
+        if (inclusive) {
+            return inRange(key);
+        }
+        return (lo == null || key.compareTo(lo) >= 0) && (hi == null || key.compareTo(hi) <= 0);
+    }
+
+    /**
+     * Returns the key of an entry.
+     *
+     * @param entry the entry, possibly null
+     * @return the key of the entry, or null if the entry is null
+     */
+    private static <K extends Comparable<K>> K keyOf(Entry<K, ?> entry) {
+        return (entry == null) ? null : entry.key;
+    }
+
+    /**
+     * A mapping stored in the tree. Entries are ordered by their keys only.
+     *
+     * @param <K> the data type of the key
+     * @param <V> the data type of the mapped value
+     */
+    public static final class Entry<K extends Comparable<K>, V> implements Map.Entry<K, V>, Comparable<Entry<K, V>> {
+        private final K key; // The key of the mapping
+        private V value; // The mapped value
+
+        /**
+         * Constructs a new entry.
+         *
+         * @param key   the key of the mapping
+         * @param value the mapped value
+         */
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = this.value;
+            this.value = value;
+            return previous;
+        }
+
+        @Override
+        public int compareTo(Entry<K, V> other) {
+            return key.compareTo(other.key);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+            return key.equals(entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * The entry set view of the map, iterating in ascending key order.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return AVLMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            AVLMap.this.clear();
+        }
+    }
+
+    /**
+     * An iterator over the entries of the view that steps through the tree with
+     * {@link AVL#getSuccessor(Node)}. Removing through the iterator is supported, and any other modification of the
+     * map while the iterator is in use leaves it in an undefined state.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private Node<Entry<K, V>> next; // The node holding the next entry to return, or null when exhausted
+        private Entry<K, V> last; // The entry returned last, or null if it cannot be removed
+
+        /**
+         * Constructs a new iterator starting at the smallest entry of the view.
+         */
+        EntryIterator() {
+            Entry<K, V> first = firstEntryInRange();
+            next = (first == null) ? null : findNode(first.key);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            last = next.getValue();
+            next = tree.getSuccessor(next);
+            if (next != null && tooHigh(next.getValue().key)) {
+                next = null;
+            }
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            // Removing a node may move the entry of its successor into it, so the next node is looked up again
+            Entry<K, V> following = (next == null) ? null : next.getValue();
+            tree.remove(last);
+            last = null;
+            next = (following == null) ? null : findNode(following.key);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import java.util.Comparator;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * AVL tree whose nodes also store an aggregate of their subtree, such as the sum, the minimum or the maximum of the
+ * elements, which answers aggregates over a key range in O(log(n)).
+ * <p>
+ * The aggregate is described by a monoid: an identity, a mapper that turns one element into an aggregate, and an
+ * associative combiner. The combiner does not need to be commutative, since aggregates are always combined in the
+ * order of the elements. Every node recomputes its aggregate from its children whenever its subtree size is updated,
+ * which happens on every {@link Node#setLeft(Node)} and {@link Node#setRight(Node)}, and therefore on every rotation,
+ * split and join of the underlying AVL tree as well.
+ * <p>
+ * {@link #aggregate(Comparable, Comparable)} walks down the two boundary paths of the range and combines the stored
+ * aggregates of the subtrees that lie completely inside it, instead of visiting every element of the range.
+ *
+ * @param <T> the data type of the elements in the tree
+ * @param <A> the data type of the aggregates
+ */
+public class AggregateAVL<T extends Comparable<T>, A> extends AVL<T> {
+    private final A identity; // The aggregate of no elements
+    private final Function<? super T, ? extends A> mapper; // Turns one element into its aggregate
+    private final BinaryOperator<A> combiner; // Combines the aggregates of two adjacent runs of elements
+
+    /**
+     * Constructs a new aggregate AVL tree with no elements, ordered by the natural order of its elements.
+     *
+     * @param identity the aggregate of no elements, which the combiner must leave unchanged
+     * @param mapper   the function turning one element into its aggregate
+     * @param combiner the associative function combining the aggregates of two adjacent runs of elements
+     * @throws IllegalArgumentException if the mapper or the combiner is null
+     */
+    public AggregateAVL(A identity, Function<? super T, ? extends A> mapper, BinaryOperator<A> combiner) {
+        this(identity, mapper, combiner, null);
+    }
+
+    /**
+     * Constructs a new aggregate AVL tree with no elements, ordered by the given comparator.
+     *
+     * @param identity   the aggregate of no elements, which the combiner must leave unchanged
+     * @param mapper     the function turning one element into its aggregate
+     * @param combiner   the associative function combining the aggregates of two adjacent runs of elements
+     * @param comparator the comparator that orders the elements, or null for their natural order
+     * @throws IllegalArgumentException if the mapper or the combiner is null
+     */
+    public AggregateAVL(A identity, Function<? super T, ? extends A> mapper, BinaryOperator<A> combiner,
+                        Comparator<? super T> comparator) {
+        super(Node.Layout.PARENT_AND_HEIGHT, comparator);
+        if (mapper == null || combiner == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        this.identity = identity;
+        this.mapper = mapper;
+        this.combiner = combiner;
+    }
+
+    /**
+     * Returns the aggregate of all elements in the tree.
+     *
+     * @return the aggregate of all elements, or the identity if the tree is empty
+     * @implNote This method has a time complexity of O(1)
+     */
+    public A aggregate() {
+        return aggregateOf(root);
+    }
+
+    /**
+     * Returns the aggregate of every element within the closed range [lo, hi], combined in ascending order.
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return the aggregate of the elements in the range, or the identity if the range is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public A aggregate(T lo, T hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (compare(lo, hi) > 0) {
+            return identity;
+        }
+        // Descend to the highest node inside the range, where the paths to both bounds split
+        Node<T> top = root;
+        while (top != null) {
+            if (compare(top.getValue(), lo) < 0) {
+                top = top.getRight();
+            } else if (compare(top.getValue(), hi) > 0) {
+                top = top.getLeft();
+            } else {
+                break;
+            }
+        }
+        if (top == null) {
+            return identity;
+        }
+
+        // Along the path to lo, every node inside the range brings its right subtree along. These pieces are found
+        // from right to left, so each one is combined in front of the pieces found before it.
+        A lower = identity;
+        Node<T> current = top.getLeft();
+        while (current != null) {
+            if (compare(current.getValue(), lo) >= 0) {
+                lower = combiner.apply(combiner.apply(mapper.apply(current.getValue()), aggregateOf(current.getRight())), lower);
+                current = current.getLeft();
+            } else {
+                current = current.getRight();
+            }
+        }
+
+        // Along the path to hi, every node inside the range brings its left subtree along, from left to right
+        A upper = identity;
+        current = top.getRight();
+        while (current != null) {
+            if (compare(current.getValue(), hi) <= 0) {
+                upper = combiner.apply(upper, combiner.apply(aggregateOf(current.getLeft()), mapper.apply(current.getValue())));
+                current = current.getRight();
+            } else {
+                current = current.getLeft();
+            }
+        }
+        return combiner.apply(combiner.apply(lower, mapper.apply(top.getValue())), upper);
+    }
+
+    /**
+     * Creates a new node for the given value that stores the aggregate of its subtree.
+     *
+     * @param value the value to store in the node
+     * @return the new node
+     */
+    @Override
+    protected Node<T> createNode(T value) {
+        return new AggregateNode(value);
+    }
+
+    /**
+     * Creates an empty aggregate tree with the same monoid, node layout and order as this tree.
+     *
+     * @return a new empty tree
+     */
+    @Override
+    protected AVL<T> createEmptyTree() {
+        return new AggregateAVL<>(identity, mapper, combiner, comparator);
+    }
+
+    /**
+     * Ensures that the nodes of the other tree can be moved into this tree, which additionally requires that both
+     * trees aggregate with the same monoid.
+     *
+     * @param other the tree whose nodes are about to be reused
+     * @throws IllegalArgumentException if the other tree uses a different node layout, order or monoid
+     */
+    @Override
+    protected void requireCompatible(AVL<T> other) {
+        super.requireCompatible(other);
+        if (!(other instanceof AggregateAVL)) {
+            throw new IllegalArgumentException("Both trees must aggregate with the same monoid.");
+        }
+        AggregateAVL<T, ?> that = (AggregateAVL<T, ?>) other;
+        if (that.mapper != mapper || that.combiner != combiner || that.identity != identity) {
+            throw new IllegalArgumentException("Both trees must aggregate with the same monoid.");
+        }
+    }
+
+    /**
+     * Returns the aggregate stored in a node, treating null children as empty.
+     *
+     * @param node the root of the subtree
+     * @return the aggregate of the subtree, or the identity if the subtree is empty
+     */
+    @SuppressWarnings("unchecked")
+    protected A aggregateOf(Node<T> node) {
+        return (node == null) ? identity : ((AggregateNode) node).aggregate;
+    }
+
+    /**
+     * A node that also stores the aggregate of its subtree under the monoid of the tree.
+     */
+    private class AggregateNode extends Node.WithParentAndHeight<T> {
+        private A aggregate; // The aggregate of all elements in the subtree rooted at this node
+
+        /**
+         * Constructs a new leaf node with the given value.
+         *
+         * @param value the value to store in the node
+         */
+        AggregateNode(T value) {
+            super(value);
+            aggregate = mapper.apply(value);
+        }
+
+        /**
+         * Updates the subtree size and height of the node, and recomputes its aggregate from its children.
+         */
+        @Override
+        public void updateHeight() {
+            super.updateHeight();
+            aggregate = combiner.apply(combiner.apply(aggregateOf(getLeft()), mapper.apply(getValue())), aggregateOf(getRight()));
+        }
+    }
+}
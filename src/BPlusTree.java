@@ -0,0 +1,761 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * In-memory B+ Tree implementation of the Tree interface.
+ * <p>
+ * Every node keeps its keys in a sorted array, so a lookup touches one node per level and finds the child to follow
+ * by a binary search within that node instead of by chasing one pointer per comparison. With the default fanout of
+ * {@value #DEFAULT_FANOUT} a tree of ten million elements is only four levels deep. All elements are stored in the
+ * leaves, which are linked in both directions, so in-order traversals and range scans walk the leaves sequentially.
+ * <p>
+ * Methods of the Tree interface that return a node return a detached {@link Node} holding the value.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class BPlusTree<T extends Comparable<T>> implements Tree<T> {
+    /**
+     * The maximum number of children of an internal node used by {@link #BPlusTree()}.
+     */
+    public static final int DEFAULT_FANOUT = 64;
+    /**
+     * The smallest supported fanout. Lower fanouts cannot keep every node at least half full.
+     */
+    public static final int MIN_FANOUT = 4;
+
+    private final int maxKeys; // The maximum number of keys of a node, one less than the fanout
+    private final int minKeys; // The minimum number of keys of every node except the root
+
+    private BNode root; // The root node, or null if the tree is empty
+    private int size; // The number of elements in the tree
+    private int height; // The number of levels below the root
+
+    /**
+     * Constructs a new B+ tree with no elements and the default fanout.
+     */
+    public BPlusTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * Constructs a new B+ tree with no elements and the given fanout.
+     *
+     * @param fanout the maximum number of children of an internal node, which is one more than the maximum number
+     *               of elements of a leaf
+     * @throws IllegalArgumentException if the fanout is less than {@value #MIN_FANOUT}
+     */
+    public BPlusTree(int fanout) {
+        if (fanout < MIN_FANOUT) {
+            throw new IllegalArgumentException("Fanout must be at least " + MIN_FANOUT + ".");
+        }
+        maxKeys = fanout - 1;
+        minKeys = (fanout + 1) / 2 - 1;
+        clear();
+    }
+
+    /**
+     * Returns the maximum number of children of an internal node.
+     *
+     * @return the fanout of the tree
+     */
+    public int getFanout() {
+        return maxKeys + 1;
+    }
+
+    /**
+     * Inserts an element into the tree.
+     *
+     * @param value the value to insert into the tree
+     * @return true if the value was successfully inserted, false if it already exists in the tree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public boolean insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            Leaf leaf = new Leaf(maxKeys);
+            leaf.keys[0] = value;
+            leaf.count = 1;
+            root = leaf;
+            size = 1;
+            return true;
+        }
+        int beforeInsertSize = size;
+        Split split = insert(root, value);
+        if (split != null) {
+            // The root overflowed, so the tree grows by one level at the top
+            Internal newRoot = new Internal(maxKeys);
+            newRoot.keys[0] = split.separator;
+            newRoot.children[0] = root;
+            newRoot.children[1] = split.right;
+            newRoot.count = 1;
+            root = newRoot;
+            height++;
+        }
+        return size != beforeInsertSize;
+    }
+
+    /**
+     * Recursive helper method for inserting a value into a subtree.
+     *
+     * @param node  the root of the subtree to insert the value into
+     * @param value the value to insert
+     * @return the new right sibling and its separator if the node had to be split, or null otherwise
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private Split insert(BNode node, T value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = search(leaf, value);
+            if (index >= 0) {
+                // The value already exists in the tree
+                return null;
+            }
+            size++;
+            return leaf.insertAt(-index - 1, value);
+        }
+        Internal internal = (Internal) node;
+        int childIndex = childIndex(internal, value);
+        Split split = insert(internal.children[childIndex], value);
+        if (split == null) {
+            return null;
+        }
+        return internal.insertAt(childIndex, split.separator, split.right);
+    }
+
+    /**
+     * Deletes an element from the tree.
+     *
+     * @param value the value to delete
+     * @return true if the value was successfully deleted, false if it was not found in the tree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public boolean delete(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            return false;
+        }
+        int beforeDeleteSize = size;
+        delete(root, value);
+        if (root.count == 0) {
+            // The root ran empty, so the tree shrinks by one level at the top
+            if (root instanceof Internal) {
+                root = ((Internal) root).children[0];
+                height--;
+            } else {
+                root = null;
+            }
+        }
+        return size != beforeDeleteSize;
+    }
+
+    /**
+     * Recursive helper method for deleting a value from a subtree. A child that falls below the minimum number of
+     * keys borrows a key from a sibling or is merged with it.
+     *
+     * @param node  the root of the subtree to delete the value from
+     * @param value the value to delete
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private void delete(BNode node, T value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = search(leaf, value);
+            if (index >= 0) {
+                leaf.removeAt(index);
+                size--;
+            }
+            return;
+        }
+        Internal internal = (Internal) node;
+        int childIndex = childIndex(internal, value);
+        BNode child = internal.children[childIndex];
+        delete(child, value);
+        if (child.count < minKeys) {
+            rebalanceChild(internal, childIndex);
+        }
+    }
+
+    /**
+     * Restores the minimum number of keys of an underfull child by borrowing from or merging with a sibling.
+     *
+     * @param parent     the parent of the underfull child
+     * @param childIndex the index of the underfull child within the parent
+     */
+    private void rebalanceChild(Internal parent, int childIndex) {
+        BNode child = parent.children[childIndex];
+        BNode leftSibling = (childIndex > 0) ? parent.children[childIndex - 1] : null;
+        BNode rightSibling = (childIndex < parent.count) ? parent.children[childIndex + 1] : null;
+        if (leftSibling != null && leftSibling.count > minKeys) {
+            borrowFromLeft(parent, childIndex, leftSibling, child);
+        } else if (rightSibling != null && rightSibling.count > minKeys) {
+            borrowFromRight(parent, childIndex, child, rightSibling);
+        } else if (leftSibling != null) {
+            merge(parent, childIndex - 1, leftSibling, child);
+        } else {
+            merge(parent, childIndex, child, rightSibling);
+        }
+    }
+
+    private void borrowFromLeft(Internal parent, int childIndex, BNode leftSibling, BNode child) {
+        if (child instanceof Leaf) {
+            Leaf leaf = (Leaf) child;
+            leaf.insertAt(0, leftSibling.keys[leftSibling.count - 1]);
+            leftSibling.count--;
+            leftSibling.keys[leftSibling.count] = null;
+            parent.keys[childIndex - 1] = leaf.keys[0];
+        } else {
+            Internal internal = (Internal) child;
+            Internal left = (Internal) leftSibling;
+            System.arraycopy(internal.keys, 0, internal.keys, 1, internal.count);
+            System.arraycopy(internal.children, 0, internal.children, 1, internal.count + 1);
+            internal.keys[0] = parent.keys[childIndex - 1];
+            internal.children[0] = left.children[left.count];
+            internal.count++;
+            parent.keys[childIndex - 1] = left.keys[left.count - 1];
+            left.keys[left.count - 1] = null;
+            left.children[left.count] = null;
+            left.count--;
+        }
+    }
+
+    private void borrowFromRight(Internal parent, int childIndex, BNode child, BNode rightSibling) {
+        if (child instanceof Leaf) {
+            Leaf leaf = (Leaf) child;
+            leaf.keys[leaf.count++] = rightSibling.keys[0];
+            ((Leaf) rightSibling).removeAt(0);
+            parent.keys[childIndex] = rightSibling.keys[0];
+        } else {
+            Internal internal = (Internal) child;
+            Internal right = (Internal) rightSibling;
+            internal.keys[internal.count] = parent.keys[childIndex];
+            internal.children[internal.count + 1] = right.children[0];
+            internal.count++;
+            parent.keys[childIndex] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            System.arraycopy(right.children, 1, right.children, 0, right.count);
+            right.keys[right.count - 1] = null;
+            right.children[right.count] = null;
+            right.count--;
+        }
+    }
+
+    /**
+     * Moves every key of a node into its left sibling and removes the node and their separator from the parent.
+     *
+     * @param parent    the parent of both nodes
+     * @param leftIndex the index of the left node within the parent
+     * @param left      the node that receives the keys
+     * @param right     the node that is removed
+     */
+    private void merge(Internal parent, int leftIndex, BNode left, BNode right) {
+        if (left instanceof Leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            Leaf rightLeaf = (Leaf) right;
+            System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.count, rightLeaf.count);
+            leftLeaf.count += rightLeaf.count;
+            leftLeaf.next = rightLeaf.next;
+            if (leftLeaf.next != null) {
+                leftLeaf.next.previous = leftLeaf;
+            }
+        } else {
+            Internal leftInternal = (Internal) left;
+            Internal rightInternal = (Internal) right;
+            leftInternal.keys[leftInternal.count] = parent.keys[leftIndex];
+            System.arraycopy(rightInternal.keys, 0, leftInternal.keys, leftInternal.count + 1, rightInternal.count);
+            System.arraycopy(rightInternal.children, 0, leftInternal.children, leftInternal.count + 1, rightInternal.count + 1);
+            leftInternal.count += rightInternal.count + 1;
+        }
+        parent.removeAt(leftIndex);
+    }
+
+    /**
+     * Checks if the tree contains the given value.
+     *
+     * @param value the value to search for
+     * @return true if the tree contains the value, false otherwise
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public boolean contains(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            return false;
+        }
+        return search(findLeaf(value), value) >= 0;
+    }
+
+    /**
+     * Returns a detached node holding the given value if the tree contains it.
+     *
+     * @param value the value to search for
+     * @return a new node holding the value, or null if it is not found
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> find(T value) {
+        return contains(value) ? new Node<>(value) : null;
+    }
+
+    /**
+     * Counts the number of occurrences for the specified value in the tree.
+     *
+     * @param value the value to count
+     * @return 1 if the tree contains the value, 0 otherwise
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public int count(T value) {
+        return contains(value) ? 1 : 0;
+    }
+
+    /**
+     * Applies the specified action to each element. Since every element is stored in a leaf, every depth-first
+     * order visits the elements in ascending order, just like {@link #inOrder(Consumer)}.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of elements in the tree.
+     */
+    @Override
+    public void preOrder(Consumer<T> action) {
+        inOrder(action);
+    }
+
+    /**
+     * Applies the specified action to each element in ascending order by walking the linked leaves.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of elements in the tree.
+     */
+    @Override
+    public void inOrder(Consumer<T> action) {
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                action.accept(key(leaf, i));
+            }
+        }
+    }
+
+    /**
+     * Applies the specified action to each element. Since every element is stored in a leaf, every depth-first
+     * order visits the elements in ascending order, just like {@link #inOrder(Consumer)}.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of elements in the tree.
+     */
+    @Override
+    public void postOrder(Consumer<T> action) {
+        inOrder(action);
+    }
+
+    /**
+     * Applies the specified action to every element within the closed range [lo, hi] in ascending order.
+     *
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each element within the range
+     * @implNote This method has a time complexity of O(log(n) + k), where k is the number of reported elements.
+     */
+    public void rangeSearch(T lo, T hi, Consumer<T> action) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            return;
+        }
+        Leaf leaf = findLeaf(lo);
+        int index = search(leaf, lo);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        while (leaf != null) {
+            for (; index < leaf.count; index++) {
+                T value = key(leaf, index);
+                if (value.compareTo(hi) > 0) {
+                    return;
+                }
+                action.accept(value);
+            }
+            leaf = leaf.next;
+            index = 0;
+        }
+    }
+
+    /**
+     * Returns the depth of the tree, which is the number of levels below the root.
+     *
+     * @return the depth of the tree, or -1 if the tree is empty
+     * @implNote This method has a time complexity of O(1)
+     */
+    @Override
+    public int getDepth() {
+        return (root == null) ? -1 : height;
+    }
+
+    /**
+     * Prints the keys of every node to standard output, one level per line.
+     */
+    @Override
+    public void printTree() {
+        List<BNode> level = new ArrayList<>();
+        if (root != null) {
+            level.add(root);
+        }
+        while (!level.isEmpty()) {
+            StringBuilder sb = new StringBuilder();
+            List<BNode> nextLevel = new ArrayList<>();
+            for (BNode node : level) {
+                sb.append('[');
+                for (int i = 0; i < node.count; i++) {
+                    if (i > 0) sb.append(' ');
+                    sb.append(node.keys[i]);
+                }
+                sb.append("] ");
+                if (node instanceof Internal) {
+                    Internal internal = (Internal) node;
+                    for (int i = 0; i <= internal.count; i++) {
+                        nextLevel.add(internal.children[i]);
+                    }
+                }
+            }
+            System.out.println(sb.toString().trim());
+            level = nextLevel;
+        }
+    }
+
+    /**
+     * Returns a detached node holding the minimum element of the tree.
+     *
+     * @return a new node holding the minimum element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getMin() {
+        Leaf leaf = firstLeaf();
+        return (leaf == null) ? null : new Node<>(key(leaf, 0));
+    }
+
+    /**
+     * Returns a detached node holding the maximum element of the tree.
+     *
+     * @return a new node holding the maximum element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getMax() {
+        if (root == null) {
+            return null;
+        }
+        BNode current = root;
+        while (current instanceof Internal) {
+            current = ((Internal) current).children[current.count];
+        }
+        return new Node<>(key((Leaf) current, current.count - 1));
+    }
+
+    /**
+     * Returns a detached node holding the smallest element greater than the value of the given node.
+     *
+     * @param node the node to find the successor of
+     * @return a new node holding the successor, or null if there is none
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getSuccessor(Node<T> node) {
+        if (node == null || root == null) {
+            return null;
+        }
+        T value = node.getValue();
+        Leaf leaf = findLeaf(value);
+        int index = search(leaf, value);
+        // Skip the value itself if it is present, otherwise start at its insertion point
+        index = (index >= 0) ? index + 1 : -index - 1;
+        if (index == leaf.count) {
+            leaf = leaf.next;
+            index = 0;
+        }
+        return (leaf == null) ? null : new Node<>(key(leaf, index));
+    }
+
+    /**
+     * Returns a detached node holding the greatest element less than the value of the given node.
+     *
+     * @param node the node to find the predecessor of
+     * @return a new node holding the predecessor, or null if there is none
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getPredecessor(Node<T> node) {
+        if (node == null || root == null) {
+            return null;
+        }
+        T value = node.getValue();
+        Leaf leaf = findLeaf(value);
+        int index = search(leaf, value);
+        // Both the value itself and its insertion point are preceded by the element just before them
+        index = ((index >= 0) ? index : -index - 1) - 1;
+        if (index < 0) {
+            leaf = leaf.previous;
+            if (leaf == null) {
+                return null;
+            }
+            index = leaf.count - 1;
+        }
+        return new Node<>(key(leaf, index));
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return the number of elements in the tree
+     * @implNote This method has a time complexity of O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Makes the tree empty.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+        height = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        inOrder(value -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(value);
+        });
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Descends from the root to the leaf whose key range covers the given value.
+     *
+     * @param value the value to search for
+     * @return the leaf that holds the value if it is present in the tree
+     */
+    private Leaf findLeaf(T value) {
+        BNode current = root;
+        while (current instanceof Internal) {
+            Internal internal = (Internal) current;
+            current = internal.children[childIndex(internal, value)];
+        }
+        return (Leaf) current;
+    }
+
+    /**
+     * Returns the leftmost leaf, which holds the smallest elements.
+     *
+     * @return the first leaf, or null if the tree is empty
+     */
+    private Leaf firstLeaf() {
+        if (root == null) {
+            return null;
+        }
+        BNode current = root;
+        while (current instanceof Internal) {
+            current = ((Internal) current).children[0];
+        }
+        return (Leaf) current;
+    }
+
+    /**
+     * Returns the index of the child of an internal node whose key range covers the given value. The separator at
+     * index i is the smallest key of child i + 1, so this is the number of separators less than or equal to the value.
+     *
+     * @param internal the internal node to search in
+     * @param value    the value to search for
+     * @return the index of the child to descend into
+     */
+    private int childIndex(Internal internal, T value) {
+        int index = search(internal, value);
+        return (index >= 0) ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Performs a binary search for the given value among the keys of a node.
+     *
+     * @param node  the node to search in
+     * @param value the value to search for
+     * @return the index of the value if it is found, otherwise (-(insertion point) - 1)
+     */
+    private int search(BNode node, T value) {
+        int low = 0;
+        int high = node.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = value.compareTo(key(node, mid));
+            if (cmp > 0) {
+                low = mid + 1;
+            } else if (cmp < 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T key(BNode node, int index) {
+        return (T) node.keys[index];
+    }
+
+    /**
+     * A node of the tree holding a sorted array of keys.
+     */
+    private abstract static class BNode {
+        final Object[] keys; // The sorted keys, only the first count entries are used
+        int count; // The number of keys in use
+
+        BNode(int maxKeys) {
+            keys = new Object[maxKeys];
+            count = 0;
+        }
+    }
+
+    /**
+     * A leaf node holding elements of the tree, linked to its neighboring leaves.
+     */
+    private static final class Leaf extends BNode {
+        Leaf previous; // The leaf holding the next smaller elements
+        Leaf next; // The leaf holding the next greater elements
+
+        Leaf(int maxKeys) {
+            super(maxKeys);
+        }
+
+        /**
+         * Inserts a key at the given position, splitting the leaf in half if it is full.
+         *
+         * @return the new right sibling and its smallest key if the leaf was split, or null otherwise
+         */
+        Split insertAt(int index, Object key) {
+            if (count < keys.length) {
+                System.arraycopy(keys, index, keys, index + 1, count - index);
+                keys[index] = key;
+                count++;
+                return null;
+            }
+            // Split a virtual array of keys.length + 1 keys without allocating it
+            int total = count + 1;
+            int leftCount = total / 2;
+            Leaf right = new Leaf(keys.length);
+            for (int i = total - 1, j = count - 1; i >= leftCount; i--) {
+                right.keys[i - leftCount] = (i == index) ? key : keys[j--];
+            }
+            right.count = total - leftCount;
+            if (index < leftCount) {
+                System.arraycopy(keys, index, keys, index + 1, leftCount - 1 - index);
+                keys[index] = key;
+            }
+            for (int i = leftCount; i < count; i++) {
+                keys[i] = null;
+            }
+            count = leftCount;
+
+            right.next = next;
+            if (next != null) {
+                next.previous = right;
+            }
+            right.previous = this;
+            next = right;
+            return new Split(right.keys[0], right);
+        }
+
+        void removeAt(int index) {
+            System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+            keys[--count] = null;
+        }
+    }
+
+    /**
+     * An internal node holding separators and one more child than separators.
+     */
+    private static final class Internal extends BNode {
+        final BNode[] children; // The children, only the first count + 1 entries are used
+
+        Internal(int maxKeys) {
+            super(maxKeys);
+            children = new BNode[maxKeys + 1];
+        }
+
+        /**
+         * Inserts the separator and right sibling produced by splitting the child at the given index, splitting this
+         * node in half if it is full.
+         *
+         * @return the new right sibling and the separator to push up if this node was split, or null otherwise
+         */
+        Split insertAt(int childIndex, Object separator, BNode rightChild) {
+            if (count < keys.length) {
+                System.arraycopy(keys, childIndex, keys, childIndex + 1, count - childIndex);
+                System.arraycopy(children, childIndex + 1, children, childIndex + 2, count - childIndex);
+                keys[childIndex] = separator;
+                children[childIndex + 1] = rightChild;
+                count++;
+                return null;
+            }
+            // Build the overflowing key and child sequences, then move the upper half into a new sibling
+            Object[] allKeys = new Object[count + 1];
+            BNode[] allChildren = new BNode[count + 2];
+            System.arraycopy(keys, 0, allKeys, 0, childIndex);
+            allKeys[childIndex] = separator;
+            System.arraycopy(keys, childIndex, allKeys, childIndex + 1, count - childIndex);
+            System.arraycopy(children, 0, allChildren, 0, childIndex + 1);
+            allChildren[childIndex + 1] = rightChild;
+            System.arraycopy(children, childIndex + 1, allChildren, childIndex + 2, count - childIndex);
+
+            int middle = allKeys.length / 2;
+            Internal right = new Internal(keys.length);
+            int rightCount = allKeys.length - middle - 1;
+            System.arraycopy(allKeys, middle + 1, right.keys, 0, rightCount);
+            System.arraycopy(allChildren, middle + 1, right.children, 0, rightCount + 1);
+            right.count = rightCount;
+
+            Arrays.fill(keys, null);
+            Arrays.fill(children, null);
+            System.arraycopy(allKeys, 0, keys, 0, middle);
+            System.arraycopy(allChildren, 0, children, 0, middle + 1);
+            count = middle;
+            return new Split(allKeys[middle], right);
+        }
+
+        /**
+         * Removes the separator at the given index together with the child to its right.
+         */
+        void removeAt(int index) {
+            System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+            System.arraycopy(children, index + 2, children, index + 1, count - index - 1);
+            keys[count - 1] = null;
+            children[count] = null;
+            count--;
+        }
+    }
+
+    /**
+     * The result of splitting a full node: the new right sibling and the separator that goes into the parent.
+     */
+    private static final class Split {
+        final Object separator; // The smallest key reachable through the new sibling
+        final BNode right; // The new right sibling
+
+        Split(Object separator, BNode right) {
+            this.separator = separator;
+            this.right = right;
+        }
+    }
+}
@@ -1,20 +1,166 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Stack;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Binary Search Tree implementation that inherits from BinaryTree class.
  */
-public class BST<T extends Comparable<T>> extends BinaryTree<T> {
+public class BST<T extends Comparable<T>> extends BinaryTree<T> implements Iterable<T> {
+    /**
+     * The first four bytes of every snapshot ("TSNP").
+     */
+    private static final int SNAPSHOT_MAGIC = 0x54534E50;
+    /**
+     * The node flag telling that a node in a snapshot has a left child.
+     */
+    private static final byte SNAPSHOT_HAS_LEFT = 1;
+    /**
+     * The node flag telling that a node in a snapshot has a right child.
+     */
+    private static final byte SNAPSHOT_HAS_RIGHT = 2;
+    /**
+     * The size of the buffer snapshots are staged in.
+     */
+    private static final int SNAPSHOT_BUFFER_SIZE = 1 << 16;
+
+    protected final boolean countDuplicates; // Whether equal elements share one node that counts their occurrences
+    private T removedValue; // The element removed by the running recursive removal
+    protected Node<T> matchedNode; // The node holding the value found by the running insertion
+
     /**
      * Constructs a new binary search tree with no elements.
      */
     public BST() {
-        super();
+        this(Node.Layout.PARENT, null, false);
+    }
+
+    /**
+     * Constructs a new binary search tree with no elements, optionally storing the height of every node.
+     * The binary search tree itself never reads stored heights, so they only cost memory unless the caller needs
+     * {@link Node#getHeight()} in O(1).
+     *
+     * @param trackHeights true to store the height of every node, false to compute heights on demand
+     */
+    public BST(boolean trackHeights) {
+        this(trackHeights ? Node.Layout.PARENT_AND_HEIGHT : Node.Layout.PARENT, null, false);
+    }
+
+    /**
+     * Constructs a new binary search tree with no elements whose elements are ordered by the given comparator.
+     *
+     * @param comparator the comparator that orders the elements, or null for their natural order
+     */
+    public BST(Comparator<? super T> comparator) {
+        this(Node.Layout.PARENT, comparator, false);
+    }
+
+    /**
+     * Constructs a new binary search tree with no elements whose nodes use the given layout.
+     *
+     * @param nodeLayout the field layout of the nodes created by the tree
+     */
+    protected BST(Node.Layout nodeLayout) {
+        this(nodeLayout, null, false);
+    }
+
+    /**
+     * Constructs a new binary search tree with no elements whose nodes use the given layout and whose elements are
+     * ordered by the given comparator.
+     *
+     * @param nodeLayout the field layout of the nodes created by the tree
+     * @param comparator the comparator that orders the elements, or null for their natural order
+     */
+    protected BST(Node.Layout nodeLayout, Comparator<? super T> comparator) {
+        this(nodeLayout, comparator, false);
+    }
+
+    /**
+     * Constructs a new binary search tree with no elements whose nodes use the given layout, whose elements are
+     * ordered by the given comparator, and which optionally counts equal elements in a single node.
+     *
+     * @param nodeLayout      the field layout of the nodes created by the tree
+     * @param comparator      the comparator that orders the elements, or null for their natural order
+     * @param countDuplicates true to count the occurrences of equal elements, false to reject equal elements
+     */
+    protected BST(Node.Layout nodeLayout, Comparator<? super T> comparator, boolean countDuplicates) {
+        super(nodeLayout, comparator);
+        this.countDuplicates = countDuplicates;
     }
+
     /**
-     * Constructs a binary search tree with the given root node.
+     * Constructs a binary search tree with the given root node. Nodes without parent pointers, such as plain
+     * {@link Node}s, are copied into nodes that store them.
      *
      * @param root The root node of the binary search tree.
      */
     public BST(Node<T> root) {
-        super(root);
+        this(root, Node.Layout.PARENT);
+    }
+
+    /**
+     * Constructs a binary search tree with the given root node, whose nodes are copied into nodes of the given layout
+     * unless they already store all of its fields.
+     *
+     * @param root       The root node of the binary search tree.
+     * @param nodeLayout the layout whose fields the nodes of the tree must store
+     */
+    protected BST(Node<T> root, Node.Layout nodeLayout) {
+        super(root, nodeLayout);
+        countDuplicates = false;
+    }
+
+    /**
+     * Creates a binary search tree in multiset mode, which keeps every occurrence of an element instead of rejecting
+     * equal elements. All occurrences of an element share one {@link Node.Counted} node, so inserting an element that
+     * is already present only increments the count of its node without allocating anything, {@link #count(Comparable)}
+     * reads the count in a single descent, and {@link #delete(Comparable)} removes one occurrence at a time.
+     * <p>
+     * The size, the iteration order, the ranks and the range operations of the tree refer to its distinct elements,
+     * and {@link #deleteRange(Comparable, Comparable)} removes every occurrence of the elements in the range.
+     *
+     * @param <T> the data type of the elements in the tree
+     * @return a new empty binary search tree in multiset mode
+     */
+    public static <T extends Comparable<T>> BST<T> multiset() {
+        return multiset(null);
+    }
+
+    /**
+     * Creates a binary search tree in multiset mode whose elements are ordered by the given comparator, so that all
+     * elements the comparator considers equal are counted in one node holding the first of them.
+     *
+     * @param comparator the comparator that orders the elements, or null for their natural order
+     * @param <T>        the data type of the elements in the tree
+     * @return a new empty binary search tree in multiset mode
+     * @see #multiset()
+     */
+    public static <T extends Comparable<T>> BST<T> multiset(Comparator<? super T> comparator) {
+        return new BST<T>(Node.Layout.PARENT_AND_HEIGHT, comparator, true);
+    }
+
+    /**
+     * Returns whether the tree is in multiset mode and counts the occurrences of equal elements.
+     *
+     * @return true if equal elements are counted, false if they are rejected
+     */
+    public boolean isMultiset() {
+        return countDuplicates;
     }
 
     /**
@@ -35,13 +181,90 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
             // Call the recursive insert method, which returns the root of the updated subtree.
             root = insertRecursive(root, value);
             // If the size changed after insertion, it means the value was inserted successfully.
-            return size != beforeInsertSize;
+            // Otherwise, a tree in multiset mode counts one more occurrence of the matched element.
+            return size != beforeInsertSize || addOccurrence();
         } else {
             // If using the iterative approach, call the iterative insert method.
-            return insertIterative(root, value);
+            return insertIterative(root, value) || addOccurrence();
+        }
+    }
+
+    /**
+     * Inserts an element into the tree unless an equal element is already present, in which case the node holding
+     * that element is returned instead. This lets callers whose elements carry more than their ordering key, such as
+     * {@link AVLMap}, update an existing element with the same single descent that would have inserted it.
+     *
+     * @param value the value to insert into the tree
+     * @return the node holding the equal element, or null if the value was inserted
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    protected Node<T> findOrInsert(T value) {
+        matchedNode = null;
+        insert(value);
+        Node<T> matched = matchedNode;
+        matchedNode = null;
+        return matched;
+    }
+
+    /**
+     * Counts one more occurrence of the element in the node matched by the running insertion, if the tree is in
+     * multiset mode.
+     *
+     * @return true if an occurrence was counted, false if the tree rejects equal elements
+     * @throws IllegalStateException if the element already occurs {@link Integer#MAX_VALUE} times
+     */
+    protected boolean addOccurrence() {
+        if (!countDuplicates) {
+            return false;
+        }
+        Node.Counted<T> node = (Node.Counted<T>) matchedNode;
+        if (node.getCount() == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many occurrences of " + node.getValue() + ".");
+        }
+        node.setCount(node.getCount() + 1);
+        return true;
+    }
+
+    /**
+     * Removes one occurrence of the element of a node that counts more than one occurrence in multiset mode. The node
+     * stays in place, so the structure of the tree does not change.
+     *
+     * @param node the node holding the element
+     * @return true if an occurrence was removed, false if the node holds a single occurrence and has to be removed
+     */
+    protected boolean removeOccurrence(Node<T> node) {
+        if (node.getCount() == 1) {
+            return false;
+        }
+        ((Node.Counted<T>) node).setCount(node.getCount() - 1);
+        return true;
+    }
+
+    /**
+     * Moves the value of a node that is about to be spliced out into another node, together with its number of
+     * occurrences in multiset mode.
+     *
+     * @param from the node whose value is moved
+     * @param to   the node that receives the value
+     */
+    protected void moveValue(Node<T> from, Node<T> to) {
+        to.setValue(from.getValue());
+        if (countDuplicates) {
+            ((Node.Counted<T>) to).setCount(from.getCount());
         }
     }
 
+    /**
+     * Creates a new node for the given value, which counts the occurrences of the value in multiset mode.
+     *
+     * @param value the value to store in the node
+     * @return the new node
+     */
+    @Override
+    protected Node<T> createNode(T value) {
+        return countDuplicates ? new Node.Counted<>(value) : super.createNode(value);
+    }
+
     /**
      * Helper method to recursively insert a value into the Binary Search Tree (BST).
      *
@@ -54,18 +277,23 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
         // Base case: If the subtree is empty (reached a leaf node or a null child), create a new node with the value
         if (node == null) {
             size++;
-            return new Node<>(value);
+            return createNode(value);
         }
 
-        // Compare the value with the current node's value to decide where to insert
-        if (value.compareTo(node.getValue()) < 0) {
+        // Compare the value with the current node's value once to decide where to insert
+        int cmp = compare(value, node.getValue());
+        if (cmp < 0) {
             // The value is less than the current node's value, so insert it into the left subtree
             Node<T> leftChild = insertRecursive(node.getLeft(), value);
             node.setLeft(leftChild);
-        } else if (value.compareTo(node.getValue()) > 0) {
+        } else if (cmp > 0) {
             // The value is greater than the current node's value, so insert it into the right subtree
             Node<T> rightChild = insertRecursive(node.getRight(), value);
             node.setRight(rightChild);
+        } else {
+            // The value already exists in the tree, so the subtree does not change
+            matchedNode = node;
+            return node;
         }
 
         // Update the height of the current node after inserting the value into the subtree
@@ -84,297 +312,1651 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
      * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
      */
     private boolean insertIterative(Node<T> node, T value) {
-        Node<T> newNode = new Node<>(value);
-
         // If the tree is empty, set the root node to be the new node
         if (root == null) {
-            root = newNode;
+            root = createNode(value);
             size++;
             return true;
         }
 
-        // Traverse the tree to find the correct position to insert the new node
+        // The node is only allocated once its place is known, so finding an existing value allocates nothing
+        Node<T> newNode;
+
+        // Without parent pointers the path has to be remembered to update the subtree sizes afterwards
+        Stack<Node<T>> path = nodeLayout.hasParent() ? null : new Stack<>();
+
+        // Traverse the tree to find the correct position to insert the new node
+        Node<T> current = node;
+        while (true) {
+            if (path != null) {
+                path.push(current);
+            }
+            int cmp = compare(current.getValue(), value);
+            if (cmp == 0) {
+                // The value already exists in the tree, so return false
+                matchedNode = current;
+                return false;
+            } else if (cmp > 0) {
+                // The value is less than the current node's value, so move to the left subtree
+                if (current.getLeft() == null) {
+                    newNode = createNode(value);
+                    current.setLeft(newNode);
+                    break;
+                } else {
+                    current = current.getLeft();
+                }
+            } else {
+                // The value is greater than the current node's value, so move to the right subtree
+                if (current.getRight() == null) {
+                    newNode = createNode(value);
+                    current.setRight(newNode);
+                    break;
+                } else {
+                    current = current.getRight();
+                }
+            }
+        }
+
+        // Increment the size of the tree and return true
+        size++;
+        // Update the height of every node on the path from the new node's parent up to the root
+        updateHeightsUpward(newNode.getParent(), path);
+
+        return true;
+    }
+
+    /**
+     * Searches the tree for a node with the specified value and returns it.
+     *
+     * @param value the value to search for
+     * @return the node with the specified value, or null if it is not found
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    public Node<T> find(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (useRecursiveApproach) return findRecursive(root, value);
+        else return findIterative(root, value);
+    }
+
+    /**
+     * Helper method to recursively search for a value in the BST.
+     *
+     * @param node  the root of the subtree to search in
+     * @param value the value to search for
+     * @return the node with the specified value, or null if it is not found
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private Node<T> findRecursive(Node<T> node, T value) {
+        // If the current node is null, we have reached the end of the subtree,
+        // and the value is not found, so return null.
+        if (node == null) {
+            return null;
+        }
+
+        // Compare the value with the current node's value using the order of the tree.
+        int cmp = compare(value, node.getValue());
+
+        // If the value is less than the current node's value, it means the value
+        // might exist in the left subtree .Recursively call the findRecursive method
+        // with the left subtree root node and the same value.
+        if (cmp < 0) {
+            return findRecursive(node.getLeft(), value);
+        }
+
+        // If the value is greater than the current node's value, it means the value
+        // might exist in the right subtree. Recursively call the findRecursive method
+        // with the right subtree root node and the same value.
+        else if (cmp > 0) {
+            return findRecursive(node.getRight(), value);
+        }
+
+        // If the comparison returns 0, it means the value is equal to the current
+        // node's value, so we have found the node with the specified value. Return the node.
+        else {
+            return node;
+        }
+    }
+
+    /**
+     * Helper method to iteratively search for a value in the BST.
+     *
+     * @param node  the root of the subtree to search in
+     * @param value the value to search for
+     * @return the node with the specified value, or null if it is not found
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private Node<T> findIterative(Node<T> node, T value) {
+        // Start from the root node
+        Node<T> current = node;
+        while (current != null) {
+            int cmp = compare(value, current.getValue());
+            if (cmp < 0) {
+                // The value is less than the current node's value, so move to the left subtree
+                current = current.getLeft();
+            } else if (cmp > 0) {
+                // The value is greater than the current node's value, so move to the right subtree
+                current = current.getRight();
+            } else {
+                // The value matches the current node's value, so returns the node
+                return current;
+            }
+        }
+        // If the loop exits, the value is not found, so return null
+        return null;
+    }
+
+    /**
+     * Counts the number of occurrences for the specified value in the tree, which is at most one unless the tree is
+     * in multiset mode.
+     *
+     * @param value the value to count
+     * @return the number of occurrences for the value in the tree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    @Override
+    public int count(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        Node<T> node = find(value);
+        return (node == null) ? 0 : node.getCount();
+    }
+
+    /**
+     * Returns the rank of the specified value, i.e. the number of elements in the tree that are strictly less than it.
+     * The value itself does not need to be present in the tree.
+     *
+     * @param value the value to rank
+     * @return the number of elements less than the value
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    public int rank(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (useRecursiveApproach) return rankRecursive(root, value, false);
+        else return rankIterative(root, value, false);
+    }
+
+    /**
+     * Recursive helper method for counting the elements that are less than (or equal to) the specified value.
+     *
+     * @param node      the root of the subtree to count in
+     * @param value     the value to compare against
+     * @param inclusive true to also count an element equal to the value
+     * @return the number of matching elements in the subtree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private int rankRecursive(Node<T> node, T value, boolean inclusive) {
+        if (node == null) {
+            return 0;
+        }
+        int cmp = compare(value, node.getValue());
+        if (cmp < 0 || (cmp == 0 && !inclusive)) {
+            // The node and its whole right subtree are not less than the value
+            return rankRecursive(node.getLeft(), value, inclusive);
+        }
+        // The node and its whole left subtree are counted
+        return getSize(node.getLeft()) + 1 + rankRecursive(node.getRight(), value, inclusive);
+    }
+
+    /**
+     * Iterative helper method for counting the elements that are less than (or equal to) the specified value.
+     *
+     * @param node      the root of the subtree to count in
+     * @param value     the value to compare against
+     * @param inclusive true to also count an element equal to the value
+     * @return the number of matching elements in the subtree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private int rankIterative(Node<T> node, T value, boolean inclusive) {
+        int rank = 0;
+        Node<T> current = node;
+        while (current != null) {
+            int cmp = compare(value, current.getValue());
+            if (cmp < 0 || (cmp == 0 && !inclusive)) {
+                current = current.getLeft();
+            } else {
+                rank += getSize(current.getLeft()) + 1;
+                current = current.getRight();
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the node holding the k-th smallest element of the tree, counting from zero.
+     *
+     * @param k the zero-based index of the element in sorted order
+     * @return the node holding the k-th smallest element
+     * @throws IndexOutOfBoundsException if k is negative or not less than the size of the tree
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    public Node<T> select(int k) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + size);
+        }
+        if (useRecursiveApproach) return selectRecursive(root, k);
+        else return selectIterative(root, k);
+    }
+
+    /**
+     * Recursive helper method for finding the k-th smallest element in a subtree.
+     *
+     * @param node the root of the subtree to search in
+     * @param k    the zero-based index of the element within the subtree
+     * @return the node holding the k-th smallest element of the subtree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private Node<T> selectRecursive(Node<T> node, int k) {
+        int leftSize = getSize(node.getLeft());
+        if (k < leftSize) {
+            return selectRecursive(node.getLeft(), k);
+        } else if (k > leftSize) {
+            return selectRecursive(node.getRight(), k - leftSize - 1);
+        } else {
+            return node;
+        }
+    }
+
+    /**
+     * Iterative helper method for finding the k-th smallest element in a subtree.
+     *
+     * @param node the root of the subtree to search in
+     * @param k    the zero-based index of the element within the subtree
+     * @return the node holding the k-th smallest element of the subtree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private Node<T> selectIterative(Node<T> node, int k) {
+        Node<T> current = node;
+        while (true) {
+            int leftSize = getSize(current.getLeft());
+            if (k < leftSize) {
+                current = current.getLeft();
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                current = current.getRight();
+            } else {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Counts the elements of the tree that lie within the closed range [lo, hi].
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return the number of elements within the range, or 0 if lo is greater than hi
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    public int countRange(T lo, T hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (compare(lo, hi) > 0) {
+            return 0;
+        }
+        if (useRecursiveApproach) return rankRecursive(root, hi, true) - rankRecursive(root, lo, false);
+        else return rankIterative(root, hi, true) - rankIterative(root, lo, false);
+    }
+
+    /**
+     * Performs an in-order traversal restricted to the closed range [lo, hi] and applies the specified action to each
+     * element within it. Subtrees that lie entirely outside the range are never visited.
+     *
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each element within the range
+     * @implNote This method has a time complexity of O(h + k), where h is the height of the tree and k is the number
+     * of reported elements.
+     */
+    public void rangeSearch(T lo, T hi, Consumer<T> action) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (useRecursiveApproach) rangeSearchRecursive(root, lo, hi, action);
+        else rangeSearchIterative(root, lo, hi, action);
+    }
+
+    /**
+     * Recursive helper method for the range search.
+     *
+     * @param node   the root of the subtree to search in
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each element within the range
+     * @implNote This method has a time complexity of O(h + k), where h is the height of the subtree.
+     */
+    private void rangeSearchRecursive(Node<T> node, T lo, T hi, Consumer<T> action) {
+        if (node == null) {
+            return;
+        }
+        int cmpLo = compare(lo, node.getValue());
+        int cmpHi = compare(hi, node.getValue());
+        // The left subtree can only hold elements within the range if the node is greater than lo
+        if (cmpLo < 0) {
+            rangeSearchRecursive(node.getLeft(), lo, hi, action);
+        }
+        if (cmpLo <= 0 && cmpHi >= 0) {
+            action.accept(node.getValue());
+        }
+        // The right subtree can only hold elements within the range if the node is less than hi
+        if (cmpHi > 0) {
+            rangeSearchRecursive(node.getRight(), lo, hi, action);
+        }
+    }
+
+    /**
+     * Iterative helper method for the range search.
+     *
+     * @param node   the root of the subtree to search in
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each element within the range
+     * @implNote This method has a time complexity of O(h + k), where h is the height of the subtree.
+     */
+    private void rangeSearchIterative(Node<T> node, T lo, T hi, Consumer<T> action) {
+        Stack<Node<T>> stack = new Stack<>();
+        Node<T> current = node;
+        while (current != null || !stack.isEmpty()) {
+            // Walk down the left spine, skipping every node (and its left subtree) that is below the range
+            while (current != null) {
+                if (compare(current.getValue(), lo) < 0) {
+                    current = current.getRight();
+                } else {
+                    stack.push(current);
+                    current = current.getLeft();
+                }
+            }
+            if (stack.isEmpty()) {
+                // Every remaining element is below the range
+                return;
+            }
+            current = stack.pop();
+            if (compare(current.getValue(), hi) > 0) {
+                // Every remaining element is above the range
+                return;
+            }
+            action.accept(current.getValue());
+            current = current.getRight();
+        }
+    }
+
+    /**
+     * Returns a lazy iterator over the elements within the closed range [lo, hi] in ascending order.
+     * The iterator locates the first element on creation and then steps through the tree with
+     * {@link #getSuccessor(Node)}, so stopping early only pays for the elements actually consumed.
+     * The tree must not be modified while the iterator is in use.
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return an iterator over the elements within the range
+     * @implNote Creating the iterator has a time complexity of O(h), and a full iteration costs O(h + k),
+     * where h is the height of the tree and k is the number of reported elements.
+     */
+    public Iterator<T> range(T lo, T hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        Node<T> first = ceilingNode(lo);
+        return new Iterator<T>() {
+            private Node<T> next = (first != null && compare(first.getValue(), hi) <= 0) ? first : null;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                T value = next.getValue();
+                Node<T> successor = getSuccessor(next);
+                next = (successor != null && compare(successor.getValue(), hi) <= 0) ? successor : null;
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Returns a lazy iterator over the elements of the tree in ascending order.
+     * The iterator steps through the tree with {@link #getSuccessor(Node)}, so it needs no auxiliary stack
+     * and stopping early only pays for the elements actually consumed.
+     * The tree must not be modified while the iterator is in use.
+     *
+     * @return an iterator over the elements in ascending order
+     * @implNote Each step has an amortized time complexity of O(1), and a full iteration costs O(n).
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new NodeIterator(getMin(), false);
+    }
+
+    /**
+     * Returns a lazy iterator over the elements of the tree in descending order.
+     * The iterator steps through the tree with {@link #getPredecessor(Node)}.
+     * The tree must not be modified while the iterator is in use.
+     *
+     * @return an iterator over the elements in descending order
+     * @implNote Each step has an amortized time complexity of O(1), and a full iteration costs O(n).
+     */
+    public Iterator<T> descendingIterator() {
+        return new NodeIterator(getMax(), true);
+    }
+
+    /**
+     * Returns a spliterator over the elements of the tree in ascending order.
+     * The spliterator splits at subtree roots, so every split halves the remaining work of a balanced tree,
+     * and it reports exact sizes taken from the subtree sizes stored in the nodes.
+     * The tree must not be modified while the spliterator is in use.
+     *
+     * @return a spliterator over the elements in ascending order
+     * @implNote Splitting has a time complexity of O(h), where h is the height of the tree.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new NodeSpliterator(root == null ? null : getMin(), null, root, size);
+    }
+
+    /**
+     * Returns a sequential stream over the elements of the tree in ascending order.
+     * Calling {@code parallel()} on the returned stream fans the work out across subtrees.
+     *
+     * @return a stream over the elements in ascending order
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Writes the shape and the elements of the tree to the channel in a compact binary format.
+     * <p>
+     * The snapshot starts with a header holding the number of elements, followed by every node in pre-order as a
+     * byte telling which children it has and the value written by the codec. The nodes are staged in a buffer of
+     * {@value #SNAPSHOT_BUFFER_SIZE} bytes that is drained whenever it fills up, so large trees are never held in
+     * memory a second time.
+     *
+     * @param channel the channel to write the snapshot to
+     * @param codec   the codec writing the values
+     * @throws IOException                   if the channel cannot be written
+     * @throws UnsupportedOperationException if the tree is in multiset mode
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the tree.
+     */
+    public void writeSnapshot(WritableByteChannel channel, Codec<T> codec) throws IOException {
+        if (channel == null || codec == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (countDuplicates) {
+            throw new UnsupportedOperationException("Snapshots do not record occurrence counts.");
+        }
+        int nodeBytes = 1 + codec.maxEncodedSize();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(SNAPSHOT_BUFFER_SIZE, nodeBytes));
+        buffer.putInt(SNAPSHOT_MAGIC);
+        buffer.putInt(size);
+
+        // Iterative pre-order traversal, so that degenerate trees cannot overflow the call stack
+        Stack<Node<T>> stack = new Stack<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            if (buffer.remaining() < nodeBytes) {
+                drain(buffer, channel);
+            }
+            byte flags = 0;
+            if (node.getLeft() != null) flags |= SNAPSHOT_HAS_LEFT;
+            if (node.getRight() != null) flags |= SNAPSHOT_HAS_RIGHT;
+            buffer.put(flags);
+            codec.encode(node.getValue(), buffer);
+            if (node.getRight() != null) stack.push(node.getRight());
+            if (node.getLeft() != null) stack.push(node.getLeft());
+        }
+        drain(buffer, channel);
+    }
+
+    /**
+     * Replaces the elements of the tree with a snapshot written by {@link #writeSnapshot(WritableByteChannel, Codec)}.
+     * The tree is rebuilt with exactly the shape it was written with, so no values are compared and no rotations are
+     * performed. The channel is read through a buffer of {@value #SNAPSHOT_BUFFER_SIZE} bytes.
+     *
+     * @param channel the channel to read the snapshot from
+     * @param codec   the codec reading the values, which must match the codec the snapshot was written with
+     * @throws IOException                   if the channel cannot be read, or does not hold a complete snapshot
+     * @throws UnsupportedOperationException if the tree is in multiset mode
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the snapshot.
+     */
+    public void readSnapshot(ReadableByteChannel channel, Codec<T> codec) throws IOException {
+        if (channel == null || codec == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (countDuplicates) {
+            throw new UnsupportedOperationException("Snapshots do not record occurrence counts.");
+        }
+        int nodeBytes = 1 + codec.maxEncodedSize();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(SNAPSHOT_BUFFER_SIZE, nodeBytes));
+        buffer.flip();
+        fill(buffer, channel, 2 * Integer.BYTES);
+        if (buffer.remaining() < 2 * Integer.BYTES || buffer.getInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a tree snapshot.");
+        }
+        int count = buffer.getInt();
+        if (count < 0) {
+            throw new IOException("Corrupt tree snapshot.");
+        }
+
+        Node<T> newRoot = null;
+        // The path from the root to the last read node, and whether each of them still waits for its right child
+        Stack<Node<T>> path = new Stack<>();
+        Stack<Boolean> rightPending = new Stack<>();
+        boolean leftPending = false;
+        try {
+            for (int i = 0; i < count; i++) {
+                fill(buffer, channel, nodeBytes);
+                byte flags = buffer.get();
+                Node<T> node = createNode(codec.decode(buffer));
+                if (newRoot == null) {
+                    newRoot = node;
+                } else if (leftPending) {
+                    path.peek().setLeft(node);
+                } else {
+                    // Every subtree below the closest node that waits for its right child is complete
+                    while (!rightPending.isEmpty() && !rightPending.peek()) {
+                        path.pop().updateHeight();
+                        rightPending.pop();
+                    }
+                    if (path.isEmpty()) {
+                        throw new IOException("Corrupt tree snapshot.");
+                    }
+                    rightPending.pop();
+                    rightPending.push(false);
+                    path.peek().setRight(node);
+                }
+                path.push(node);
+                rightPending.push((flags & SNAPSHOT_HAS_RIGHT) != 0);
+                leftPending = (flags & SNAPSHOT_HAS_LEFT) != 0;
+            }
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Truncated tree snapshot.");
+        }
+        if (leftPending || rightPending.contains(true)) {
+            throw new EOFException("Truncated tree snapshot.");
+        }
+        // Heights and subtree sizes are final once the children of a node are, so finish them bottom-up
+        while (!path.isEmpty()) {
+            path.pop().updateHeight();
+        }
+        root = newRoot;
+        size = count;
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and empties the buffer.
+     */
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads from the channel until the buffer holds at least the given number of unread bytes or the channel ends.
+     */
+    private static void fill(ByteBuffer buffer, ReadableByteChannel channel, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Returns the node holding the smallest element that is greater than or equal to the specified value.
+     *
+     * @param value the value to compare against
+     * @return the node holding the ceiling of the value, or null if every element is less than the value
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    protected Node<T> ceilingNode(T value) {
+        Node<T> ceiling = null;
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = compare(value, current.getValue());
+            if (cmp < 0) {
+                ceiling = current;
+                current = current.getLeft();
+            } else if (cmp > 0) {
+                current = current.getRight();
+            } else {
+                return current;
+            }
+        }
+        return ceiling;
+    }
+
+    /**
+     * Returns the node holding the smallest element that is strictly greater than the specified value.
+     *
+     * @param value the value to compare against
+     * @return the node holding the next greater element, or null if there is none
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    protected Node<T> higherNode(T value) {
+        Node<T> higher = null;
+        Node<T> current = root;
+        while (current != null) {
+            if (compare(value, current.getValue()) < 0) {
+                higher = current;
+                current = current.getLeft();
+            } else {
+                current = current.getRight();
+            }
+        }
+        return higher;
+    }
+
+    /**
+     * Returns the node holding the largest element that is strictly less than the specified value.
+     *
+     * @param value the value to compare against
+     * @return the node holding the next smaller element, or null if there is none
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    protected Node<T> lowerNode(T value) {
+        Node<T> lower = null;
+        Node<T> current = root;
+        while (current != null) {
+            if (compare(value, current.getValue()) > 0) {
+                lower = current;
+                current = current.getRight();
+            } else {
+                current = current.getLeft();
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Returns the number of nodes in the subtree rooted at the given node.
+     *
+     * @param node the root of the subtree
+     * @return the size of the subtree, or 0 if the node is null
+     * @implNote This method has a time complexity of O(1)
+     */
+    protected int getSize(Node<T> node) {
+        return (node == null) ? 0 : node.getSize();
+    }
+
+    /**
+     * Deletes an element from the BST, or one occurrence of it if the tree is in multiset mode.
+     *
+     * @param value the value to delete
+     * @return true if the value was successfully deleted, false if it was not found in the tree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    @Override
+    public boolean delete(T value) {
+        return remove(value) != null;
+    }
+
+    /**
+     * Removes an element from the BST in a single descent and returns the element that was stored in the tree.
+     * In multiset mode only one occurrence of the element is removed, and its node is only spliced out with its last
+     * occurrence.
+     *
+     * @param value the value to remove
+     * @return the removed element, or null if the value was not found in the tree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    public T remove(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (useRecursiveApproach) {
+            removedValue = null;
+            root = removeRecursive(root, value);
+            if (root != null) {
+                root.setParent(null);
+            }
+            T removed = removedValue;
+            removedValue = null;
+            // Removing one of several occurrences keeps the node, so the size follows the root
+            size = getSize(root);
+            return removed;
+        } else {
+            return removeIterative(value);
+        }
+    }
+
+    /**
+     * Removes and returns the smallest element of the tree, or one occurrence of it in multiset mode.
+     *
+     * @return the removed element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    public T pollFirst() {
+        return pollExtreme(true);
+    }
+
+    /**
+     * Removes and returns the largest element of the tree, or one occurrence of it in multiset mode.
+     *
+     * @return the removed element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    public T pollLast() {
+        return pollExtreme(false);
+    }
+
+    /**
+     * Removes the smallest or the largest element in a single walk down the left or the right spine. The extreme node
+     * has no child on the side of the walk, so it is spliced out directly by linking its other child to its parent,
+     * and the subtree sizes along the spine are updated on the way back up.
+     *
+     * @param first true to remove the smallest element, false to remove the largest one
+     * @return the removed element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    protected T pollExtreme(boolean first) {
+        if (root == null) {
+            return null;
+        }
+        // Without parent pointers the spine has to be remembered to update the subtree sizes afterwards
+        Stack<Node<T>> spine = new Stack<>();
+        Node<T> node = root;
+        Node<T> next;
+        while ((next = first ? node.getLeft() : node.getRight()) != null) {
+            spine.push(node);
+            node = next;
+        }
+        if (removeOccurrence(node)) {
+            return node.getValue();
+        }
+        Node<T> child = first ? node.getRight() : node.getLeft();
+        if (spine.isEmpty()) {
+            root = child;
+            if (root != null) {
+                root.setParent(null);
+            }
+        } else {
+            Node<T> parent = spine.pop();
+            if (first) {
+                parent.setLeft(child);
+            } else {
+                parent.setRight(child);
+            }
+            while (!spine.isEmpty()) {
+                spine.pop().updateHeight();
+            }
+        }
+        size--;
+        return node.getValue();
+    }
+
+    /**
+     * Removes every element within the closed range [lo, hi]. The highest node within the range is cut out together
+     * with every subtree that lies entirely within the range, so the removed nodes are never visited one by one, and
+     * the remaining parts of its subtrees are linked back in its place.
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return the number of removed elements, or 0 if lo is greater than hi
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    public int deleteRange(T lo, T hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (compare(lo, hi) > 0) {
+            return 0;
+        }
+        // Descend to the highest node within the range, every element of the range lies in its subtree
+        Stack<Node<T>> path = new Stack<>();
+        Node<T> top = root;
+        while (top != null) {
+            if (compare(top.getValue(), lo) < 0) {
+                path.push(top);
+                top = top.getRight();
+            } else if (compare(top.getValue(), hi) > 0) {
+                path.push(top);
+                top = top.getLeft();
+            } else {
+                break;
+            }
+        }
+        if (top == null) {
+            return 0;
+        }
+
+        Node<T> less = retainOutside(top.getLeft(), lo, true);
+        Node<T> greater = retainOutside(top.getRight(), hi, false);
+        Node<T> replacement;
+        if (less == null) {
+            replacement = greater;
+        } else if (less.getRight() == null) {
+            less.setRight(greater);
+            replacement = less;
+        } else {
+            // The maximum of the left part is spliced out and takes the place of the removed node,
+            // so that no remaining node ends up deeper than before
+            Stack<Node<T>> spine = new Stack<>();
+            Node<T> max = less;
+            while (max.getRight() != null) {
+                spine.push(max);
+                max = max.getRight();
+            }
+            spine.peek().setRight(max.getLeft());
+            while (!spine.isEmpty()) {
+                spine.pop().updateHeight();
+            }
+            max.setLeft(less);
+            max.setRight(greater);
+            replacement = max;
+        }
+
+        int removed = top.getSize() - getSize(replacement);
+        if (path.isEmpty()) {
+            root = replacement;
+            if (root != null) {
+                root.setParent(null);
+            }
+        } else {
+            Node<T> parent = path.peek();
+            if (parent.getLeft() == top) {
+                parent.setLeft(replacement);
+            } else {
+                parent.setRight(replacement);
+            }
+            while (!path.isEmpty()) {
+                path.pop().updateHeight();
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Removes the elements on one side of a bound from a subtree whose elements all lie on the other side of the
+     * opposite bound. For the left subtree of a node within the range, this keeps the elements less than lo, and for
+     * the right subtree it keeps the elements greater than hi. The kept nodes are relinked along a single spine, and
+     * every dropped node takes its whole subtree towards the range with it.
+     *
+     * @param node      the root of the subtree
+     * @param bound     the bound of the range that separates the kept elements from the removed ones
+     * @param keepLower true to keep the elements less than the bound, false to keep the elements greater than it
+     * @return the root of the remaining subtree, or null if no element remains
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private Node<T> retainOutside(Node<T> node, T bound, boolean keepLower) {
+        Node<T> result = null;
+        Node<T> tail = null; // The last kept node, whose child towards the range is still open
+        List<Node<T>> kept = new ArrayList<>();
+        Node<T> current = node;
+        while (current != null) {
+            int cmp = compare(current.getValue(), bound);
+            if (keepLower ? cmp < 0 : cmp > 0) {
+                // The node and its subtree away from the range are kept, only its subtree towards the range is cut
+                if (tail == null) result = current;
+                else if (keepLower) tail.setRight(current);
+                else tail.setLeft(current);
+                tail = current;
+                kept.add(current);
+                current = keepLower ? current.getRight() : current.getLeft();
+            } else {
+                // The node and its subtree towards the range are removed, the search continues away from it
+                current = keepLower ? current.getLeft() : current.getRight();
+            }
+        }
+        if (tail != null) {
+            if (keepLower) tail.setRight(null);
+            else tail.setLeft(null);
+        }
+        for (int i = kept.size() - 1; i >= 0; i--) {
+            kept.get(i).updateHeight();
+        }
+        return result;
+    }
+
+    /**
+     * Recursive helper method for removing a value from the Binary Search Tree (BST).
+     * The removed element is stored in {@link #removedValue}.
+     *
+     * @param node  the root of the subtree to remove the value from
+     * @param value the value to remove
+     * @return the root of the updated subtree after removal
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private Node<T> removeRecursive(Node<T> node, T value) {
+        // Base case: If the node is null, the value is not found, return null.
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(value, node.getValue());
+        // If the value to be removed is less than the current node's value,
+        // recursively remove the value from the left subtree.
+        if (cmp < 0) {
+            Node<T> leftChild = removeRecursive(node.getLeft(), value);
+            node.setLeft(leftChild);
+        }
+        // If the value to be removed is greater than the current node's value,
+        // recursively remove the value from the right subtree.
+        else if (cmp > 0) {
+            Node<T> rightChild = removeRecursive(node.getRight(), value);
+            node.setRight(rightChild);
+        }
+        // If the value is found, handle different cases for node removal.
+        else {
+            removedValue = node.getValue();
+            // In multiset mode a node with further occurrences stays in place.
+            if (removeOccurrence(node)) {
+                return node;
+            }
+            // Case 1 and 2: Node has at most one child, which takes its place.
+            if (node.getLeft() == null) {
+                return node.getRight();
+            } else if (node.getRight() == null) {
+                return node.getLeft();
+            }
+            // Case 3: Node has two children, so the minimum of the right subtree is spliced out
+            // and its value moves into the current node.
+            else {
+                Node<T> rightChild = removeMinRecursive(node.getRight(), node);
+                node.setRight(rightChild);
+            }
+        }
+
+        // Update the height of the current node after removal.
+        node.updateHeight();
+        return node;
+    }
+
+    /**
+     * Recursive helper method for splicing the minimum node out of a subtree and moving its value into another node.
+     *
+     * @param node   the root of the subtree
+     * @param target the node that receives the value of the minimum
+     * @return the root of the updated subtree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private Node<T> removeMinRecursive(Node<T> node, Node<T> target) {
+        if (node.getLeft() == null) {
+            moveValue(node, target);
+            return node.getRight();
+        }
+        node.setLeft(removeMinRecursive(node.getLeft(), target));
+        return node;
+    }
+
+    /**
+     * Removes the node with the specified value from the tree using iterative approach.
+     *
+     * @param value the value to remove
+     * @return the removed element, or null if the value was not found in the tree
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private T removeIterative(T value) {
+        // Without parent pointers the path has to be remembered to update the subtree sizes afterwards
+        Stack<Node<T>> path = nodeLayout.hasParent() ? null : new Stack<>();
+        Node<T> parent = null;
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = compare(current.getValue(), value);
+            if (cmp == 0) {
+                // In multiset mode a node with further occurrences stays in place
+                if (removeOccurrence(current)) {
+                    return current.getValue();
+                }
+                // The node has been found, so remove it
+                T removed = current.getValue();
+                if (current.getLeft() == null && current.getRight() == null) {
+                    // Case 1: node has no children
+                    if (parent == null) {
+                        root = null;
+                    } else if (parent.getLeft() == current) {
+                        parent.setLeft(null);
+                    } else {
+                        parent.setRight(null);
+                    }
+                } else if (current.getLeft() == null) {
+                    // Case 2: node has one child (right)
+                    if (parent == null) {
+                        root = current.getRight();
+                    } else if (parent.getLeft() == current) {
+                        parent.setLeft(current.getRight());
+                    } else {
+                        parent.setRight(current.getRight());
+                    }
+                } else if (current.getRight() == null) {
+                    // Case 2: node has one child (left)
+                    if (parent == null) {
+                        root = current.getLeft();
+                    } else if (parent.getLeft() == current) {
+                        parent.setLeft(current.getLeft());
+                    } else {
+                        parent.setRight(current.getLeft());
+                    }
+                } else {
+                    // Case 3: node has two children, so splice out the successor (which has no left child)
+                    // and move its value into the current node
+                    Node<T> successorParent = current;
+                    Node<T> successor = current.getRight();
+                    if (path != null) {
+                        path.push(current);
+                    }
+                    while (successor.getLeft() != null) {
+                        successorParent = successor;
+                        successor = successor.getLeft();
+                        if (path != null) {
+                            path.push(successorParent);
+                        }
+                    }
+                    if (successorParent.getLeft() == successor) {
+                        successorParent.setLeft(successor.getRight());
+                    } else {
+                        successorParent.setRight(successor.getRight());
+                    }
+                    moveValue(successor, current);
+                    parent = successorParent;
+                }
+                if (root != null) {
+                    root.setParent(null);
+                }
+
+                // Case 1, 2, or 3: node has been removed, update height of nodes along the path
+                updateHeightsUpward((parent == null) ? root : parent, path);
+
+                size--;
+                return removed;
+            } else if (cmp > 0) {
+                // The value to be deleted is less than the value at the current node, so move to the left subtree
+                if (path != null) {
+                    path.push(current);
+                }
+                parent = current;
+                current = current.getLeft();
+            } else {
+                // The value to be deleted is greater than the value at the current node, so move to the right subtree
+                if (path != null) {
+                    path.push(current);
+                }
+                parent = current;
+                current = current.getRight();
+            }
+        }
+        // The value to be deleted was not found in the tree
+        return null;
+    }
+
+    /**
+     * Recomputes the height and subtree size of every node from the given node up to the root.
+     *
+     * @param node the lowest node whose children changed, possibly null
+     * @param path the ancestors of the changed position from the root downwards if the nodes store no parent
+     *             pointers, or null to follow the parent pointers from the given node
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    private void updateHeightsUpward(Node<T> node, Stack<Node<T>> path) {
+        if (path != null) {
+            while (!path.isEmpty()) {
+                path.pop().updateHeight();
+            }
+            return;
+        }
+        Node<T> current = node;
+        while (current != null) {
+            current.updateHeight();
+            current = current.getParent();
+        }
+    }
+
+    /**
+     * Inserts every element of the collection into the tree. The batch is sorted once and merged into the tree in a
+     * single coordinated pass, so the upper levels of the tree are visited once for the whole batch instead of once
+     * per element. A batch that is large compared to the tree is merged with the elements of the tree in order, and
+     * the tree is rebuilt perfectly balanced from the result.
+     *
+     * <p>
+     * In multiset mode every value is inserted on its own, so that repeated values add up their occurrences.
+     *
+     * @param values the values to insert
+     * @return the number of values that were not in the tree yet and have been inserted, or the number of inserted
+     * occurrences in multiset mode
+     * @throws IllegalArgumentException if the collection or one of its values is null
+     * @implNote This method has a time complexity of O(k log(k) + k log(n)) for a batch of k values, and of
+     * O(k log(k) + n) when the tree is rebuilt.
+     */
+    public int insertAll(Collection<T> values) {
+        if (countDuplicates) {
+            return applyEach(values, true);
+        }
+        List<T> batch = sortedBatch(values);
+        int sizeBefore = size;
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        if (isLargeBatch(batch.size())) {
+            rebuildBalanced(mergeInOrder(batch, true));
+        } else {
+            insertSorted(batch);
+        }
+        return size - sizeBefore;
+    }
+
+    /**
+     * Deletes every element of the collection from the tree. The batch is sorted once, and a batch that is large
+     * compared to the tree is removed while walking the tree in order, after which the tree is rebuilt perfectly
+     * balanced from the remaining elements.
+     *
+     * <p>
+     * In multiset mode every value is deleted on its own, so that each value removes one occurrence.
+     *
+     * @param values the values to delete
+     * @return the number of values that were found in the tree and have been deleted, or the number of removed
+     * occurrences in multiset mode
+     * @throws IllegalArgumentException if the collection or one of its values is null
+     * @implNote This method has a time complexity of O(k log(k) + k h) for a batch of k values, where h is the height
+     * of the tree, and of O(k log(k) + n) when the tree is rebuilt.
+     */
+    public int deleteAll(Collection<T> values) {
+        if (countDuplicates) {
+            return applyEach(values, false);
+        }
+        List<T> batch = sortedBatch(values);
+        int sizeBefore = size;
+        if (batch.isEmpty() || root == null) {
+            return 0;
+        }
+        if (isLargeBatch(batch.size())) {
+            rebuildBalanced(mergeInOrder(batch, false));
+        } else {
+            deleteSorted(batch);
+        }
+        return sizeBefore - size;
+    }
+
+    /**
+     * Inserts or deletes every element of the collection on its own, as batches are applied in multiset mode.
+     *
+     * @param values the values to insert or delete
+     * @param insert true to insert the values, false to delete them
+     * @return the number of successful insertions or deletions
+     * @throws IllegalArgumentException if the collection or one of its values is null
+     */
+    private int applyEach(Collection<T> values, boolean insert) {
+        if (values == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        int changed = 0;
+        for (T value : values) {
+            if (insert ? insert(value) : delete(value)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Inserts a sorted batch of distinct values that is small compared to the tree. The batch is split around every
+     * visited node, and each part continues into the matching subtree. A part that reaches an empty subtree is linked
+     * there as a perfectly balanced subtree of new nodes, and a part of a single value finishes with a plain descent.
+     *
+     * @param batch the values to insert, sorted in ascending order and without duplicates
+     * @implNote This method has a time complexity of O(k log(n)) for a batch of k values.
+     */
+    protected void insertSorted(List<T> batch) {
+        if (root == null) {
+            root = buildBalanced(batch, 0, batch.size());
+            root.setParent(null);
+            size = batch.size();
+            return;
+        }
+        // Every visited node may gain descendants, so their sizes are updated bottom-up at the end
+        List<Node<T>> visited = new ArrayList<>();
+        Stack<BatchRange<T>> pending = new Stack<>();
+        pending.push(new BatchRange<>(root, 0, batch.size()));
+        while (!pending.isEmpty()) {
+            BatchRange<T> range = pending.pop();
+            Node<T> node = range.node;
+            visited.add(node);
+            int index = searchBatch(batch, range.from, range.to, node.getValue());
+            // A value equal to the node is already in the tree and is skipped
+            int leftTo = (index >= 0) ? index : -index - 1;
+            int rightFrom = (index >= 0) ? leftTo + 1 : leftTo;
+            if (range.from < leftTo) {
+                if (node.getLeft() == null) {
+                    node.setLeft(buildBalanced(batch, range.from, leftTo));
+                } else if (leftTo - range.from == 1) {
+                    linkInSubtree(node.getLeft(), batch.get(range.from), visited);
+                } else {
+                    pending.push(new BatchRange<>(node.getLeft(), range.from, leftTo));
+                }
+            }
+            if (rightFrom < range.to) {
+                if (node.getRight() == null) {
+                    node.setRight(buildBalanced(batch, rightFrom, range.to));
+                } else if (range.to - rightFrom == 1) {
+                    linkInSubtree(node.getRight(), batch.get(rightFrom), visited);
+                } else {
+                    pending.push(new BatchRange<>(node.getRight(), rightFrom, range.to));
+                }
+            }
+        }
+        // Parents are visited before their children, so the reverse order is a valid bottom-up order
+        for (int i = visited.size() - 1; i >= 0; i--) {
+            visited.get(i).updateHeight();
+        }
+        size = getSize(root);
+    }
+
+    /**
+     * Deletes a sorted batch of distinct values that is small compared to the tree in one coordinated pass. The batch
+     * is split around every visited node as in {@link #insertSorted(List)}, so every subtree is descended once per
+     * part of the batch, and a part of a single value finishes with a plain descent. The visited subtrees are then
+     * relinked bottom-up, and every node holding a value of the batch is spliced out of its subtree once both of its
+     * subtrees are final.
+     *
+     * @param batch the values to delete, sorted in ascending order and without duplicates
+     * @implNote This method has a time complexity of O(k h) for a batch of k values, where h is the height of the
+     * tree, with the upper levels of the tree visited once for the whole batch.
+     */
+    protected void deleteSorted(List<T> batch) {
+        if (root == null) {
+            return;
+        }
+        List<DeletionRange<T>> visited = new ArrayList<>();
+        Stack<DeletionRange<T>> pending = new Stack<>();
+        pending.push(new DeletionRange<>(root, 0, batch.size(), null, false));
+        while (!pending.isEmpty()) {
+            DeletionRange<T> range = pending.pop();
+            Node<T> node = range.node;
+            visited.add(range);
+            int index = searchBatch(batch, range.from, range.to, node.getValue());
+            range.matched = index >= 0;
+            int leftTo = range.matched ? index : -index - 1;
+            int rightFrom = range.matched ? leftTo + 1 : leftTo;
+            // Values that reach an empty subtree are not in the tree and are skipped
+            if (range.from < leftTo && node.getLeft() != null) {
+                if (leftTo - range.from == 1) {
+                    range.left = removeFromSubtree(node.getLeft(), batch.get(range.from));
+                } else {
+                    pending.push(new DeletionRange<>(node.getLeft(), range.from, leftTo, range, true));
+                }
+            }
+            if (rightFrom < range.to && node.getRight() != null) {
+                if (range.to - rightFrom == 1) {
+                    range.right = removeFromSubtree(node.getRight(), batch.get(rightFrom));
+                } else {
+                    pending.push(new DeletionRange<>(node.getRight(), rightFrom, range.to, range, false));
+                }
+            }
+        }
+        // Parents are visited before their children, so the reverse order finishes every subtree before its parent
+        for (int i = visited.size() - 1; i >= 0; i--) {
+            DeletionRange<T> range = visited.get(i);
+            Node<T> node = range.node;
+            node.setLeft(range.left);
+            node.setRight(range.right);
+            Node<T> result = range.matched ? spliceOut(node) : node;
+            if (range.parent == null) {
+                root = result;
+            } else if (range.isLeft) {
+                range.parent.left = result;
+            } else {
+                range.parent.right = result;
+            }
+        }
+        if (root != null) {
+            root.setParent(null);
+        }
+        size = getSize(root);
+    }
+
+    /**
+     * Finds the nodes holding the values of a sorted batch in one coordinated pass, which splits the batch around
+     * every visited node like {@link #insertSorted(List)} without changing the tree. A part of a single value finishes
+     * with a plain descent.
+     *
+     * @param batch the values to look up, sorted in ascending order and without duplicates
+     * @return the nodes holding values of the batch, in no particular order
+     * @implNote This method has a time complexity of O(k log(n)) for a batch of k values, with the upper levels of
+     * the tree visited once for the whole batch.
+     */
+    protected List<Node<T>> findSorted(List<T> batch) {
+        List<Node<T>> found = new ArrayList<>();
+        if (root == null || batch.isEmpty()) {
+            return found;
+        }
+        Stack<BatchRange<T>> pending = new Stack<>();
+        pending.push(new BatchRange<>(root, 0, batch.size()));
+        while (!pending.isEmpty()) {
+            BatchRange<T> range = pending.pop();
+            Node<T> node = range.node;
+            if (range.to - range.from == 1) {
+                Node<T> match = findInSubtree(node, batch.get(range.from));
+                if (match != null) {
+                    found.add(match);
+                }
+                continue;
+            }
+            int index = searchBatch(batch, range.from, range.to, node.getValue());
+            if (index >= 0) {
+                found.add(node);
+            }
+            int leftTo = (index >= 0) ? index : -index - 1;
+            int rightFrom = (index >= 0) ? leftTo + 1 : leftTo;
+            if (range.from < leftTo && node.getLeft() != null) {
+                pending.push(new BatchRange<>(node.getLeft(), range.from, leftTo));
+            }
+            if (rightFrom < range.to && node.getRight() != null) {
+                pending.push(new BatchRange<>(node.getRight(), rightFrom, range.to));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Searches a value within a range of a sorted batch, using the order of the tree.
+     *
+     * @param batch the values of the batch, sorted in ascending order and without duplicates
+     * @param from  the index of the first value of the range (inclusive)
+     * @param to    the index after the last value of the range (exclusive)
+     * @param value the value to search for
+     * @return the index of the value if it is in the range, otherwise (-(insertion point) - 1), where the insertion
+     * point is the index of the first value greater than it, as returned by {@link Collections#binarySearch}
+     * @implNote This method has a time complexity of O(log(k)) for a range of k values.
+     */
+    protected int searchBatch(List<T> batch, int from, int to, T value) {
+        int lo = from;
+        int hi = to - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(batch.get(mid), value);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Links a new leaf for a value into a subtree with a plain descent, unless the subtree already contains it.
+     *
+     * @param node    the root of the subtree
+     * @param value   the value to insert
+     * @param visited the nodes whose subtrees may grow, to which the path of the descent is added top-down
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private void linkInSubtree(Node<T> node, T value, List<Node<T>> visited) {
         Node<T> current = node;
         while (true) {
-            int cmp = current.getValue().compareTo(value);
+            int cmp = compare(value, current.getValue());
             if (cmp == 0) {
-                // The value already exists in the tree, so return false
-                return false;
-            } else if (cmp > 0) {
-                // The value is less than the current node's value, so move to the left subtree
-                if (current.getLeft() == null) {
-                    current.setLeft(newNode);
-                    break;
-                } else {
-                    current = current.getLeft();
-                }
-            } else {
-                // The value is greater than the current node's value, so move to the right subtree
-                if (current.getRight() == null) {
-                    current.setRight(newNode);
-                    break;
+                return;
+            }
+            visited.add(current);
+            Node<T> next = (cmp < 0) ? current.getLeft() : current.getRight();
+            if (next == null) {
+                if (cmp < 0) {
+                    current.setLeft(createNode(value));
                 } else {
-                    current = current.getRight();
+                    current.setRight(createNode(value));
                 }
+                return;
             }
+            current = next;
         }
+    }
 
-        // Increment the size of the tree and return true
-        size++;
-        // Update the height of the current node after inserting the value into the subtree
-        Node<T> parent = node.getParent();
-        Node<T> nodeToUpdateHeight = (parent == null) ? root : parent;
-        while (nodeToUpdateHeight != null) {
-            nodeToUpdateHeight.updateHeight();
-            nodeToUpdateHeight = nodeToUpdateHeight.getParent();
+    /**
+     * Finds the node holding a value within a subtree with a plain descent.
+     *
+     * @param node  the root of the subtree
+     * @param value the value to find
+     * @return the node holding the value, or null if the subtree does not contain it
+     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     */
+    private Node<T> findInSubtree(Node<T> node, T value) {
+        Node<T> current = node;
+        while (current != null) {
+            int cmp = compare(value, current.getValue());
+            if (cmp == 0) {
+                return current;
+            }
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
         }
-
-        return true;
+        return null;
     }
 
     /**
-     * Searches the tree for a node with the specified value and returns it.
+     * Removes a value from a subtree with a plain descent, and updates the subtree sizes along its path.
      *
-     * @param value the value to search for
-     * @return the node with the specified value, or null if it is not found
+     * @param node  the root of the subtree
+     * @param value the value to remove
+     * @return the new root of the subtree, which is unchanged if the subtree does not contain the value
      * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
      */
-    public Node<T> find(T value) {
-        if (value == null) {
-            throw new IllegalArgumentException("Value cannot be null.");
+    private Node<T> removeFromSubtree(Node<T> node, T value) {
+        // Without parent pointers the path has to be remembered to update the subtree sizes afterwards
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> current = node;
+        while (current != null) {
+            int cmp = compare(value, current.getValue());
+            if (cmp == 0) {
+                break;
+            }
+            path.add(current);
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
         }
-        if (useRecursiveApproach) return findRecursive(root, value);
-        else return findIterative(root, value);
+        if (current == null) {
+            return node;
+        }
+        Node<T> replacement = spliceOut(current);
+        if (path.isEmpty()) {
+            return replacement;
+        }
+        Node<T> parent = path.get(path.size() - 1);
+        if (parent.getLeft() == current) {
+            parent.setLeft(replacement);
+        } else {
+            parent.setRight(replacement);
+        }
+        for (int i = path.size() - 2; i >= 0; i--) {
+            path.get(i).updateHeight();
+        }
+        return node;
     }
 
     /**
-     * Helper method to recursively search for a value in the BST.
+     * Unlinks a node from the subtree it is the root of. A node with two children is replaced by the minimum of its
+     * right subtree, which is moved rather than copied.
      *
-     * @param node  the root of the subtree to search in
-     * @param value the value to search for
-     * @return the node with the specified value, or null if it is not found
+     * @param node the root of the subtree, whose subtree sizes are up to date
+     * @return the new root of the subtree, or null if the node was its only node
      * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
      */
-    private Node<T> findRecursive(Node<T> node, T value) {
-        // If the current node is null, we have reached the end of the subtree,
-        // and the value is not found, so return null.
-        if (node == null) {
-            return null;
+    private Node<T> spliceOut(Node<T> node) {
+        Node<T> left = node.getLeft();
+        Node<T> right = node.getRight();
+        if (left == null) {
+            return right;
         }
-
-        // Compare the value with the current node's value using the compareTo method.
-        int cmp = value.compareTo(node.getValue());
-
-        // If the value is less than the current node's value, it means the value
-        // might exist in the left subtree .Recursively call the findRecursive method
-        // with the left subtree root node and the same value.
-        if (cmp < 0) {
-            return findRecursive(node.getLeft(), value);
+        if (right == null) {
+            return left;
         }
-
-        // If the value is greater than the current node's value, it means the value
-        // might exist in the right subtree. Recursively call the findRecursive method
-        // with the right subtree root node and the same value.
-        else if (cmp > 0) {
-            return findRecursive(node.getRight(), value);
+        // Without parent pointers the path to the minimum has to be remembered to update the subtree sizes afterwards
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> min = right;
+        while (min.getLeft() != null) {
+            path.add(min);
+            min = min.getLeft();
+        }
+        if (!path.isEmpty()) {
+            path.get(path.size() - 1).setLeft(min.getRight());
+            for (int i = path.size() - 2; i >= 0; i--) {
+                path.get(i).updateHeight();
+            }
+            min.setRight(right);
         }
+        min.setLeft(left);
+        return min;
+    }
 
-        // If the compareTo method returns 0, it means the value is equal to the current
-        // node's value, so we have found the node with the specified value. Return the node.
-        else {
-            return node;
+    /**
+     * Replaces the contents of the tree with a perfectly balanced tree linked from the given nodes.
+     *
+     * @param nodes the nodes of the new tree in ascending order, whose current links are discarded
+     * @implNote This method has a time complexity of O(n)
+     */
+    protected void rebuildBalanced(List<Node<T>> nodes) {
+        root = linkBalanced(nodes, 0, nodes.size());
+        if (root != null) {
+            root.setParent(null);
         }
+        size = nodes.size();
     }
 
     /**
-     * Helper method to iteratively search for a value in the BST.
+     * Walks the tree in order and merges its nodes with a sorted batch of values. When inserting, every value of the
+     * batch that is not in the tree yet gets a new node. When deleting, every node whose value is in the batch is left
+     * out.
      *
-     * @param node  the root of the subtree to search in
-     * @param value the value to search for
-     * @return the node with the specified value, or null if it is not found
-     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     * @param batch  the values of the batch, sorted in ascending order and without duplicates
+     * @param insert true to add the values of the batch, false to remove them
+     * @return the nodes of the merged tree in ascending order
+     * @implNote This method has a time complexity of O(n + k) for a batch of k values.
      */
-    private Node<T> findIterative(Node<T> node, T value) {
-        // Start from the root node
-        Node<T> current = node;
-        while (current != null) {
-            int cmp = value.compareTo(current.getValue());
-            if (cmp < 0) {
-                // The value is less than the current node's value, so move to the left subtree
+    private List<Node<T>> mergeInOrder(List<T> batch, boolean insert) {
+        List<Node<T>> merged = new ArrayList<>(insert ? size + batch.size() : size);
+        Stack<Node<T>> stack = new Stack<>();
+        int next = 0; // The index of the first value of the batch that has not been merged yet
+        Node<T> current = root;
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
                 current = current.getLeft();
-            } else if (cmp > 0) {
-                // The value is greater than the current node's value, so move to the right subtree
-                current = current.getRight();
+            }
+            current = stack.pop();
+            T value = current.getValue();
+            while (next < batch.size() && compare(batch.get(next), value) < 0) {
+                if (insert) {
+                    merged.add(createNode(batch.get(next)));
+                }
+                next++;
+            }
+            if (next < batch.size() && compare(batch.get(next), value) == 0) {
+                next++;
+                if (insert) {
+                    merged.add(current);
+                }
             } else {
-                // The value matches the current node's value, so returns the node
-                return current;
+                merged.add(current);
             }
+            current = current.getRight();
         }
-        // If the loop exits, the value is not found, so return null
-        return null;
+        while (insert && next < batch.size()) {
+            merged.add(createNode(batch.get(next++)));
+        }
+        return merged;
     }
 
     /**
-     * Counts the number of occurrences for the specified value in the tree.
+     * Returns whether a batch is large enough compared to the tree that rebuilding the whole tree in linear time is
+     * cheaper than descending into it once per value.
      *
-     * @param value the value to count
-     * @return the number of occurrences for the value in the tree
-     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     * @param batchSize the number of distinct values in the batch
+     * @return true if the tree should be rebuilt, false otherwise
      */
-    @Override
-    public int count(T value) {
-        if (value == null) {
-            throw new IllegalArgumentException("Value cannot be null.");
-        }
-        return find(value) == null ? 0 : 1;
+    private boolean isLargeBatch(int batchSize) {
+        return (long) batchSize * (getMinHeight() + 1) >= size;
     }
 
     /**
-     * Deletes an element from the BST.
+     * Copies the values of a collection into a sorted list without duplicates. The values are sorted in parallel.
      *
-     * @param value the value to delete
-     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     * @param values the values of the batch
+     * @return the distinct values in ascending order
+     * @throws IllegalArgumentException if the collection or one of its values is null
+     * @implNote This method has a time complexity of O(k log(k)) for a batch of k values.
      */
-    @Override
-    public boolean delete(T value) {
-        if (value == null) {
+    private List<T> sortedBatch(Collection<T> values) {
+        if (values == null) {
             throw new IllegalArgumentException("Value cannot be null.");
         }
-        if (find(value) == null) return false;
-        if (useRecursiveApproach) {
-            root = deleteRecursive(root, value);
-            return true;
-        } else {
-            return deleteIterative(value);
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) values.toArray(new Comparable<?>[0]);
+        for (T value : array) {
+            if (value == null) {
+                throw new IllegalArgumentException("Value cannot be null.");
+            }
         }
+        Arrays.parallelSort(array, comparator);
+        List<T> batch = new ArrayList<>(array.length);
+        for (T value : array) {
+            if (batch.isEmpty() || compare(batch.get(batch.size() - 1), value) != 0) {
+                batch.add(value);
+            }
+        }
+        return batch;
     }
 
     /**
-     * Recursive helper method for deleting a value from the Binary Search Tree (BST).
+     * Helper method to recursively build a perfectly balanced subtree of new nodes from a range of sorted distinct
+     * values.
      *
-     * @param node  the root of the subtree to delete the value from
-     * @param value the value to delete
-     * @return the root of the updated subtree after deletion
-     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     * @param values the sorted distinct values
+     * @param from   the index of the first value of the subtree (inclusive)
+     * @param to     the index after the last value of the subtree (exclusive)
+     * @return the root of the built subtree, or null if the range is empty
+     * @implNote This method has a time complexity of O(k) and a recursion depth of O(log(k)), where k is the number
+     * of values in the range.
      */
-    private Node<T> deleteRecursive(Node<T> node, T value) {
-        // Base case: If the node is null, the value is not found, return null.
-        if (node == null) {
+    private Node<T> buildBalanced(List<T> values, int from, int to) {
+        if (from >= to) {
             return null;
         }
-        // If the value to be deleted is less than the current node's value,
-        // recursively delete the value from the left subtree.
-        if (value.compareTo(node.getValue()) < 0) {
-            Node<T> leftChild = deleteRecursive(node.getLeft(), value);
-            node.setLeft(leftChild);
-        }
-        // If the value to be deleted is greater than the current node's value,
-        // recursively delete the value from the right subtree.
-        else if (value.compareTo(node.getValue()) > 0) {
-            Node<T> rightChild = deleteRecursive(node.getRight(), value);
-            node.setRight(rightChild);
-        }
-        // If the value is found (value.compareTo(node.getValue()) == 0),
-        // handle different cases for node deletion.
-        else {
-            // Case 1: Node is a leaf node (no children).
-            if (node.getLeft() == null && node.getRight() == null) {
-                return null;
-            }
-            // Case 2: Node has one child (right child).
-            else if (node.getLeft() == null) {
-                return node.getRight();
-            }
-            // Case 2: Node has one child (left child).
-            else if (node.getRight() == null) {
-                return node.getLeft();
-            }
-            // Case 3: Node has two children.
-            else {
-                // Find the minimum value node in the right subtree (the smallest value greater than the current node).
-                Node<T> temp = getMin(node.getRight());
-                // Replace the current node's value with the value of the minimum node.
-                node.setValue(temp.getValue());
-                // Recursively delete the minimum node from the right subtree.
-                Node<T> rightChild = deleteRecursive(node.getRight(), temp.getValue());
-                node.setRight(rightChild);
-            }
-        }
-
-        // Update the height of the current node after deletion.
-        node.updateHeight();
+        int mid = (from + to) >>> 1;
+        Node<T> node = createNode(values.get(mid));
+        node.setLeft(buildBalanced(values, from, mid));
+        node.setRight(buildBalanced(values, mid + 1, to));
         return node;
     }
 
     /**
-     * Removes the node with the specified value from the tree using iterative approach.
+     * Helper method to recursively link a range of existing nodes in ascending order into a perfectly balanced
+     * subtree. Heights and subtree sizes are filled in by {@link Node#setLeft(Node)} and {@link Node#setRight(Node)}.
      *
-     * @param value the value to remove
-     * @return true if the node was found and removed, false otherwise
-     * @implNote This method has a time complexity of O(h), where h is the height of the subtree.
+     * @param nodes the nodes in ascending order
+     * @param from  the index of the first node of the subtree (inclusive)
+     * @param to    the index after the last node of the subtree (exclusive)
+     * @return the root of the linked subtree, or null if the range is empty
+     * @implNote This method has a time complexity of O(n) and a recursion depth of O(log(n)), where n is the number
+     * of nodes in the range.
      */
-    private boolean deleteIterative(T value) {
-        Node<T> parent = null;
-        Node<T> current = root;
-        while (current != null) {
-            int cmp = current.getValue().compareTo(value);
-            if (cmp == 0) {
-                // The node has been found, so remove it
-                if (current.getLeft() == null && current.getRight() == null) {
-                    // Case 1: node has no children
-                    if (parent == null) {
-                        root = null;
-                    } else if (parent.getLeft() == current) {
-                        parent.setLeft(null);
-                    } else {
-                        parent.setRight(null);
-                    }
-                } else if (current.getLeft() == null) {
-                    // Case 2: node has one child (right)
-                    if (parent == null) {
-                        root = current.getRight();
-                    } else if (parent.getLeft() == current) {
-                        parent.setLeft(current.getRight());
-                    } else {
-                        parent.setRight(current.getRight());
-                    }
-                } else if (current.getRight() == null) {
-                    // Case 2: node has one child (left)
-                    if (parent == null) {
-                        root = current.getLeft();
-                    } else if (parent.getLeft() == current) {
-                        parent.setLeft(current.getLeft());
-                    } else {
-                        parent.setRight(current.getLeft());
-                    }
-                } else {
-                    // Case 3: node has two children
-                    Node<T> successor = getSuccessor(current);
-                    delete(successor.getValue());
-                    current.setValue(successor.getValue());
-                }
-
-                // Case 1, 2, or 3: node has been removed, update height of nodes along the path
-                Node<T> nodeToUpdateHeight = (parent == null) ? root : parent;
-                while (nodeToUpdateHeight != null) {
-                    nodeToUpdateHeight.updateHeight();
-                    nodeToUpdateHeight = nodeToUpdateHeight.getParent();
-                }
-
-                size--;
-                return true;
-            } else if (cmp > 0) {
-                // The value to be deleted is less than the value at the current node, so move to the left subtree
-                parent = current;
-                current = current.getLeft();
-            } else {
-                // The value to be deleted is greater than the value at the current node, so move to the right subtree
-                parent = current;
-                current = current.getRight();
-            }
+    private Node<T> linkBalanced(List<Node<T>> nodes, int from, int to) {
+        if (from >= to) {
+            return null;
         }
-        // The value to be deleted was not found in the tree
-        return false;
+        int mid = (from + to) >>> 1;
+        Node<T> node = nodes.get(mid);
+        node.setLeft(linkBalanced(nodes, from, mid));
+        node.setRight(linkBalanced(nodes, mid + 1, to));
+        return node;
     }
 
     /**
@@ -395,6 +1977,9 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
                 current = current.getLeft();
             }
             return current;
+        } else if (!nodeLayout.hasParent()) {
+            // Without parent pointers, the successor is the last node where a search for the value turned left
+            return higherNode(node.getValue());
         } else {
             // If the node does not have a right subtree, we need to go up the tree until we find the first ancestor that is a left child of its parent
             Node<T> current = node;
@@ -425,6 +2010,9 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
                 current = current.getRight();
             }
             return current;
+        } else if (!nodeLayout.hasParent()) {
+            // Without parent pointers, the predecessor is the last node where a search for the value turned right
+            return lowerNode(node.getValue());
         } else {
             // If the node does not have a left subtree, we need to go up the tree until we find the first ancestor that is a right child of its parent
             Node<T> current = node;
@@ -576,7 +2164,7 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
             return false;
         }
         T value = node.getValue();
-        if ((min != null && value.compareTo(min) <= 0) && (max != null && value.compareTo(max) >= 0)) {
+        if ((min != null && compare(value, min) <= 0) && (max != null && compare(value, max) >= 0)) {
             return true;
         }
         return deadEnd(node.getLeft(), min, value) || deadEnd(node.getRight(), value, max);
@@ -607,10 +2195,12 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
         if (node == null) {
             return null;
         }
-        if (node.getValue().compareTo(value1) > 0 && node.getValue().compareTo(value2) > 0) {
+        int cmp1 = compare(node.getValue(), value1);
+        int cmp2 = compare(node.getValue(), value2);
+        if (cmp1 > 0 && cmp2 > 0) {
             return LCA(node.getLeft(), value1, value2);
         }
-        if (node.getValue().compareTo(value1) < 0 && node.getValue().compareTo(value2) < 0) {
+        if (cmp1 < 0 && cmp2 < 0) {
             return LCA(node.getRight(), value1, value2);
         }
         return node;
@@ -649,7 +2239,7 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
         int distance;
         if (node.getValue().equals(value)) {
             distance = 0;
-        } else if (node.getValue().compareTo(value) > 0) {
+        } else if (compare(node.getValue(), value) > 0) {
             distance = 1 + calcDistanceBetween(node.getLeft(), value);
         } else {
             distance = 1 + calcDistanceBetween(node.getRight(), value);
@@ -657,5 +2247,170 @@ public class BST<T extends Comparable<T>> extends BinaryTree<T> {
         return distance;
     }
 
+    /**
+     * An iterator that walks the tree through the parent pointers of its nodes.
+     */
+    private class NodeIterator implements Iterator<T> {
+        private Node<T> next; // The node holding the next element to return
+        private final boolean descending; // Whether to step to predecessors instead of successors
+
+        /**
+         * Constructs a new iterator starting at the given node.
+         *
+         * @param first      the node holding the first element, or null for an empty iteration
+         * @param descending true to iterate in descending order, false for ascending order
+         */
+        NodeIterator(Node<T> first, boolean descending) {
+            this.next = first;
+            this.descending = descending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            T value = next.getValue();
+            next = descending ? getPredecessor(next) : getSuccessor(next);
+            return value;
+        }
+    }
+
+    /**
+     * A spliterator over the in-order range [next, fence) of the tree.
+     * <p>
+     * The range always ends with the subtree rooted at {@code splitRoot} and may hold at most one element before it.
+     * Splitting hands the elements before {@code splitRoot} (its left subtree) to a new spliterator and keeps
+     * {@code splitRoot} itself followed by its right subtree.
+     */
+    private class NodeSpliterator implements Spliterator<T> {
+        private Node<T> next; // The node holding the next element to report, or null when exhausted
+        private final Node<T> fence; // The node right after the range, or null if the range reaches the maximum
+        private Node<T> splitRoot; // The root of the subtree that closes the range, or null if it cannot be split
+        private int estimatedSize; // The exact number of elements left in the range
+
+        /**
+         * Constructs a new spliterator over the range [next, fence).
+         *
+         * @param next          the node holding the first element of the range
+         * @param fence         the node right after the range, or null if the range reaches the maximum
+         * @param splitRoot     the root of the subtree that closes the range
+         * @param estimatedSize the number of elements in the range
+         */
+        NodeSpliterator(Node<T> next, Node<T> fence, Node<T> splitRoot, int estimatedSize) {
+            this.next = next;
+            this.fence = fence;
+            this.splitRoot = splitRoot;
+            this.estimatedSize = estimatedSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (next == null || next == fence) {
+                return false;
+            }
+            action.accept(next.getValue());
+            next = getSuccessor(next);
+            estimatedSize--;
+            // Once traversal has started the range no longer has the shape required for splitting
+            splitRoot = null;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (next != null && next != fence) {
+                action.accept(next.getValue());
+                next = getSuccessor(next);
+            }
+            estimatedSize = 0;
+            splitRoot = null;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            while (splitRoot != null) {
+                Node<T> mid = splitRoot;
+                int suffixSize = 1 + getSize(mid.getRight());
+                int prefixSize = estimatedSize - suffixSize;
+                if (prefixSize > 0) {
+                    Spliterator<T> prefix = new NodeSpliterator(next, mid, mid.getLeft(), prefixSize);
+                    next = mid;
+                    splitRoot = mid.getRight();
+                    estimatedSize = suffixSize;
+                    return prefix;
+                }
+                // Nothing precedes the split root, so it becomes the single leading element and its right child
+                // takes over as the split point
+                splitRoot = mid.getRight();
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimatedSize;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL
+                    | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            // The elements are sorted by the order of the tree, where null stands for their natural ordering
+            return comparator;
+        }
+    }
+
+    /**
+     * A subtree together with the range of a sorted batch whose values belong into it.
+     *
+     * @param <T> the data type of the elements in the tree
+     */
+    private static class BatchRange<T extends Comparable<T>> {
+        private final Node<T> node; // The root of the subtree
+        private final int from; // The index of the first value of the range (inclusive)
+        private final int to; // The index after the last value of the range (exclusive)
+
+        BatchRange(Node<T> node, int from, int to) {
+            this.node = node;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * A subtree together with the range of a sorted batch whose values are deleted from it, which also collects the
+     * new roots of its children and knows where its own new root has to be linked.
+     *
+     * @param <T> the data type of the elements in the tree
+     */
+    private static class DeletionRange<T extends Comparable<T>> {
+        private final Node<T> node; // The root of the subtree
+        private final int from; // The index of the first value of the range (inclusive)
+        private final int to; // The index after the last value of the range (exclusive)
+        private final DeletionRange<T> parent; // The range of the parent subtree, or null for the root
+        private final boolean isLeft; // Whether the subtree is the left subtree of its parent
+        private boolean matched; // Whether the root of the subtree holds a value of the batch
+        private Node<T> left; // The root of the left subtree after the deletion
+        private Node<T> right; // The root of the right subtree after the deletion
 
-}
\ No newline at end of file
+        DeletionRange(Node<T> node, int from, int to, DeletionRange<T> parent, boolean isLeft) {
+            this.node = node;
+            this.from = from;
+            this.to = to;
+            this.parent = parent;
+            this.isLeft = isLeft;
+            left = node.getLeft();
+            right = node.getRight();
+        }
+    }
+}
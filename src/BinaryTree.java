@@ -30,25 +30,171 @@ public abstract class BinaryTree<T extends Comparable<T>> implements Tree<T> {
      * </p>
      */
     protected boolean useRecursiveApproach;
+    /**
+     * The field layout of the nodes created by this tree, which decides whether they store parent pointers and heights.
+     */
+    protected final Node.Layout nodeLayout;
+    /**
+     * The comparator that orders the elements of the tree, or null if they are ordered by their natural order.
+     */
+    protected final Comparator<? super T> comparator;
 
     /**
-     * Constructs a new binary tree with no elements.
+     * Constructs a new binary tree with no elements whose nodes store parent pointers and heights.
      */
     public BinaryTree() {
+        this(Node.Layout.PARENT_AND_HEIGHT);
+    }
+
+    /**
+     * Constructs a new binary tree with no elements whose nodes use the given layout.
+     *
+     * @param nodeLayout the field layout of the nodes created by the tree
+     */
+    protected BinaryTree(Node.Layout nodeLayout) {
+        this(nodeLayout, null);
+    }
+
+    /**
+     * Constructs a new binary tree with no elements whose nodes use the given layout and whose elements are ordered
+     * by the given comparator.
+     *
+     * @param nodeLayout the field layout of the nodes created by the tree
+     * @param comparator the comparator that orders the elements, or null for their natural order
+     */
+    protected BinaryTree(Node.Layout nodeLayout, Comparator<? super T> comparator) {
+        if (nodeLayout == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
         root = null;
         size = 0;
         useRecursiveApproach = true;
+        this.nodeLayout = nodeLayout;
+        this.comparator = comparator;
     }
 
     /**
-     * Constructs a binary tree with the given root node.
+     * Constructs a binary tree with the given root node, whose nodes store parent pointers and heights.
      *
      * @param root The root node of the binary tree.
+     * @see #BinaryTree(Node, Node.Layout)
      */
     public BinaryTree(Node<T> root) {
-        this.root = root;
-        size = 1;
+        this(root, Node.Layout.PARENT_AND_HEIGHT);
+    }
+
+    /**
+     * Constructs a binary tree with the given root node. The nodes are adopted as they are if their layout stores at
+     * least the fields of the given layout, in which case the tree keeps the layout of the root node. Otherwise, such
+     * as for plain nodes created with {@link Node#Node(Comparable)}, which store neither parent pointers nor heights,
+     * the shape of the tree is copied into new nodes of the given layout, so that the tree never has to recompute
+     * heights or lacks the parent pointers it walks.
+     *
+     * @param root       The root node of the binary tree.
+     * @param nodeLayout the layout whose fields the nodes of the tree must store
+     */
+    protected BinaryTree(Node<T> root, Node.Layout nodeLayout) {
+        if (nodeLayout == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            this.root = null;
+            this.nodeLayout = nodeLayout;
+        } else if (Node.Layout.of(root).includes(nodeLayout)) {
+            this.root = root;
+            this.nodeLayout = Node.Layout.of(root);
+        } else {
+            this.root = copyInto(root, nodeLayout);
+            this.nodeLayout = nodeLayout;
+        }
+        size = countNodes(this.root);
         useRecursiveApproach = true;
+        comparator = null;
+    }
+
+    /**
+     * Copies the shape and the values of a subtree into new nodes of the given layout. The copies are linked in
+     * reverse pre-order, so every node is linked to its parent only after its own children, which keeps the subtree
+     * sizes and heights of the copies correct without any recursion.
+     *
+     * @param node       the root of the subtree to copy
+     * @param nodeLayout the layout of the new nodes
+     * @param <T>        the data type of the values stored in the nodes
+     * @return the root of the copied subtree
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the subtree.
+     */
+    private static <T extends Comparable<T>> Node<T> copyInto(Node<T> node, Node.Layout nodeLayout) {
+        List<Node<T>> preOrder = new ArrayList<>();
+        Map<Node<T>, Node<T>> copies = new IdentityHashMap<>();
+        Stack<Node<T>> stack = new Stack<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node<T> current = stack.pop();
+            preOrder.add(current);
+            copies.put(current, nodeLayout.createNode(current.getValue()));
+            if (current.getRight() != null) stack.push(current.getRight());
+            if (current.getLeft() != null) stack.push(current.getLeft());
+        }
+        for (int i = preOrder.size() - 1; i >= 0; i--) {
+            Node<T> original = preOrder.get(i);
+            Node<T> copy = copies.get(original);
+            copy.setLeft(copies.get(original.getLeft()));
+            copy.setRight(copies.get(original.getRight()));
+        }
+        return copies.get(node);
+    }
+
+    /**
+     * Returns the comparator that orders the elements of the tree.
+     *
+     * @return the comparator, or null if the elements are ordered by their natural order
+     */
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Compares two elements by the order of this tree, which is the comparator if one was given and the natural order
+     * of the elements otherwise. Callers keep the result instead of comparing the same pair twice, since composite
+     * keys can make a comparison expensive.
+     *
+     * @param a the first element
+     * @param b the second element
+     * @return a negative integer, zero, or a positive integer as the first element is less than, equal to, or greater
+     * than the second
+     */
+    protected final int compare(T a, T b) {
+        return (comparator == null) ? a.compareTo(b) : comparator.compare(a, b);
+    }
+
+    /**
+     * Creates a new node for the given value using the node layout of this tree.
+     *
+     * @param value the value to store in the node
+     * @return the new node
+     */
+    protected Node<T> createNode(T value) {
+        return nodeLayout.createNode(value);
+    }
+
+    /**
+     * Returns the estimated size of one node of this tree in bytes, excluding its value.
+     *
+     * @return the estimated size of one node
+     */
+    protected int estimatedNodeBytes() {
+        return nodeLayout.estimatedBytes();
+    }
+
+    /**
+     * Returns an estimate of the memory retained by the nodes of this tree, assuming a 64-bit JVM with compressed
+     * object pointers. The stored values themselves are not included, since they are shared with the caller.
+     *
+     * @return the estimated size of all nodes in bytes
+     * @implNote This method has a time complexity of O(1)
+     */
+    public long estimatedFootprintBytes() {
+        return (long) size * estimatedNodeBytes();
     }
 
     /**
@@ -598,10 +744,10 @@ public abstract class BinaryTree<T extends Comparable<T>> implements Tree<T> {
             Node<T> left = getMin(node.getLeft());
             Node<T> right = getMin(node.getRight());
             Node<T> min = node;
-            if (left != null && left.getValue().compareTo(min.getValue()) < 0) {
+            if (left != null && compare(left.getValue(), min.getValue()) < 0) {
                 min = left;
             }
-            if (right != null && right.getValue().compareTo(min.getValue()) < 0) {
+            if (right != null && compare(right.getValue(), min.getValue()) < 0) {
                 min = right;
             }
             return min;
@@ -648,10 +794,10 @@ public abstract class BinaryTree<T extends Comparable<T>> implements Tree<T> {
             Node<T> left = getMax(node.getLeft());
             Node<T> right = getMax(node.getRight());
             Node<T> max = node;
-            if (left != null && left.getValue().compareTo(max.getValue()) > 0) {
+            if (left != null && compare(left.getValue(), max.getValue()) > 0) {
                 max = left;
             }
-            if (right != null && right.getValue().compareTo(max.getValue()) > 0) {
+            if (right != null && compare(right.getValue(), max.getValue()) > 0) {
                 max = right;
             }
             return max;
@@ -662,9 +808,10 @@ public abstract class BinaryTree<T extends Comparable<T>> implements Tree<T> {
      * Returns the number of nodes in the tree.
      *
      * @return the number of nodes in the tree
+     * @implNote This method has a time complexity of O(1)
      */
     public int size() {
-        return countNodes(root);
+        return size;
     }
 
     /**
@@ -924,7 +1071,7 @@ public abstract class BinaryTree<T extends Comparable<T>> implements Tree<T> {
         if (node == null) {
             return true;
         }
-        if ((min != null && node.getValue().compareTo(min) <= 0) || (max != null && node.getValue().compareTo(max) >= 0)) {
+        if ((min != null && compare(node.getValue(), min) <= 0) || (max != null && compare(node.getValue(), max) >= 0)) {
             return false;
         }
         return isBST(node.getLeft(), min, node.getValue()) && isBST(node.getRight(), node.getValue(), max);
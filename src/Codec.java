@@ -0,0 +1,167 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts values to and from a binary representation of bounded length.
+ * <p>
+ * Implementations write exactly one value at the current position of a buffer and advance the position past it.
+ * The bound reported by {@link #maxEncodedSize()} lets callers reserve room before encoding, and lets paged storage
+ * give every value a slot of the same size. Persistent storage records the {@link #id()} of the codec next to the
+ * values, so that they are not decoded by a different codec of the same size.
+ *
+ * @param <T> the data type of the encoded values
+ */
+public interface Codec<T> {
+    /**
+     * A codec for {@link Integer} values, using 4 bytes per value.
+     */
+    Codec<Integer> INTEGER = new Codec<>() {
+        @Override
+        public int id() {
+            return 1;
+        }
+
+        @Override
+        public int maxEncodedSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer buffer) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    /**
+     * A codec for {@link Long} values, using 8 bytes per value.
+     */
+    Codec<Long> LONG = new Codec<>() {
+        @Override
+        public int id() {
+            return 2;
+        }
+
+        @Override
+        public int maxEncodedSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long value, ByteBuffer buffer) {
+            buffer.putLong(value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    /**
+     * A codec for {@link Double} values, using 8 bytes per value.
+     */
+    Codec<Double> DOUBLE = new Codec<>() {
+        @Override
+        public int id() {
+            return 3;
+        }
+
+        @Override
+        public int maxEncodedSize() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void encode(Double value, ByteBuffer buffer) {
+            buffer.putDouble(value);
+        }
+
+        @Override
+        public Double decode(ByteBuffer buffer) {
+            return buffer.getDouble();
+        }
+    };
+
+    /**
+     * Returns a codec for strings whose UTF-8 encoding is at most the given number of bytes long.
+     * Every string is written as a 2 byte length followed by its UTF-8 bytes.
+     *
+     * @param maxBytes the maximum length of an encoded string, excluding the length prefix
+     * @return a codec for bounded strings
+     * @throws IllegalArgumentException if the maximum length is not between 1 and 65535
+     */
+    static Codec<String> utf8(int maxBytes) {
+        if (maxBytes < 1 || maxBytes > 0xFFFF) {
+            throw new IllegalArgumentException("Maximum length must be between 1 and 65535 bytes.");
+        }
+        return new Codec<>() {
+            @Override
+            public int id() {
+                return 4;
+            }
+
+            @Override
+            public int maxEncodedSize() {
+                return Short.BYTES + maxBytes;
+            }
+
+            @Override
+            public void encode(String value, ByteBuffer buffer) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > maxBytes) {
+                    throw new IllegalArgumentException("String is longer than " + maxBytes + " bytes.");
+                }
+                buffer.putShort((short) bytes.length);
+                buffer.put(bytes);
+            }
+
+            @Override
+            public String decode(ByteBuffer buffer) {
+                byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Returns an identifier of the encoding. The built-in codecs use the identifiers 1 to 4, and a codec that does not
+     * override this method reports 0. Custom codecs should return a distinct identifier above 4.
+     *
+     * @return the identifier of the encoding
+     */
+    default int id() {
+        return 0;
+    }
+
+    /**
+     * Returns the maximum number of bytes that {@link #encode(Object, ByteBuffer)} writes for a single value.
+     *
+     * @return the maximum encoded size in bytes
+     */
+    int maxEncodedSize();
+
+    /**
+     * Writes the value at the current position of the buffer and advances the position past it.
+     *
+     * @param value  the value to encode
+     * @param buffer the buffer to write to
+     * @throws BufferOverflowException  if the buffer has less than {@link #maxEncodedSize()} bytes remaining
+     * @throws IllegalArgumentException if the value cannot be encoded within {@link #maxEncodedSize()} bytes
+     */
+    void encode(T value, ByteBuffer buffer);
+
+    /**
+     * Reads a value from the current position of the buffer and advances the position past it.
+     *
+     * @param buffer the buffer to read from
+     * @return the decoded value
+     */
+    T decode(ByteBuffer buffer);
+}
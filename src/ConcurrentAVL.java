@@ -0,0 +1,1081 @@
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe AVL Tree implementation of the Tree interface.
+ * <p>
+ * The tree follows the optimistic concurrency control of Bronson et al., "A Practical Concurrent Binary Search Tree".
+ * Every node carries a version number that is bumped whenever a rotation moves the node down and shrinks its subtree.
+ * Readers never take a lock: they record the version of each node on their way down and retry from the last node
+ * whose version is still unchanged. Writers only lock the few nodes they modify, always from the top down.
+ * <p>
+ * Deleting a node with two children only marks it as a routing node that keeps guiding searches; routing nodes are
+ * unlinked as soon as they have at most one child. Balancing is relaxed: heights are repaired after each update and
+ * the tree converges to a proper AVL tree whenever updates quiesce.
+ * <p>
+ * Nodes are not shared with callers. Methods of the Tree interface that return a node return a detached
+ * {@link Node} holding the value. Traversals are weakly consistent: they never fail under concurrent updates, but may
+ * or may not reflect updates that happen while they run.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class ConcurrentAVL<T extends Comparable<T>> implements Tree<T> {
+    /**
+     * The version of a node that has been removed from the tree.
+     */
+    private static final long UNLINKED = 1L;
+    /**
+     * The version bit that is set while a rotation is shrinking the subtree of a node.
+     */
+    private static final long SHRINKING = 2L;
+    /**
+     * The amount added to the version of a node each time a rotation has shrunk its subtree.
+     */
+    private static final long SHRINK_COUNT_UNIT = 4L;
+
+    /**
+     * Node conditions reported by {@link #nodeCondition(CNode)}, any non-negative value is a repaired height.
+     */
+    private static final int UNLINK_REQUIRED = -1;
+    private static final int REBALANCE_REQUIRED = -2;
+    private static final int NOTHING_REQUIRED = -3;
+
+    /**
+     * The number of busy-wait iterations before a reader starts yielding while a rotation completes.
+     */
+    private static final int SPIN_COUNT = 100;
+
+    /**
+     * Marker returned by the optimistic helpers when the caller has to retry from the previous level.
+     */
+    private static final Object RETRY = new Object();
+
+    /**
+     * A sentinel whose right child is the root of the tree, so the root can be rotated like any other node
+     */
+    private final CNode<T> rootHolder;
+    /**
+     * The number of elements in the tree
+     */
+    private final LongAdder size;
+
+    /**
+     * Constructs a new concurrent AVL tree with no elements.
+     */
+    public ConcurrentAVL() {
+        rootHolder = new CNode<>(null, null);
+        rootHolder.present = false;
+        size = new LongAdder();
+    }
+
+    /**
+     * Checks if the tree contains the given value. This method never blocks.
+     *
+     * @param value the value to search for
+     * @return true if the tree contains the value, false otherwise
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public boolean contains(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        while (true) {
+            CNode<T> right = rootHolder.right;
+            if (right == null) {
+                return false;
+            }
+            int cmp = value.compareTo(right.key);
+            if (cmp == 0) {
+                return right.present;
+            }
+            long version = right.version;
+            if (isShrinkingOrUnlinked(version)) {
+                waitUntilChangeCompleted(right, version);
+            } else if (right == rootHolder.right) {
+                Object result = attemptGet(value, right, cmp, version);
+                if (result != RETRY) {
+                    return (Boolean) result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to optimistically search the subtree below a node whose version has been recorded.
+     *
+     * @param value       the value to search for
+     * @param node        the node to continue from
+     * @param direction   the result of comparing the value with the node's value
+     * @param nodeVersion the version of the node recorded before reading its children
+     * @return TRUE or FALSE, or RETRY if the node has been shrunk or unlinked in the meantime
+     */
+    private Object attemptGet(T value, CNode<T> node, int direction, long nodeVersion) {
+        while (true) {
+            CNode<T> child = node.child(direction);
+            if (child == null) {
+                // The value is absent unless a rotation moved it out of the searched subtree
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+                return Boolean.FALSE;
+            }
+            int childCmp = value.compareTo(child.key);
+            if (childCmp == 0) {
+                return child.present;
+            }
+            long childVersion = child.version;
+            if (isShrinkingOrUnlinked(childVersion)) {
+                waitUntilChangeCompleted(child, childVersion);
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+            } else if (child != node.child(direction)) {
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+            } else {
+                // The child was read while the node was unchanged, so the hand-over-hand step is valid
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+                Object result = attemptGet(value, child, childCmp, childVersion);
+                if (result != RETRY) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a detached node holding the given value if the tree contains it.
+     *
+     * @param value the value to search for
+     * @return a new node holding the value, or null if it is not found
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public Node<T> find(T value) {
+        return contains(value) ? new Node<>(value) : null;
+    }
+
+    /**
+     * Counts the number of occurrences for the specified value in the tree.
+     *
+     * @param value the value to count
+     * @return 1 if the tree contains the value, 0 otherwise
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public int count(T value) {
+        return contains(value) ? 1 : 0;
+    }
+
+    /**
+     * Inserts an element into the tree. Only the parent of the new node is locked while it is attached.
+     *
+     * @param value the value to insert
+     * @return true if the value was inserted, false if it already exists in the tree
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public boolean insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        return update(value, true);
+    }
+
+    /**
+     * Deletes an element from the tree. Only the removed node and its parent are locked while it is unlinked.
+     *
+     * @param value the value to delete
+     * @return true if the value was deleted, false if it was not found in the tree
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public boolean delete(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        return update(value, false);
+    }
+
+    /**
+     * Inserts or deletes a value, retrying from the root whenever the optimistic descent fails at the top.
+     *
+     * @param value     the value to insert or delete
+     * @param inserting true to insert the value, false to delete it
+     * @return true if the tree has been modified, false otherwise
+     */
+    private boolean update(T value, boolean inserting) {
+        while (true) {
+            CNode<T> right = rootHolder.right;
+            if (right == null) {
+                if (!inserting) {
+                    return false;
+                }
+                synchronized (rootHolder) {
+                    if (rootHolder.right == null) {
+                        rootHolder.right = new CNode<>(value, rootHolder);
+                        size.increment();
+                        return true;
+                    }
+                }
+            } else {
+                long version = right.version;
+                if (isShrinkingOrUnlinked(version)) {
+                    waitUntilChangeCompleted(right, version);
+                } else if (right == rootHolder.right) {
+                    Object result = attemptUpdate(value, inserting, rootHolder, right, version);
+                    if (result != RETRY) {
+                        if ((Boolean) result) {
+                            if (inserting) size.increment();
+                            else size.decrement();
+                        }
+                        return (Boolean) result;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to optimistically descend to the position of a value and insert or delete it there.
+     *
+     * @param value       the value to insert or delete
+     * @param inserting   true to insert the value, false to delete it
+     * @param parent      the parent of the node
+     * @param node        the node to continue from
+     * @param nodeVersion the version of the node recorded before reading its children
+     * @return TRUE or FALSE, or RETRY if the node has been shrunk or unlinked in the meantime
+     */
+    private Object attemptUpdate(T value, boolean inserting, CNode<T> parent, CNode<T> node, long nodeVersion) {
+        int cmp = value.compareTo(node.key);
+        if (cmp == 0) {
+            return attemptNodeUpdate(inserting, parent, node);
+        }
+        while (true) {
+            CNode<T> child = node.child(cmp);
+            if (node.version != nodeVersion) {
+                return RETRY;
+            }
+            if (child == null) {
+                // The value is not in the tree
+                if (!inserting) {
+                    return Boolean.FALSE;
+                }
+                boolean attached = false;
+                CNode<T> damaged = null;
+                synchronized (node) {
+                    // With the lock held no further rotation can move the node, so only past ones need checking
+                    if (node.version != nodeVersion) {
+                        return RETRY;
+                    }
+                    if (node.child(cmp) == null) {
+                        node.setChild(cmp, new CNode<>(value, node));
+                        attached = true;
+                        damaged = fixHeight(node);
+                    }
+                    // Otherwise a concurrent insert won the race for this position, so descend again
+                }
+                if (attached) {
+                    fixHeightAndRebalance(damaged);
+                    return Boolean.TRUE;
+                }
+            } else {
+                long childVersion = child.version;
+                if (isShrinkingOrUnlinked(childVersion)) {
+                    waitUntilChangeCompleted(child, childVersion);
+                } else if (child == node.child(cmp)) {
+                    if (node.version != nodeVersion) {
+                        return RETRY;
+                    }
+                    Object result = attemptUpdate(value, inserting, node, child, childVersion);
+                    if (result != RETRY) {
+                        return result;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to insert or delete the value held by an existing node.
+     * A deleted node with at most one child is unlinked, any other deleted node becomes a routing node.
+     *
+     * @param inserting true to mark the node as present, false to remove it
+     * @param parent    the parent of the node
+     * @param node      the node holding the value
+     * @return TRUE or FALSE, or RETRY if the node has moved or been unlinked in the meantime
+     */
+    private Object attemptNodeUpdate(boolean inserting, CNode<T> parent, CNode<T> node) {
+        if (!inserting) {
+            if (!node.present) {
+                return Boolean.FALSE;
+            }
+            if (node.left == null || node.right == null) {
+                // The node can probably be unlinked, which requires the lock of its parent as well
+                CNode<T> damaged;
+                synchronized (parent) {
+                    if (isUnlinked(parent.version) || node.parent != parent) {
+                        return RETRY;
+                    }
+                    synchronized (node) {
+                        if (!node.present) {
+                            return Boolean.FALSE;
+                        }
+                        if (!attemptUnlink(parent, node)) {
+                            return RETRY;
+                        }
+                    }
+                    // Repair the parent while its lock is still held
+                    damaged = fixHeight(parent);
+                }
+                fixHeightAndRebalance(damaged);
+                return Boolean.TRUE;
+            }
+        }
+        synchronized (node) {
+            if (isUnlinked(node.version)) {
+                return RETRY;
+            }
+            // Retry if the node has lost a child in the meantime and could now be unlinked instead
+            if (!inserting && (node.left == null || node.right == null)) {
+                return RETRY;
+            }
+            boolean wasPresent = node.present;
+            node.present = inserting;
+            return wasPresent != inserting;
+        }
+    }
+
+    /**
+     * Helper method to splice a node with at most one child out of the tree. The caller holds the locks of the
+     * parent and the node.
+     *
+     * @param parent the parent of the node
+     * @param node   the node to unlink
+     * @return true if the node was unlinked, false if it is no longer a child of the parent or has two children
+     */
+    private boolean attemptUnlink(CNode<T> parent, CNode<T> node) {
+        CNode<T> parentLeft = parent.left;
+        CNode<T> parentRight = parent.right;
+        if (parentLeft != node && parentRight != node) {
+            return false;
+        }
+        CNode<T> left = node.left;
+        CNode<T> right = node.right;
+        if (left != null && right != null) {
+            return false;
+        }
+        CNode<T> splice = (left != null) ? left : right;
+        if (parentLeft == node) {
+            parent.left = splice;
+        } else {
+            parent.right = splice;
+        }
+        if (splice != null) {
+            splice.parent = parent;
+        }
+        node.version = UNLINKED;
+        node.present = false;
+        return true;
+    }
+
+    /**
+     * Reports what kind of repair a node needs.
+     *
+     * @param node the node to inspect
+     * @return UNLINK_REQUIRED, REBALANCE_REQUIRED, NOTHING_REQUIRED or the repaired height of the node
+     */
+    private int nodeCondition(CNode<T> node) {
+        CNode<T> left = node.left;
+        CNode<T> right = node.right;
+        if ((left == null || right == null) && !node.present) {
+            return UNLINK_REQUIRED;
+        }
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        int balanceFactor = leftHeight - rightHeight;
+        if (balanceFactor < -1 || balanceFactor > 1) {
+            return REBALANCE_REQUIRED;
+        }
+        int repairedHeight = 1 + Math.max(leftHeight, rightHeight);
+        return (node.height != repairedHeight) ? repairedHeight : NOTHING_REQUIRED;
+    }
+
+    /**
+     * Repairs the height of a locked node if that is all it needs.
+     *
+     * @param node the locked node to repair
+     * @return the next node that needs a repair, or null if there is none
+     */
+    private CNode<T> fixHeight(CNode<T> node) {
+        int condition = nodeCondition(node);
+        switch (condition) {
+            case UNLINK_REQUIRED:
+            case REBALANCE_REQUIRED:
+                return node;
+            case NOTHING_REQUIRED:
+                return null;
+            default:
+                node.height = condition;
+                // The parent's height may now be stale, but its lock is not held here
+                return node.parent;
+        }
+    }
+
+    /**
+     * Repairs heights, unlinks routing nodes and performs rotations from the given node up towards the root.
+     * Each step locks at most the damaged node, its parent and the children involved in a rotation.
+     *
+     * @param node the lowest damaged node, possibly null
+     */
+    private void fixHeightAndRebalance(CNode<T> node) {
+        while (node != null && node.parent != null) {
+            int condition = nodeCondition(node);
+            if (condition == NOTHING_REQUIRED || isUnlinked(node.version)) {
+                // Either nothing is left to do, or whoever unlinked the node takes over the repair
+                return;
+            }
+            if (condition != UNLINK_REQUIRED && condition != REBALANCE_REQUIRED) {
+                synchronized (node) {
+                    node = fixHeight(node);
+                }
+            } else {
+                CNode<T> parent = node.parent;
+                synchronized (parent) {
+                    if (!isUnlinked(parent.version) && node.parent == parent) {
+                        synchronized (node) {
+                            node = rebalance(parent, node);
+                        }
+                    }
+                    // Otherwise the node has moved, so inspect it again
+                }
+            }
+        }
+    }
+
+    /**
+     * Unlinks, rotates or repairs the height of a node. The caller holds the locks of the parent and the node.
+     *
+     * @param parent the parent of the node
+     * @param node   the node to repair
+     * @return the next node that needs a repair, or null if there is none
+     */
+    private CNode<T> rebalance(CNode<T> parent, CNode<T> node) {
+        CNode<T> left = node.left;
+        CNode<T> right = node.right;
+        if ((left == null || right == null) && !node.present) {
+            if (attemptUnlink(parent, node)) {
+                return fixHeight(parent);
+            }
+            return node;
+        }
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        int repairedHeight = 1 + Math.max(leftHeight, rightHeight);
+        int balanceFactor = leftHeight - rightHeight;
+        if (balanceFactor > 1) {
+            return rebalanceToRight(parent, node, left, rightHeight);
+        } else if (balanceFactor < -1) {
+            return rebalanceToLeft(parent, node, right, leftHeight);
+        } else if (repairedHeight != node.height) {
+            node.height = repairedHeight;
+            return fixHeight(parent);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to fix a left-heavy node with a right rotation, preceded by a left rotation of its left child
+     * if the left child is right-heavy.
+     *
+     * @param parent      the locked parent of the node
+     * @param node        the locked left-heavy node
+     * @param left        the left child of the node
+     * @param rightHeight the height of the node's right subtree
+     * @return the next node that needs a repair, or null if there is none
+     */
+    private CNode<T> rebalanceToRight(CNode<T> parent, CNode<T> node, CNode<T> left, int rightHeight) {
+        synchronized (left) {
+            if (left.height - rightHeight <= 1) {
+                // The imbalance has been fixed concurrently, so inspect the node again
+                return node;
+            }
+            CNode<T> leftRight = left.right;
+            int leftLeftHeight = height(left.left);
+            int leftRightHeight = height(leftRight);
+            if (leftLeftHeight >= leftRightHeight) {
+                return rotateRight(parent, node, left, rightHeight, leftLeftHeight, leftRight, leftRightHeight);
+            }
+            synchronized (leftRight) {
+                // The snapshot of the inner height may be stale, in which case a single rotation suffices
+                leftRightHeight = leftRight.height;
+                if (leftLeftHeight >= leftRightHeight) {
+                    return rotateRight(parent, node, left, rightHeight, leftLeftHeight, leftRight, leftRightHeight);
+                }
+                int leftRightLeftHeight = height(leftRight.left);
+                int balanceFactor = leftLeftHeight - leftRightLeftHeight;
+                if (balanceFactor >= -1 && balanceFactor <= 1
+                        && !((leftLeftHeight == 0 || leftRightLeftHeight == 0) && !left.present)) {
+                    // The left child will not be damaged by a double rotation
+                    return rotateRightOverLeft(parent, node, left, rightHeight, leftLeftHeight, leftRight,
+                            leftRightLeftHeight);
+                }
+            }
+            // Fix the left child on its own first, the node will be repaired afterwards if needed
+            return rebalanceToLeft(node, left, leftRight, leftLeftHeight);
+        }
+    }
+
+    /**
+     * Helper method to fix a right-heavy node with a left rotation, preceded by a right rotation of its right child
+     * if the right child is left-heavy.
+     *
+     * @param parent     the locked parent of the node
+     * @param node       the locked right-heavy node
+     * @param right      the right child of the node
+     * @param leftHeight the height of the node's left subtree
+     * @return the next node that needs a repair, or null if there is none
+     */
+    private CNode<T> rebalanceToLeft(CNode<T> parent, CNode<T> node, CNode<T> right, int leftHeight) {
+        synchronized (right) {
+            if (leftHeight - right.height >= -1) {
+                // The imbalance has been fixed concurrently, so inspect the node again
+                return node;
+            }
+            CNode<T> rightLeft = right.left;
+            int rightLeftHeight = height(rightLeft);
+            int rightRightHeight = height(right.right);
+            if (rightRightHeight >= rightLeftHeight) {
+                return rotateLeft(parent, node, leftHeight, right, rightLeft, rightLeftHeight, rightRightHeight);
+            }
+            synchronized (rightLeft) {
+                // The snapshot of the inner height may be stale, in which case a single rotation suffices
+                rightLeftHeight = rightLeft.height;
+                if (rightRightHeight >= rightLeftHeight) {
+                    return rotateLeft(parent, node, leftHeight, right, rightLeft, rightLeftHeight, rightRightHeight);
+                }
+                int rightLeftRightHeight = height(rightLeft.right);
+                int balanceFactor = rightRightHeight - rightLeftRightHeight;
+                if (balanceFactor >= -1 && balanceFactor <= 1
+                        && !((rightRightHeight == 0 || rightLeftRightHeight == 0) && !right.present)) {
+                    // The right child will not be damaged by a double rotation
+                    return rotateLeftOverRight(parent, node, leftHeight, right, rightLeft, rightRightHeight,
+                            rightLeftRightHeight);
+                }
+            }
+            // Fix the right child on its own first, the node will be repaired afterwards if needed
+            return rebalanceToRight(node, right, rightLeft, rightRightHeight);
+        }
+    }
+
+    /**
+     * Performs a right rotation on a locked node. The node is marked as shrinking while its left child moves up,
+     * so that readers that passed through it retry.
+     *
+     * @return the next node that needs a repair, or null if there is none
+     */
+    private CNode<T> rotateRight(CNode<T> parent, CNode<T> node, CNode<T> left, int rightHeight,
+                                 int leftLeftHeight, CNode<T> leftRight, int leftRightHeight) {
+        long nodeVersion = node.version;
+        CNode<T> parentLeft = parent.left;
+
+        node.version = beginShrink(nodeVersion);
+
+        node.left = leftRight;
+        if (leftRight != null) {
+            leftRight.parent = node;
+        }
+        left.right = node;
+        node.parent = left;
+        if (parentLeft == node) {
+            parent.left = left;
+        } else {
+            parent.right = left;
+        }
+        left.parent = parent;
+
+        int nodeHeight = 1 + Math.max(leftRightHeight, rightHeight);
+        node.height = nodeHeight;
+        left.height = 1 + Math.max(leftLeftHeight, nodeHeight);
+
+        node.version = endShrink(nodeVersion);
+
+        // The node is the deepest damaged node, then its old left child, then the parent
+        int nodeBalance = leftRightHeight - rightHeight;
+        if (nodeBalance < -1 || nodeBalance > 1) {
+            return node;
+        }
+        if ((leftRight == null || rightHeight == 0) && !node.present) {
+            return node;
+        }
+        int leftBalance = leftLeftHeight - nodeHeight;
+        if (leftBalance < -1 || leftBalance > 1) {
+            return left;
+        }
+        if (leftLeftHeight == 0 && !left.present) {
+            return left;
+        }
+        return fixHeight(parent);
+    }
+
+    /**
+     * Performs a left rotation on a locked node. The node is marked as shrinking while its right child moves up,
+     * so that readers that passed through it retry.
+     *
+     * @return the next node that needs a repair, or null if there is none
+     */
+    private CNode<T> rotateLeft(CNode<T> parent, CNode<T> node, int leftHeight, CNode<T> right,
+                                CNode<T> rightLeft, int rightLeftHeight, int rightRightHeight) {
+        long nodeVersion = node.version;
+        CNode<T> parentLeft = parent.left;
+
+        node.version = beginShrink(nodeVersion);
+
+        node.right = rightLeft;
+        if (rightLeft != null) {
+            rightLeft.parent = node;
+        }
+        right.left = node;
+        node.parent = right;
+        if (parentLeft == node) {
+            parent.left = right;
+        } else {
+            parent.right = right;
+        }
+        right.parent = parent;
+
+        int nodeHeight = 1 + Math.max(leftHeight, rightLeftHeight);
+        node.height = nodeHeight;
+        right.height = 1 + Math.max(nodeHeight, rightRightHeight);
+
+        node.version = endShrink(nodeVersion);
+
+        // The node is the deepest damaged node, then its old right child, then the parent
+        int nodeBalance = rightLeftHeight - leftHeight;
+        if (nodeBalance < -1 || nodeBalance > 1) {
+            return node;
+        }
+        if ((rightLeft == null || leftHeight == 0) && !node.present) {
+            return node;
+        }
+        int rightBalance = rightRightHeight - nodeHeight;
+        if (rightBalance < -1 || rightBalance > 1) {
+            return right;
+        }
+        if (rightRightHeight == 0 && !right.present) {
+            return right;
+        }
+        return fixHeight(parent);
+    }
+
+    /**
+     * Performs a left rotation of the left child followed by a right rotation of a locked node. Both the node and
+     * its left child lose part of their subtrees and are marked as shrinking.
+     *
+     * @return the next node that needs a repair, or null if there is none
+     */
+    private CNode<T> rotateRightOverLeft(CNode<T> parent, CNode<T> node, CNode<T> left, int rightHeight,
+                                         int leftLeftHeight, CNode<T> leftRight, int leftRightLeftHeight) {
+        long nodeVersion = node.version;
+        long leftVersion = left.version;
+        CNode<T> parentLeft = parent.left;
+        CNode<T> leftRightLeft = leftRight.left;
+        CNode<T> leftRightRight = leftRight.right;
+        int leftRightRightHeight = height(leftRightRight);
+
+        node.version = beginShrink(nodeVersion);
+        left.version = beginShrink(leftVersion);
+
+        node.left = leftRightRight;
+        if (leftRightRight != null) {
+            leftRightRight.parent = node;
+        }
+        left.right = leftRightLeft;
+        if (leftRightLeft != null) {
+            leftRightLeft.parent = left;
+        }
+        leftRight.left = left;
+        left.parent = leftRight;
+        leftRight.right = node;
+        node.parent = leftRight;
+        if (parentLeft == node) {
+            parent.left = leftRight;
+        } else {
+            parent.right = leftRight;
+        }
+        leftRight.parent = parent;
+
+        int nodeHeight = 1 + Math.max(leftRightRightHeight, rightHeight);
+        node.height = nodeHeight;
+        int leftHeight = 1 + Math.max(leftLeftHeight, leftRightLeftHeight);
+        left.height = leftHeight;
+        leftRight.height = 1 + Math.max(leftHeight, nodeHeight);
+
+        node.version = endShrink(nodeVersion);
+        left.version = endShrink(leftVersion);
+
+        int nodeBalance = leftRightRightHeight - rightHeight;
+        if (nodeBalance < -1 || nodeBalance > 1) {
+            return node;
+        }
+        if ((leftRightRight == null || rightHeight == 0) && !node.present) {
+            return node;
+        }
+        int leftRightBalance = leftHeight - nodeHeight;
+        if (leftRightBalance < -1 || leftRightBalance > 1) {
+            return leftRight;
+        }
+        return fixHeight(parent);
+    }
+
+    /**
+     * Performs a right rotation of the right child followed by a left rotation of a locked node. Both the node and
+     * its right child lose part of their subtrees and are marked as shrinking.
+     *
+     * @return the next node that needs a repair, or null if there is none
+     */
+    private CNode<T> rotateLeftOverRight(CNode<T> parent, CNode<T> node, int leftHeight, CNode<T> right,
+                                         CNode<T> rightLeft, int rightRightHeight, int rightLeftRightHeight) {
+        long nodeVersion = node.version;
+        long rightVersion = right.version;
+        CNode<T> parentLeft = parent.left;
+        CNode<T> rightLeftLeft = rightLeft.left;
+        CNode<T> rightLeftRight = rightLeft.right;
+        int rightLeftLeftHeight = height(rightLeftLeft);
+
+        node.version = beginShrink(nodeVersion);
+        right.version = beginShrink(rightVersion);
+
+        node.right = rightLeftLeft;
+        if (rightLeftLeft != null) {
+            rightLeftLeft.parent = node;
+        }
+        right.left = rightLeftRight;
+        if (rightLeftRight != null) {
+            rightLeftRight.parent = right;
+        }
+        rightLeft.right = right;
+        right.parent = rightLeft;
+        rightLeft.left = node;
+        node.parent = rightLeft;
+        if (parentLeft == node) {
+            parent.left = rightLeft;
+        } else {
+            parent.right = rightLeft;
+        }
+        rightLeft.parent = parent;
+
+        int nodeHeight = 1 + Math.max(leftHeight, rightLeftLeftHeight);
+        node.height = nodeHeight;
+        int rightHeight = 1 + Math.max(rightLeftRightHeight, rightRightHeight);
+        right.height = rightHeight;
+        rightLeft.height = 1 + Math.max(nodeHeight, rightHeight);
+
+        node.version = endShrink(nodeVersion);
+        right.version = endShrink(rightVersion);
+
+        int nodeBalance = rightLeftLeftHeight - leftHeight;
+        if (nodeBalance < -1 || nodeBalance > 1) {
+            return node;
+        }
+        if ((rightLeftLeft == null || leftHeight == 0) && !node.present) {
+            return node;
+        }
+        int rightLeftBalance = rightHeight - nodeHeight;
+        if (rightLeftBalance < -1 || rightLeftBalance > 1) {
+            return rightLeft;
+        }
+        return fixHeight(parent);
+    }
+
+    /**
+     * Waits without locking until a rotation that is shrinking the given node has completed.
+     *
+     * @param node    the node being rotated
+     * @param version the version of the node that was observed
+     */
+    private void waitUntilChangeCompleted(CNode<T> node, long version) {
+        if ((version & SHRINKING) == 0) {
+            return;
+        }
+        for (int i = 0; node.version == version; i++) {
+            if (i < SPIN_COUNT) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static boolean isShrinkingOrUnlinked(long version) {
+        return (version & (SHRINKING | UNLINKED)) != 0;
+    }
+
+    private static boolean isUnlinked(long version) {
+        return version == UNLINKED;
+    }
+
+    private static long beginShrink(long version) {
+        return version | SHRINKING;
+    }
+
+    private static long endShrink(long version) {
+        return version + SHRINK_COUNT_UNIT;
+    }
+
+    private int height(CNode<T> node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    /**
+     * Performs a weakly consistent pre-order traversal of the tree and applies the specified action to each element.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the tree.
+     */
+    @Override
+    public void preOrder(Consumer<T> action) {
+        preOrder(rootHolder.right, action);
+    }
+
+    private void preOrder(CNode<T> node, Consumer<T> action) {
+        if (node != null) {
+            if (node.present) action.accept(node.key);
+            preOrder(node.left, action);
+            preOrder(node.right, action);
+        }
+    }
+
+    /**
+     * Performs a weakly consistent in-order traversal of the tree and applies the specified action to each element.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the tree.
+     */
+    @Override
+    public void inOrder(Consumer<T> action) {
+        inOrder(rootHolder.right, action);
+    }
+
+    private void inOrder(CNode<T> node, Consumer<T> action) {
+        if (node != null) {
+            inOrder(node.left, action);
+            if (node.present) action.accept(node.key);
+            inOrder(node.right, action);
+        }
+    }
+
+    /**
+     * Performs a weakly consistent post-order traversal of the tree and applies the specified action to each element.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the tree.
+     */
+    @Override
+    public void postOrder(Consumer<T> action) {
+        postOrder(rootHolder.right, action);
+    }
+
+    private void postOrder(CNode<T> node, Consumer<T> action) {
+        if (node != null) {
+            postOrder(node.left, action);
+            postOrder(node.right, action);
+            if (node.present) action.accept(node.key);
+        }
+    }
+
+    /**
+     * Returns the depth of the tree as recorded in the heights of its nodes.
+     *
+     * @return the depth of the tree, or -1 if the tree is empty
+     * @implNote This method has a time complexity of O(1)
+     */
+    @Override
+    public int getDepth() {
+        return height(rootHolder.right) - 1;
+    }
+
+    /**
+     * Prints a graphical representation of the tree to standard output. Routing nodes are printed in parentheses.
+     */
+    @Override
+    public void printTree() {
+        printTree(rootHolder.right, 0);
+    }
+
+    private void printTree(CNode<T> node, int indent) {
+        if (node != null) {
+            printTree(node.right, indent + 4);
+            System.out.printf("%" + indent + "s%s%n", "", node.present ? node.key : "(" + node.key + ")");
+            printTree(node.left, indent + 4);
+        }
+    }
+
+    /**
+     * Returns a detached node holding the minimum element of the tree.
+     *
+     * @return a new node holding the minimum element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public Node<T> getMin() {
+        return toNode(first(rootHolder.right, true));
+    }
+
+    /**
+     * Returns a detached node holding the maximum element of the tree.
+     *
+     * @return a new node holding the maximum element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public Node<T> getMax() {
+        return toNode(first(rootHolder.right, false));
+    }
+
+    /**
+     * Returns a detached node holding the smallest element greater than the value of the given node.
+     *
+     * @param node the node to find the successor of
+     * @return a new node holding the successor, or null if there is none
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public Node<T> getSuccessor(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        return toNode(next(rootHolder.right, node.getValue(), true));
+    }
+
+    /**
+     * Returns a detached node holding the greatest element less than the value of the given node.
+     *
+     * @param node the node to find the predecessor of
+     * @return a new node holding the predecessor, or null if there is none
+     * @implNote This method has a time complexity of O(log(n)) in the absence of contention
+     */
+    @Override
+    public Node<T> getPredecessor(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        return toNode(next(rootHolder.right, node.getValue(), false));
+    }
+
+    /**
+     * Helper method to find the first present element of a subtree in ascending or descending order.
+     *
+     * @param node      the root of the subtree
+     * @param ascending true for the minimum, false for the maximum
+     * @return the first present element, or null if there is none
+     */
+    private T first(CNode<T> node, boolean ascending) {
+        if (node == null) {
+            return null;
+        }
+        T result = first(ascending ? node.left : node.right, ascending);
+        if (result != null) {
+            return result;
+        }
+        if (node.present) {
+            return node.key;
+        }
+        return first(ascending ? node.right : node.left, ascending);
+    }
+
+    /**
+     * Helper method to find the closest present element after a value in ascending or descending order.
+     *
+     * @param node      the root of the subtree
+     * @param value     the value to start from
+     * @param ascending true for the next greater element, false for the next smaller element
+     * @return the closest present element after the value, or null if there is none
+     */
+    private T next(CNode<T> node, T value, boolean ascending) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = node.key.compareTo(value);
+        if (ascending ? cmp <= 0 : cmp >= 0) {
+            return next(ascending ? node.right : node.left, value, ascending);
+        }
+        T result = next(ascending ? node.left : node.right, value, ascending);
+        if (result != null) {
+            return result;
+        }
+        if (node.present) {
+            return node.key;
+        }
+        return first(ascending ? node.right : node.left, ascending);
+    }
+
+    private Node<T> toNode(T value) {
+        return (value == null) ? null : new Node<>(value);
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return the number of elements in the tree
+     * @implNote This method has a time complexity of O(p), where p is the number of threads that updated the tree.
+     */
+    public int size() {
+        return size.intValue();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        inOrder(value -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(value);
+        });
+        return sb.append(']').toString();
+    }
+
+    /**
+     * A tree node whose links and state can be read without locking.
+     *
+     * @param <T> the data type of the value stored in the node
+     */
+    private static final class CNode<T extends Comparable<T>> {
+        private final T key; // The value stored in the node, never changes
+        private volatile boolean present; // Whether the value belongs to the tree, false for routing nodes
+        private volatile int height; // The height of the node, 1 for leaves
+        private volatile long version; // The optimistic version of the node
+        private volatile CNode<T> parent; // Pointer to the parent node
+        private volatile CNode<T> left; // Pointer to the left child node
+        private volatile CNode<T> right; // Pointer to the right child node
+
+        /**
+         * Constructs a new present leaf with the given value.
+         *
+         * @param key    the value to store in the node
+         * @param parent the parent of the node
+         */
+        CNode(T key, CNode<T> parent) {
+            this.key = key;
+            this.parent = parent;
+            this.present = true;
+            this.height = 1;
+        }
+
+        CNode<T> child(int direction) {
+            return (direction < 0) ? left : right;
+        }
+
+        void setChild(int direction, CNode<T> child) {
+            if (direction < 0) {
+                left = child;
+            } else {
+                right = child;
+            }
+        }
+    }
+}
@@ -0,0 +1,1038 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Disk-backed B+ Tree implementation of the Tree interface for trees that do not fit into memory.
+ * <p>
+ * Every node occupies one fixed-size page of a file that is memory-mapped in segments of {@value #SEGMENT_SIZE}
+ * bytes, so the operating system decides which parts of the file stay resident. Keys are written with a {@link Codec}
+ * into slots of {@link Codec#maxEncodedSize()} bytes. Decoded pages are kept in a page cache of bounded capacity that
+ * evicts the least recently used pages and writes modified pages back to the mapping. Pages freed by merges are reused
+ * through a free list.
+ * <p>
+ * The first page of the file holds the root page, the height, the element count and the {@link Codec#id()} of the key
+ * codec, so reopening an existing file reads a single page, does not rebuild anything, and fails for a codec other
+ * than the one the file was created with. Changes reach the file on {@link #flush()} and {@link #close()}; a tree that
+ * is not closed properly may leave the file inconsistent.
+ * <p>
+ * This class is not thread-safe. Methods of the Tree interface that return a node return a detached {@link Node}
+ * holding the value.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class DiskBPlusTree<T extends Comparable<T>> implements Tree<T>, Closeable {
+    /**
+     * The page size used by {@link #open(Path, Codec)}.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    /**
+     * The number of decoded pages kept in memory by {@link #open(Path, Codec)}.
+     */
+    public static final int DEFAULT_CACHED_PAGES = 1024;
+    /**
+     * The number of bytes mapped at once. Must be a multiple of every supported page size.
+     */
+    private static final int SEGMENT_SIZE = 1 << 20;
+
+    private static final int MAGIC = 0x42505432; // "BPT2"
+    private static final int NIL = -1; // The page number that stands for a missing page
+
+    // Offsets within the header page
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_PAGE_SIZE = 4;
+    private static final int HEADER_KEY_SIZE = 8;
+    private static final int HEADER_ROOT = 12;
+    private static final int HEADER_HEIGHT = 16;
+    private static final int HEADER_SIZE = 20;
+    private static final int HEADER_PAGE_COUNT = 24;
+    private static final int HEADER_FREE_PAGE = 28;
+    private static final int HEADER_CODEC = 32;
+
+    // Offsets within a node page
+    private static final byte TYPE_FREE = 0;
+    private static final byte TYPE_LEAF = 1;
+    private static final byte TYPE_INTERNAL = 2;
+    private static final int PAGE_TYPE = 0;
+    private static final int PAGE_COUNT = 4; // The number of keys, or the next free page of a free page
+    private static final int LEAF_PREVIOUS = 8;
+    private static final int LEAF_NEXT = 12;
+    private static final int LEAF_KEYS = 16;
+    private static final int INTERNAL_CHILDREN = 8;
+
+    private final Path path; // The file holding the pages
+    private final FileChannel channel; // The channel the segments are mapped from
+    private final List<MappedByteBuffer> segments; // The mapped segments, mapped on first access
+    private final Codec<T> codec; // The codec writing the keys
+    private final int pageSize; // The size of every page in bytes
+    private final int keySize; // The size of every key slot in bytes
+    private final int maxLeafKeys; // The maximum number of keys of a leaf page
+    private final int maxInternalKeys; // The maximum number of keys of an internal page
+    private final int internalKeys; // The offset of the first key slot of an internal page
+    private final int cachedPages; // The number of decoded pages the cache keeps
+    private final LinkedHashMap<Integer, Page> cache; // The decoded pages in least recently used order
+    private final ByteBuffer scratch; // A buffer of one key slot for validating values before they are inserted
+
+    private int root; // The page number of the root, or NIL if the tree is empty
+    private int height; // The number of levels below the root
+    private int size; // The number of elements in the tree
+    private int pageCount; // The number of pages in the file, including the header page
+    private int freePage; // The first page of the free list, chained through the count field
+    private boolean closed; // Whether the file has been closed
+
+    private DiskBPlusTree(Path path, FileChannel channel, Codec<T> codec, int pageSize, int cachedPages) {
+        this.path = path;
+        this.channel = channel;
+        this.codec = codec;
+        this.pageSize = pageSize;
+        this.cachedPages = cachedPages;
+        keySize = codec.maxEncodedSize();
+        maxLeafKeys = (pageSize - LEAF_KEYS) / keySize;
+        maxInternalKeys = (pageSize - INTERNAL_CHILDREN - Integer.BYTES) / (keySize + Integer.BYTES);
+        internalKeys = INTERNAL_CHILDREN + (maxInternalKeys + 1) * Integer.BYTES;
+        if (maxLeafKeys < 3 || maxInternalKeys < 3) {
+            throw new IllegalArgumentException("Page size is too small for keys of " + keySize + " bytes.");
+        }
+        segments = new ArrayList<>();
+        cache = new LinkedHashMap<>(16, 0.75f, true);
+        scratch = ByteBuffer.allocate(keySize);
+    }
+
+    /**
+     * Opens the tree stored in the given file with the default page size and cache capacity, creating the file if it
+     * does not exist.
+     *
+     * @param path  the file holding the tree
+     * @param codec the codec for the keys, which must be the one the file was created with
+     * @param <T>   the data type of the elements in the tree
+     * @return the opened tree
+     * @throws IOException if the file cannot be opened, or is not a tree created with a compatible codec
+     * @implNote This method has a time complexity of O(1)
+     */
+    public static <T extends Comparable<T>> DiskBPlusTree<T> open(Path path, Codec<T> codec) throws IOException {
+        return open(path, codec, DEFAULT_PAGE_SIZE, DEFAULT_CACHED_PAGES);
+    }
+
+    /**
+     * Opens the tree stored in the given file, creating the file if it does not exist.
+     *
+     * @param path        the file holding the tree
+     * @param codec       the codec for the keys, which must be the one the file was created with
+     * @param pageSize    the page size of a new file, a power of two between 512 and 65536 bytes. An existing file
+     *                    keeps the page size it was created with.
+     * @param cachedPages the number of decoded pages kept in memory
+     * @param <T>         the data type of the elements in the tree
+     * @return the opened tree
+     * @throws IOException if the file cannot be opened, or is not a tree created with a compatible codec
+     * @implNote This method has a time complexity of O(1)
+     */
+    public static <T extends Comparable<T>> DiskBPlusTree<T> open(Path path, Codec<T> codec, int pageSize, int cachedPages) throws IOException {
+        if (path == null || codec == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (pageSize < 512 || pageSize > 65536 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("Page size must be a power of two between 512 and 65536.");
+        }
+        if (cachedPages < 16) {
+            throw new IllegalArgumentException("The page cache must hold at least 16 pages.");
+        }
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (exists) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_CODEC + Integer.BYTES);
+                channel.read(header, 0);
+                header.flip();
+                if (header.remaining() < header.capacity() || header.getInt(HEADER_MAGIC) != MAGIC) {
+                    throw new IOException("Not a B+ tree file: " + path);
+                }
+                if (header.getInt(HEADER_CODEC) != codec.id()) {
+                    throw new IOException("The file was created with the codec " + header.getInt(HEADER_CODEC) + ", not " + codec.id() + ".");
+                }
+                if (header.getInt(HEADER_KEY_SIZE) != codec.maxEncodedSize()) {
+                    throw new IOException("The file was created with keys of " + header.getInt(HEADER_KEY_SIZE) + " bytes.");
+                }
+                int storedPageSize = header.getInt(HEADER_PAGE_SIZE);
+                if (storedPageSize < 512 || storedPageSize > 65536 || Integer.bitCount(storedPageSize) != 1) {
+                    throw new IOException("Corrupt page size in " + path);
+                }
+                DiskBPlusTree<T> tree = new DiskBPlusTree<>(path, channel, codec, storedPageSize, cachedPages);
+                tree.root = header.getInt(HEADER_ROOT);
+                tree.height = header.getInt(HEADER_HEIGHT);
+                tree.size = header.getInt(HEADER_SIZE);
+                tree.pageCount = header.getInt(HEADER_PAGE_COUNT);
+                tree.freePage = header.getInt(HEADER_FREE_PAGE);
+                return tree;
+            }
+            DiskBPlusTree<T> tree = new DiskBPlusTree<>(path, channel, codec, pageSize, cachedPages);
+            tree.clear();
+            tree.flush();
+            return tree;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the file holding the tree.
+     *
+     * @return the path of the file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Inserts an element into the tree.
+     *
+     * @param value the value to insert into the tree
+     * @return true if the value was successfully inserted, false if it already exists in the tree
+     * @throws IllegalArgumentException if the value is null or cannot be encoded by the codec
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public boolean insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        ensureOpen();
+        checkEncodable(value);
+        if (root == NIL) {
+            Page leaf = allocatePage(true);
+            leaf.keys[0] = value;
+            leaf.count = 1;
+            root = leaf.id;
+            height = 0;
+            size = 1;
+            trimCache();
+            return true;
+        }
+        int beforeInsertSize = size;
+        Page rootPage = page(root);
+        Page right = insert(rootPage, value);
+        if (right != null) {
+            // The root overflowed, so the tree grows by one level at the top
+            Page newRoot = allocatePage(false);
+            newRoot.keys[0] = right.separator;
+            newRoot.children[0] = rootPage.id;
+            newRoot.children[1] = right.id;
+            newRoot.count = 1;
+            right.separator = null;
+            root = newRoot.id;
+            height++;
+        }
+        trimCache();
+        return size != beforeInsertSize;
+    }
+
+    /**
+     * Recursive helper method for inserting a value into a subtree.
+     *
+     * @param page  the root page of the subtree to insert the value into
+     * @param value the value to insert
+     * @return the new right sibling, carrying its separator, if the page had to be split, or null otherwise
+     */
+    private Page insert(Page page, T value) {
+        if (page.leaf) {
+            int index = search(page, value);
+            if (index >= 0) {
+                // The value already exists in the tree
+                return null;
+            }
+            index = -index - 1;
+            System.arraycopy(page.keys, index, page.keys, index + 1, page.count - index);
+            page.keys[index] = value;
+            page.count++;
+            page.dirty = true;
+            size++;
+            return (page.count > maxLeafKeys) ? splitLeaf(page) : null;
+        }
+        int childIndex = childIndex(page, value);
+        Page right = insert(page(page.children[childIndex]), value);
+        if (right == null) {
+            return null;
+        }
+        System.arraycopy(page.keys, childIndex, page.keys, childIndex + 1, page.count - childIndex);
+        System.arraycopy(page.children, childIndex + 1, page.children, childIndex + 2, page.count - childIndex);
+        page.keys[childIndex] = right.separator;
+        page.children[childIndex + 1] = right.id;
+        page.count++;
+        page.dirty = true;
+        right.separator = null;
+        return (page.count > maxInternalKeys) ? splitInternal(page) : null;
+    }
+
+    private Page splitLeaf(Page page) {
+        Page right = allocatePage(true);
+        int leftCount = page.count / 2;
+        right.count = page.count - leftCount;
+        System.arraycopy(page.keys, leftCount, right.keys, 0, right.count);
+        clearKeys(page, leftCount);
+        right.previous = page.id;
+        right.next = page.next;
+        if (page.next != NIL) {
+            Page next = page(page.next);
+            next.previous = right.id;
+            next.dirty = true;
+        }
+        page.next = right.id;
+        right.separator = right.keys[0];
+        return right;
+    }
+
+    private Page splitInternal(Page page) {
+        Page right = allocatePage(false);
+        int middle = page.count / 2;
+        right.count = page.count - middle - 1;
+        System.arraycopy(page.keys, middle + 1, right.keys, 0, right.count);
+        System.arraycopy(page.children, middle + 1, right.children, 0, right.count + 1);
+        right.separator = page.keys[middle];
+        clearKeys(page, middle);
+        return right;
+    }
+
+    /**
+     * Deletes an element from the tree.
+     *
+     * @param value the value to delete
+     * @return true if the value was successfully deleted, false if it was not found in the tree
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public boolean delete(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        ensureOpen();
+        if (root == NIL) {
+            return false;
+        }
+        int beforeDeleteSize = size;
+        Page rootPage = page(root);
+        delete(rootPage, value);
+        if (rootPage.count == 0) {
+            // The root ran empty, so the tree shrinks by one level at the top
+            root = rootPage.leaf ? NIL : rootPage.children[0];
+            if (!rootPage.leaf) {
+                height--;
+            }
+            releasePage(rootPage);
+        }
+        trimCache();
+        return size != beforeDeleteSize;
+    }
+
+    /**
+     * Recursive helper method for deleting a value from a subtree. A child that falls below half of its capacity
+     * borrows a key from a sibling or is merged with it.
+     *
+     * @param page  the root page of the subtree to delete the value from
+     * @param value the value to delete
+     */
+    private void delete(Page page, T value) {
+        if (page.leaf) {
+            int index = search(page, value);
+            if (index >= 0) {
+                System.arraycopy(page.keys, index + 1, page.keys, index, page.count - index - 1);
+                page.keys[--page.count] = null;
+                page.dirty = true;
+                size--;
+            }
+            return;
+        }
+        int childIndex = childIndex(page, value);
+        Page child = page(page.children[childIndex]);
+        delete(child, value);
+        if (child.count < minKeys(child)) {
+            rebalanceChild(page, childIndex, child);
+        }
+    }
+
+    /**
+     * Restores the minimum number of keys of an underfull child by borrowing from or merging with a sibling.
+     *
+     * @param parent     the parent of the underfull child
+     * @param childIndex the index of the underfull child within the parent
+     * @param child      the underfull child
+     */
+    private void rebalanceChild(Page parent, int childIndex, Page child) {
+        Page left = (childIndex > 0) ? page(parent.children[childIndex - 1]) : null;
+        Page right = (childIndex < parent.count) ? page(parent.children[childIndex + 1]) : null;
+        parent.dirty = true;
+        child.dirty = true;
+        if (left != null && left.count > minKeys(left)) {
+            left.dirty = true;
+            System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+            if (child.leaf) {
+                child.keys[0] = left.keys[left.count - 1];
+                parent.keys[childIndex - 1] = child.keys[0];
+            } else {
+                System.arraycopy(child.children, 0, child.children, 1, child.count + 1);
+                child.keys[0] = parent.keys[childIndex - 1];
+                child.children[0] = left.children[left.count];
+                parent.keys[childIndex - 1] = left.keys[left.count - 1];
+            }
+            child.count++;
+            clearKeys(left, left.count - 1);
+        } else if (right != null && right.count > minKeys(right)) {
+            right.dirty = true;
+            if (child.leaf) {
+                child.keys[child.count] = right.keys[0];
+                parent.keys[childIndex] = right.keys[1];
+                System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            } else {
+                child.keys[child.count] = parent.keys[childIndex];
+                child.children[child.count + 1] = right.children[0];
+                parent.keys[childIndex] = right.keys[0];
+                System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+                System.arraycopy(right.children, 1, right.children, 0, right.count);
+            }
+            child.count++;
+            clearKeys(right, right.count - 1);
+        } else if (left != null) {
+            merge(parent, childIndex - 1, left, child);
+        } else {
+            merge(parent, childIndex, child, right);
+        }
+    }
+
+    /**
+     * Moves every key of a page into its left sibling, removes their separator from the parent and frees the page.
+     *
+     * @param parent    the parent of both pages
+     * @param leftIndex the index of the left page within the parent
+     * @param left      the page that receives the keys
+     * @param right     the page that is freed
+     */
+    private void merge(Page parent, int leftIndex, Page left, Page right) {
+        left.dirty = true;
+        if (left.leaf) {
+            System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+            left.count += right.count;
+            left.next = right.next;
+            if (right.next != NIL) {
+                Page next = page(right.next);
+                next.previous = left.id;
+                next.dirty = true;
+            }
+        } else {
+            left.keys[left.count] = parent.keys[leftIndex];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+            System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+        System.arraycopy(parent.keys, leftIndex + 1, parent.keys, leftIndex, parent.count - leftIndex - 1);
+        System.arraycopy(parent.children, leftIndex + 2, parent.children, leftIndex + 1, parent.count - leftIndex - 1);
+        clearKeys(parent, parent.count - 1);
+        releasePage(right);
+    }
+
+    /**
+     * Checks if the tree contains the given value.
+     *
+     * @param value the value to search for
+     * @return true if the tree contains the value, false otherwise
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public boolean contains(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        ensureOpen();
+        if (root == NIL) {
+            return false;
+        }
+        boolean found = search(findLeaf(value), value) >= 0;
+        trimCache();
+        return found;
+    }
+
+    /**
+     * Returns a detached node holding the given value if the tree contains it.
+     *
+     * @param value the value to search for
+     * @return a new node holding the value, or null if it is not found
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public Node<T> find(T value) {
+        return contains(value) ? new Node<>(value) : null;
+    }
+
+    /**
+     * Counts the number of occurrences for the specified value in the tree.
+     *
+     * @param value the value to count
+     * @return 1 if the tree contains the value, 0 otherwise
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public int count(T value) {
+        return contains(value) ? 1 : 0;
+    }
+
+    /**
+     * Applies the specified action to each element. Since every element is stored in a leaf, every depth-first
+     * order visits the elements in ascending order, just like {@link #inOrder(Consumer)}.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of elements in the tree.
+     */
+    @Override
+    public void preOrder(Consumer<T> action) {
+        inOrder(action);
+    }
+
+    /**
+     * Applies the specified action to each element in ascending order by walking the linked leaf pages.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of elements in the tree.
+     */
+    @Override
+    public void inOrder(Consumer<T> action) {
+        ensureOpen();
+        if (root == NIL) {
+            return;
+        }
+        Page leaf = page(root);
+        while (!leaf.leaf) {
+            leaf = page(leaf.children[0]);
+        }
+        walkLeaves(leaf, 0, null, action);
+    }
+
+    /**
+     * Applies the specified action to each element. Since every element is stored in a leaf, every depth-first
+     * order visits the elements in ascending order, just like {@link #inOrder(Consumer)}.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of elements in the tree.
+     */
+    @Override
+    public void postOrder(Consumer<T> action) {
+        inOrder(action);
+    }
+
+    /**
+     * Applies the specified action to every element within the closed range [lo, hi] in ascending order.
+     *
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each element within the range
+     * @implNote This method has a time complexity of O(log(n) + k), where k is the number of reported elements.
+     */
+    public void rangeSearch(T lo, T hi, Consumer<T> action) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        ensureOpen();
+        if (root == NIL) {
+            return;
+        }
+        Page leaf = findLeaf(lo);
+        int index = search(leaf, lo);
+        walkLeaves(leaf, (index >= 0) ? index : -index - 1, hi, action);
+    }
+
+    /**
+     * Applies the action to the keys of the leaf chain, starting at the given position.
+     *
+     * @param leaf   the leaf to start at
+     * @param index  the index of the first key to report
+     * @param hi     the largest key to report, or null to report every following key
+     * @param action the action to apply to each key
+     */
+    private void walkLeaves(Page leaf, int index, T hi, Consumer<T> action) {
+        while (true) {
+            for (; index < leaf.count; index++) {
+                T value = key(leaf, index);
+                if (hi != null && value.compareTo(hi) > 0) {
+                    trimCache();
+                    return;
+                }
+                action.accept(value);
+            }
+            if (leaf.next == NIL) {
+                trimCache();
+                return;
+            }
+            leaf = page(leaf.next);
+            index = 0;
+            // The current leaf is the most recently used page, so trimming never evicts it
+            trimCache();
+        }
+    }
+
+    /**
+     * Returns the depth of the tree, which is the number of page levels below the root.
+     *
+     * @return the depth of the tree, or -1 if the tree is empty
+     * @implNote This method has a time complexity of O(1)
+     */
+    @Override
+    public int getDepth() {
+        return (root == NIL) ? -1 : height;
+    }
+
+    /**
+     * Prints the keys of every page to standard output, one level per line.
+     */
+    @Override
+    public void printTree() {
+        ensureOpen();
+        List<Integer> level = new ArrayList<>();
+        if (root != NIL) {
+            level.add(root);
+        }
+        while (!level.isEmpty()) {
+            StringBuilder sb = new StringBuilder();
+            List<Integer> nextLevel = new ArrayList<>();
+            for (int id : level) {
+                Page page = page(id);
+                sb.append('[');
+                for (int i = 0; i < page.count; i++) {
+                    if (i > 0) sb.append(' ');
+                    sb.append(page.keys[i]);
+                }
+                sb.append("] ");
+                if (!page.leaf) {
+                    for (int i = 0; i <= page.count; i++) {
+                        nextLevel.add(page.children[i]);
+                    }
+                }
+            }
+            System.out.println(sb.toString().trim());
+            level = nextLevel;
+            trimCache();
+        }
+    }
+
+    /**
+     * Returns a detached node holding the minimum element of the tree.
+     *
+     * @return a new node holding the minimum element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public Node<T> getMin() {
+        return edge(false);
+    }
+
+    /**
+     * Returns a detached node holding the maximum element of the tree.
+     *
+     * @return a new node holding the maximum element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public Node<T> getMax() {
+        return edge(true);
+    }
+
+    private Node<T> edge(boolean last) {
+        ensureOpen();
+        if (root == NIL) {
+            return null;
+        }
+        Page page = page(root);
+        while (!page.leaf) {
+            page = page(page.children[last ? page.count : 0]);
+        }
+        Node<T> node = new Node<>(key(page, last ? page.count - 1 : 0));
+        trimCache();
+        return node;
+    }
+
+    /**
+     * Returns a detached node holding the smallest element greater than the value of the given node.
+     *
+     * @param node the node to find the successor of
+     * @return a new node holding the successor, or null if there is none
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public Node<T> getSuccessor(Node<T> node) {
+        ensureOpen();
+        if (node == null || root == NIL) {
+            return null;
+        }
+        Page leaf = findLeaf(node.getValue());
+        int index = search(leaf, node.getValue());
+        // Skip the value itself if it is present, otherwise start at its insertion point
+        index = (index >= 0) ? index + 1 : -index - 1;
+        if (index == leaf.count) {
+            leaf = (leaf.next == NIL) ? null : page(leaf.next);
+            index = 0;
+        }
+        Node<T> successor = (leaf == null) ? null : new Node<>(key(leaf, index));
+        trimCache();
+        return successor;
+    }
+
+    /**
+     * Returns a detached node holding the greatest element less than the value of the given node.
+     *
+     * @param node the node to find the predecessor of
+     * @return a new node holding the predecessor, or null if there is none
+     * @implNote This method has a time complexity of O(log(n)) and reads O(log(n)) pages
+     */
+    @Override
+    public Node<T> getPredecessor(Node<T> node) {
+        ensureOpen();
+        if (node == null || root == NIL) {
+            return null;
+        }
+        Page leaf = findLeaf(node.getValue());
+        int index = search(leaf, node.getValue());
+        // Both the value itself and its insertion point are preceded by the element just before them
+        index = ((index >= 0) ? index : -index - 1) - 1;
+        if (index < 0) {
+            leaf = (leaf.previous == NIL) ? null : page(leaf.previous);
+            index = (leaf == null) ? 0 : leaf.count - 1;
+        }
+        Node<T> predecessor = (leaf == null) ? null : new Node<>(key(leaf, index));
+        trimCache();
+        return predecessor;
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return the number of elements in the tree
+     * @implNote This method has a time complexity of O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Makes the tree empty. The file keeps its length, and its pages are reused by later insertions.
+     */
+    public void clear() {
+        ensureOpen();
+        cache.clear();
+        root = NIL;
+        height = 0;
+        size = 0;
+        pageCount = 1;
+        freePage = NIL;
+    }
+
+    /**
+     * Writes every modified page and the header to the file and forces the mapped segments to the storage device.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        for (Page page : cache.values()) {
+            if (page.dirty) {
+                writePage(page);
+            }
+        }
+        ByteBuffer header = buffer(0);
+        header.putInt(HEADER_MAGIC, MAGIC);
+        header.putInt(HEADER_PAGE_SIZE, pageSize);
+        header.putInt(HEADER_KEY_SIZE, keySize);
+        header.putInt(HEADER_ROOT, root);
+        header.putInt(HEADER_HEIGHT, height);
+        header.putInt(HEADER_SIZE, size);
+        header.putInt(HEADER_PAGE_COUNT, pageCount);
+        header.putInt(HEADER_FREE_PAGE, freePage);
+        header.putInt(HEADER_CODEC, codec.id());
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Flushes the tree and closes the file. Later calls have no effect.
+     *
+     * @throws IOException if the file cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            cache.clear();
+            segments.clear();
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        inOrder(value -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(value);
+        });
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Descends from the root to the leaf page whose key range covers the given value.
+     *
+     * @param value the value to search for
+     * @return the leaf that holds the value if it is present in the tree
+     */
+    private Page findLeaf(T value) {
+        Page current = page(root);
+        while (!current.leaf) {
+            current = page(current.children[childIndex(current, value)]);
+        }
+        return current;
+    }
+
+    /**
+     * Returns the index of the child of an internal page whose key range covers the given value. The separator at
+     * index i is the smallest key of child i + 1, so this is the number of separators less than or equal to the value.
+     */
+    private int childIndex(Page page, T value) {
+        int index = search(page, value);
+        return (index >= 0) ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Performs a binary search for the given value among the keys of a page.
+     *
+     * @return the index of the value if it is found, otherwise (-(insertion point) - 1)
+     */
+    private int search(Page page, T value) {
+        int low = 0;
+        int high = page.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = value.compareTo(key(page, mid));
+            if (cmp > 0) {
+                low = mid + 1;
+            } else if (cmp < 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T key(Page page, int index) {
+        return (T) page.keys[index];
+    }
+
+    private int minKeys(Page page) {
+        return (page.leaf ? maxLeafKeys : maxInternalKeys) / 2;
+    }
+
+    /**
+     * Shrinks the used part of a page to the given number of keys and drops the references beyond it.
+     */
+    private void clearKeys(Page page, int count) {
+        for (int i = count; i < page.count; i++) {
+            page.keys[i] = null;
+        }
+        page.count = count;
+        page.dirty = true;
+    }
+
+    /**
+     * Encodes the value once up front, so that a value the codec rejects fails here and not when its page is
+     * written back.
+     */
+    private void checkEncodable(T value) {
+        scratch.clear();
+        codec.encode(value, scratch);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The tree has been closed.");
+        }
+    }
+
+    /**
+     * Returns the decoded page with the given number, reading it from the file if it is not cached.
+     *
+     * @param id the page number
+     * @return the decoded page
+     */
+    private Page page(int id) {
+        Page page = cache.get(id);
+        if (page == null) {
+            page = readPage(id);
+            cache.put(id, page);
+        }
+        return page;
+    }
+
+    /**
+     * Evicts the least recently used pages until the cache is within its capacity, writing modified pages back.
+     * Operations only call this once they hold no page references other than the most recently used one, so an
+     * evicted page is never modified afterwards.
+     */
+    private void trimCache() {
+        Iterator<Map.Entry<Integer, Page>> iterator = cache.entrySet().iterator();
+        while (cache.size() > cachedPages && iterator.hasNext()) {
+            Page page = iterator.next().getValue();
+            if (page.dirty) {
+                writePage(page);
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Takes a page from the free list or from the end of the file and caches it as a new empty page.
+     *
+     * @param leaf true for a leaf page, false for an internal page
+     * @return the new page
+     */
+    private Page allocatePage(boolean leaf) {
+        int id;
+        if (freePage != NIL) {
+            id = freePage;
+            freePage = buffer(id).getInt(PAGE_COUNT);
+        } else {
+            id = pageCount++;
+        }
+        Page page = new Page(id, leaf, leaf ? maxLeafKeys : maxInternalKeys);
+        page.dirty = true;
+        cache.put(id, page);
+        return page;
+    }
+
+    /**
+     * Drops a page from the cache and puts it on the free list.
+     *
+     * @param page the page to release
+     */
+    private void releasePage(Page page) {
+        cache.remove(page.id);
+        ByteBuffer buffer = buffer(page.id);
+        buffer.put(PAGE_TYPE, TYPE_FREE);
+        buffer.putInt(PAGE_COUNT, freePage);
+        freePage = page.id;
+    }
+
+    private Page readPage(int id) {
+        ByteBuffer buffer = buffer(id);
+        byte type = buffer.get(PAGE_TYPE);
+        if (type != TYPE_LEAF && type != TYPE_INTERNAL) {
+            throw new IllegalStateException("Page " + id + " of " + path + " is not a tree page.");
+        }
+        boolean leaf = type == TYPE_LEAF;
+        Page page = new Page(id, leaf, leaf ? maxLeafKeys : maxInternalKeys);
+        page.count = buffer.getInt(PAGE_COUNT);
+        int keys;
+        if (leaf) {
+            page.previous = buffer.getInt(LEAF_PREVIOUS);
+            page.next = buffer.getInt(LEAF_NEXT);
+            keys = LEAF_KEYS;
+        } else {
+            for (int i = 0; i <= page.count; i++) {
+                page.children[i] = buffer.getInt(INTERNAL_CHILDREN + i * Integer.BYTES);
+            }
+            keys = internalKeys;
+        }
+        for (int i = 0; i < page.count; i++) {
+            buffer.position(keys + i * keySize);
+            page.keys[i] = codec.decode(buffer);
+        }
+        return page;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writePage(Page page) {
+        ByteBuffer buffer = buffer(page.id);
+        buffer.put(PAGE_TYPE, page.leaf ? TYPE_LEAF : TYPE_INTERNAL);
+        buffer.putInt(PAGE_COUNT, page.count);
+        int keys;
+        if (page.leaf) {
+            buffer.putInt(LEAF_PREVIOUS, page.previous);
+            buffer.putInt(LEAF_NEXT, page.next);
+            keys = LEAF_KEYS;
+        } else {
+            for (int i = 0; i <= page.count; i++) {
+                buffer.putInt(INTERNAL_CHILDREN + i * Integer.BYTES, page.children[i]);
+            }
+            keys = internalKeys;
+        }
+        for (int i = 0; i < page.count; i++) {
+            buffer.position(keys + i * keySize);
+            codec.encode((T) page.keys[i], buffer);
+        }
+        page.dirty = false;
+    }
+
+    /**
+     * Returns a buffer covering exactly the given page, mapping its segment of the file on first access.
+     *
+     * @param id the page number
+     * @return a buffer whose position 0 is the first byte of the page
+     */
+    private ByteBuffer buffer(int id) {
+        long offset = (long) id * pageSize;
+        int segmentIndex = (int) (offset / SEGMENT_SIZE);
+        while (segments.size() <= segmentIndex) {
+            segments.add(null);
+        }
+        MappedByteBuffer segment = segments.get(segmentIndex);
+        if (segment == null) {
+            try {
+                // Mapping beyond the end of the file grows the file
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, (long) segmentIndex * SEGMENT_SIZE, SEGMENT_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments.set(segmentIndex, segment);
+        }
+        int start = (int) (offset % SEGMENT_SIZE);
+        return segment.duplicate().position(start).limit(start + pageSize).slice();
+    }
+
+    /**
+     * A decoded page. Key and child arrays have room for one entry more than a page can hold, so that an insertion
+     * can overflow a page before it is split.
+     */
+    private static final class Page {
+        final int id; // The page number within the file
+        final boolean leaf; // Whether the page is a leaf
+        final Object[] keys; // The sorted keys, only the first count entries are used
+        final int[] children; // The child page numbers of an internal page, only the first count + 1 are used
+        int count; // The number of keys in use
+        int previous = NIL; // The page number of the previous leaf
+        int next = NIL; // The page number of the next leaf
+        boolean dirty; // Whether the page differs from its copy in the file
+        Object separator; // The separator to push into the parent after this page was split off
+
+        Page(int id, boolean leaf, int maxKeys) {
+            this.id = id;
+            this.leaf = leaf;
+            keys = new Object[maxKeys + 1];
+            children = leaf ? null : new int[maxKeys + 2];
+        }
+    }
+}
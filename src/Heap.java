@@ -1,9 +1,14 @@
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.Queue;
 
 /**
  * An abstract class representing a heap data structure.
+ * <p>
+ * The heap keeps the element that comes first in its order at the root. All sifting is done here, driven by a single
+ * comparator, so {@link MinHeap} and {@link MaxHeap} only differ in the order they pass in: the natural or given order
+ * for a minimum heap, and its reverse for a maximum heap.
  *
  * @param <T> the type of elements stored in the heap
  */
@@ -34,13 +39,28 @@ public abstract class Heap<T extends Comparable<T>> {
     protected boolean useRecursiveApproach;
 
     /**
-     * Constructs a new heap with an empty array.
+     * The order of the heap, in which the root is the first element.
+     */
+    protected final Comparator<? super T> order;
+
+    /**
+     * Constructs a new heap with an empty array, ordered by the natural order of its elements.
      */
     public Heap() {
+        this(null);
+    }
+
+    /**
+     * Constructs a new heap with an empty array, ordered by the given comparator.
+     *
+     * @param order the comparator whose first element is kept at the root, or null for the natural order
+     */
+    protected Heap(Comparator<? super T> order) {
         heapArray = new ArrayList<>();
         heapArray.add(null);
         heapSize = 0;
         useRecursiveApproach = true;
+        this.order = (order != null) ? order : Comparator.naturalOrder();
     }
 
     /**
@@ -107,8 +127,9 @@ public abstract class Heap<T extends Comparable<T>> {
 
         // Insert the root (first element of the heapArray) into the tree
         if (heapSize >= 1) {
-            Node<T> root = new Node<>(heapArray.get(1));
+            Node<T> root = tree.createNode(heapArray.get(1));
             tree.root = root;
+            tree.size = heapSize;
             queue.add(root);
         }
 
@@ -119,14 +140,14 @@ public abstract class Heap<T extends Comparable<T>> {
             Node<T> parent = queue.poll();
 
             // Insert the left child
-            Node<T> leftChild = new Node<>(heapArray.get(currentIndex));
+            Node<T> leftChild = tree.createNode(heapArray.get(currentIndex));
             parent.setLeft(leftChild);
             queue.add(leftChild);
             currentIndex++;
 
             // Insert the right child
             if (currentIndex <= heapSize) {
-                Node<T> rightChild = new Node<>(heapArray.get(currentIndex));
+                Node<T> rightChild = tree.createNode(heapArray.get(currentIndex));
                 parent.setRight(rightChild);
                 queue.add(rightChild);
                 currentIndex++;
@@ -137,18 +158,243 @@ public abstract class Heap<T extends Comparable<T>> {
     }
 
     /**
-     * Abstract method that inserts an element into the heap.
+     * Restores the heap property from the given index down to the leaves of the heap, assuming that the subtrees of
+     * both children of the given index already satisfy it.
+     *
+     * @param index the index to start heapifying from
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    protected void heapifyDown(int index) {
+        if (useRecursiveApproach)
+            heapifyDownRecursive(index);
+        else
+            heapifyDownIterative(index);
+    }
+
+    /**
+     * Restores the heap property from the given index down to the leaves of the heap using a recursive approach.
+     *
+     * @param index the index to start heapifying from
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private void heapifyDownRecursive(int index) {
+        int first = firstChild(index);
+        if (first != -1 && order.compare(heapArray.get(first), heapArray.get(index)) < 0) {
+            swap(index, first);
+            heapifyDownRecursive(first);
+        }
+    }
+
+    /**
+     * Restores the heap property from the given index down to the leaves of the heap using an iterative approach.
+     *
+     * @param index the index to start heapifying from
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private void heapifyDownIterative(int index) {
+        int current = index;
+        T element = heapArray.get(current);
+
+        while (true) {
+            int first = firstChild(current);
+            if (first == -1 || order.compare(heapArray.get(first), element) >= 0) {
+                break; // The heap property is satisfied, no need to continue.
+            }
+            // Move the child up and keep the sifted element in hand instead of swapping at every level
+            heapArray.set(current, heapArray.get(first));
+            current = first;
+        }
+        heapArray.set(current, element);
+    }
+
+    /**
+     * Returns the index of the child of the given index that comes first in the order of the heap.
+     *
+     * @param index the index of the parent node
+     * @return the index of the first child, or -1 if the node has no children
+     */
+    private int firstChild(int index) {
+        int left = getLeftChildIndex(index);
+        if (left > heapSize) {
+            return -1;
+        }
+        int right = getRightChildIndex(index);
+        if (right <= heapSize && order.compare(heapArray.get(right), heapArray.get(left)) < 0) {
+            return right;
+        }
+        return left;
+    }
+
+    /**
+     * Restores the heap property from the given index up to the root of the heap, assuming that the rest of the heap
+     * already satisfies it.
+     *
+     * @param index the index to start heapifying from
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    protected void heapifyUp(int index) {
+        if (useRecursiveApproach)
+            heapifyUpRecursive(index);
+        else
+            heapifyUpIterative(index);
+    }
+
+    /**
+     * Restores the heap property from the given index up to the root of the heap using a recursive approach.
+     *
+     * @param index the index to start heapifying from
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private void heapifyUpRecursive(int index) {
+        int parentIndex = getParentIndex(index);
+        if (parentIndex >= 1 && order.compare(heapArray.get(index), heapArray.get(parentIndex)) < 0) {
+            swap(index, parentIndex);
+            heapifyUpRecursive(parentIndex);
+        }
+    }
+
+    /**
+     * Restores the heap property from the given index up to the root of the heap using an iterative approach.
+     *
+     * @param index the index to start heapifying from
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private void heapifyUpIterative(int index) {
+        int current = index;
+        T element = heapArray.get(current);
+
+        while (current > 1) {
+            int parentIndex = getParentIndex(current);
+            if (order.compare(element, heapArray.get(parentIndex)) >= 0) {
+                break; // The heap property is satisfied, no need to continue.
+            }
+            heapArray.set(current, heapArray.get(parentIndex));
+            current = parentIndex;
+        }
+        heapArray.set(current, element);
+    }
+
+    /**
+     * Inserts an element into the heap and restores the heap property if necessary.
      *
      * @param element the element to be inserted
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public void insert(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        heapArray.add(element);
+        heapSize++;
+        heapifyUp(heapSize);
+    }
+
+    /**
+     * Removes the root element, the first one in the order of the heap, and restores the heap property if necessary.
+     *
+     * @return the root element of the heap, or null if the heap is empty
+     * @implNote This method has a time complexity of O(log(n))
      */
-    public abstract void insert(T element);
+    public T remove() {
+        if (heapSize == 0) {
+            return null;
+        }
+        T first = heapArray.get(1);
+        // Drop the slot of the last element, so the next insertion appends right after the heap, and move it to the root
+        T last = heapArray.remove(heapSize);
+        heapSize--;
+        if (heapSize > 0) {
+            heapArray.set(1, last);
+            heapifyDown(1);
+        }
+        return first;
+    }
 
     /**
-     * Abstract method that removes the root element from the heap.
+     * Searches for an element in the heap and returns its index if found, or -1 otherwise.
      *
-     * @return the root element of the heap
+     * @param element the element to search for
+     * @return the index of the element if found, or -1 otherwise
+     * @implNote This method has a time complexity of O(n)
      */
-    public abstract T remove();
+    public int search(T element) {
+        for (int i = 1; i <= heapSize; i++) {
+            if (heapArray.get(i).equals(element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Deletes a given element from the heap if it exists, then restores the heap property if necessary.
+     *
+     * @param element the element to be deleted
+     * @return true if deleting done successfully, false otherwise
+     * @implNote This method has a time complexity of O(n) for finding the element and of O(log(n)) for restoring
+     * the heap property.
+     */
+    public boolean delete(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        int index = search(element);
+        if (index == -1)
+            return false;
+        T last = heapArray.remove(heapSize);
+        heapSize--;
+        if (index > heapSize) {
+            return true;
+        }
+        heapArray.set(index, last);
+        if (index != 1 && order.compare(heapArray.get(index), heapArray.get(getParentIndex(index))) < 0) {
+            heapifyUp(index);
+        } else {
+            heapifyDown(index);
+        }
+        return true;
+    }
+
+    /**
+     * Builds the heap from an ArrayList of elements, which becomes the backing array of the heap. It heapifies from
+     * the last non-leaf node up to the root.
+     *
+     * @param array the ArrayList of elements to be transformed into a heap
+     * @implNote This method has a time complexity of O(n)
+     */
+    protected void buildHeapArray(ArrayList<T> array) {
+        heapSize = array.size();
+        array.add(0, null);
+        heapArray = array;
+        for (int i = heapSize / 2; i >= 1; i--) {
+            heapifyDown(i);
+        }
+    }
+
+    /**
+     * Sorts an ArrayList of elements using the heap sort algorithm. The elements end up in the reverse order of the
+     * heap, which is ascending for a maximum heap and descending for a minimum heap. The contents of the heap itself
+     * are left unchanged.
+     *
+     * @param array the ArrayList of elements to be sorted
+     * @return the sorted ArrayList of elements
+     * @implNote This method has a time complexity of O(n log(n))
+     */
+    public ArrayList<T> heapSort(ArrayList<T> array) {
+        ArrayList<T> beforeSortingArray = heapArray;
+        int beforeSortingSize = heapSize;
+        buildHeapArray(array);
+        for (int i = heapSize; i >= 1; i--) {
+            swap(1, i);
+            heapSize--;
+            heapifyDown(1);
+        }
+        array = heapArray;
+        array.remove(0);
+        heapSize = beforeSortingSize;
+        heapArray = beforeSortingArray;
+        return array;
+    }
 
     /**
      * Sets the approach to use for certain operations in the binary tree.
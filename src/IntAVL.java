@@ -0,0 +1,445 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * AVL Tree of primitive int keys whose nodes live in parallel arrays.
+ * <p>
+ * Every node is a slot index into the {@code keys}, {@code left}, {@code right}, {@code parent} and {@code height}
+ * arrays, so a key costs 17 bytes instead of a {@link Node} object plus a boxed {@link Integer}, and comparisons
+ * never dereference a pointer. Slots of deleted keys are recycled through a free list.
+ */
+public class IntAVL {
+    /**
+     * The slot index that stands for a missing node.
+     */
+    private static final int NIL = -1;
+    /**
+     * The number of slots allocated by a new tree.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys; // The key stored in each slot
+    private int[] left; // The slot of the left child of each slot
+    private int[] right; // The slot of the right child of each slot
+    private int[] parent; // The slot of the parent of each slot
+    private byte[] height; // The height of each slot in the tree
+
+    private int root; // The slot of the root node
+    private int size; // The number of keys in the tree
+    private int nextSlot; // The first slot that has never been used
+    private int freeSlot; // The first slot of the free list, chained through the left array
+
+    /**
+     * Constructs a new tree with no keys.
+     */
+    public IntAVL() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new tree with no keys and room for the given number of keys before it has to grow.
+     *
+     * @param initialCapacity the number of keys to allocate room for
+     */
+    public IntAVL(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        keys = new int[initialCapacity];
+        left = new int[initialCapacity];
+        right = new int[initialCapacity];
+        parent = new int[initialCapacity];
+        height = new byte[initialCapacity];
+        clear();
+    }
+
+    /**
+     * Inserts a key into the tree.
+     *
+     * @param key the key to insert
+     * @return true if the key was inserted, false if it already exists in the tree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public boolean insert(int key) {
+        if (root == NIL) {
+            root = allocate(key, NIL);
+            size++;
+            return true;
+        }
+        int current = root;
+        while (true) {
+            int cmp = Integer.compare(key, keys[current]);
+            if (cmp == 0) {
+                return false;
+            }
+            int child = (cmp < 0) ? left[current] : right[current];
+            if (child == NIL) {
+                int slot = allocate(key, current);
+                if (cmp < 0) {
+                    left[current] = slot;
+                } else {
+                    right[current] = slot;
+                }
+                size++;
+                rebalanceUpward(current);
+                return true;
+            }
+            current = child;
+        }
+    }
+
+    /**
+     * Checks if the tree contains the given key.
+     *
+     * @param key the key to search for
+     * @return true if the tree contains the key, false otherwise
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public boolean contains(int key) {
+        return find(key) != NIL;
+    }
+
+    /**
+     * Deletes a key from the tree.
+     *
+     * @param key the key to delete
+     * @return true if the key was deleted, false if it was not found in the tree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public boolean delete(int key) {
+        int node = find(key);
+        if (node == NIL) {
+            return false;
+        }
+        if (left[node] != NIL && right[node] != NIL) {
+            // Move the successor's key into the node and remove the successor slot instead
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                successor = left[successor];
+            }
+            keys[node] = keys[successor];
+            node = successor;
+        }
+        int child = (left[node] != NIL) ? left[node] : right[node];
+        int nodeParent = parent[node];
+        if (child != NIL) {
+            parent[child] = nodeParent;
+        }
+        replaceChild(nodeParent, node, child);
+        release(node);
+        size--;
+        rebalanceUpward(nodeParent);
+        return true;
+    }
+
+    /**
+     * Returns the smallest key in the tree.
+     *
+     * @return the smallest key
+     * @throws NoSuchElementException if the tree is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public int getMin() {
+        if (root == NIL) {
+            throw new NoSuchElementException();
+        }
+        return keys[minSlot(root)];
+    }
+
+    /**
+     * Returns the largest key in the tree.
+     *
+     * @return the largest key
+     * @throws NoSuchElementException if the tree is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public int getMax() {
+        if (root == NIL) {
+            throw new NoSuchElementException();
+        }
+        int current = root;
+        while (right[current] != NIL) {
+            current = right[current];
+        }
+        return keys[current];
+    }
+
+    /**
+     * Applies the specified action to every key in ascending order.
+     *
+     * @param action the action to apply to each key
+     * @implNote This method has a time complexity of O(n) and allocates nothing.
+     */
+    public void forEach(IntConsumer action) {
+        for (int slot = (root == NIL) ? NIL : minSlot(root); slot != NIL; slot = successor(slot)) {
+            action.accept(keys[slot]);
+        }
+    }
+
+    /**
+     * Applies the specified action to every key within the closed range [lo, hi] in ascending order.
+     *
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each key within the range
+     * @implNote This method has a time complexity of O(log(n) + k), where k is the number of reported keys,
+     * and allocates nothing.
+     */
+    public void rangeSearch(int lo, int hi, IntConsumer action) {
+        for (int slot = ceilingSlot(lo); slot != NIL && keys[slot] <= hi; slot = successor(slot)) {
+            action.accept(keys[slot]);
+        }
+    }
+
+    /**
+     * Returns the number of keys in the tree.
+     *
+     * @return the number of keys in the tree
+     * @implNote This method has a time complexity of O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the depth of the tree.
+     *
+     * @return the depth of the tree, or -1 if the tree is empty
+     * @implNote This method has a time complexity of O(1)
+     */
+    public int getDepth() {
+        return heightOf(root);
+    }
+
+    /**
+     * Makes the tree empty. The allocated arrays are kept for reuse.
+     */
+    public void clear() {
+        root = NIL;
+        size = 0;
+        nextSlot = 0;
+        freeSlot = NIL;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(key -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(key);
+        });
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Returns the slot holding the given key.
+     *
+     * @param key the key to search for
+     * @return the slot holding the key, or NIL if it is not found
+     */
+    private int find(int key) {
+        int current = root;
+        while (current != NIL) {
+            int cmp = Integer.compare(key, keys[current]);
+            if (cmp < 0) {
+                current = left[current];
+            } else if (cmp > 0) {
+                current = right[current];
+            } else {
+                return current;
+            }
+        }
+        return NIL;
+    }
+
+    /**
+     * Returns the slot holding the smallest key that is greater than or equal to the given key.
+     *
+     * @param key the key to compare against
+     * @return the slot holding the ceiling of the key, or NIL if every key is smaller
+     */
+    private int ceilingSlot(int key) {
+        int ceiling = NIL;
+        int current = root;
+        while (current != NIL) {
+            int cmp = Integer.compare(key, keys[current]);
+            if (cmp < 0) {
+                ceiling = current;
+                current = left[current];
+            } else if (cmp > 0) {
+                current = right[current];
+            } else {
+                return current;
+            }
+        }
+        return ceiling;
+    }
+
+    private int minSlot(int slot) {
+        while (left[slot] != NIL) {
+            slot = left[slot];
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot holding the next greater key, following the parent links where needed.
+     *
+     * @param slot the slot to start from
+     * @return the slot of the successor, or NIL if there is none
+     */
+    private int successor(int slot) {
+        if (right[slot] != NIL) {
+            return minSlot(right[slot]);
+        }
+        int current = slot;
+        int currentParent = parent[slot];
+        while (currentParent != NIL && current == right[currentParent]) {
+            current = currentParent;
+            currentParent = parent[currentParent];
+        }
+        return currentParent;
+    }
+
+    /**
+     * Repairs heights and performs rotations from the given slot up to the root.
+     *
+     * @param slot the lowest slot whose children changed, possibly NIL
+     */
+    private void rebalanceUpward(int slot) {
+        int current = slot;
+        while (current != NIL) {
+            current = rebalance(current);
+            current = parent[current];
+        }
+    }
+
+    /**
+     * Updates the height of a slot and rotates it if it is unbalanced.
+     *
+     * @param slot the slot to rebalance
+     * @return the slot that roots the subtree afterwards
+     */
+    private int rebalance(int slot) {
+        updateHeight(slot);
+        int balanceFactor = balanceFactor(slot);
+        // if the balance factor is greater than 1, then the tree is left-heavy
+        if (balanceFactor > 1) {
+            // if the left subtree is right-heavy, double rotation is required
+            if (balanceFactor(left[slot]) < 0) {
+                leftRotate(left[slot]);
+            }
+            return rightRotate(slot);
+        }
+        // if the balance factor is less than -1, then the tree is right-heavy
+        else if (balanceFactor < -1) {
+            // if the right subtree is left-heavy, double rotation is required
+            if (balanceFactor(right[slot]) > 0) {
+                rightRotate(right[slot]);
+            }
+            return leftRotate(slot);
+        }
+        return slot;
+    }
+
+    private int leftRotate(int slot) {
+        int newRoot = right[slot];
+        int moved = left[newRoot];
+        right[slot] = moved;
+        if (moved != NIL) {
+            parent[moved] = slot;
+        }
+        int slotParent = parent[slot];
+        left[newRoot] = slot;
+        parent[slot] = newRoot;
+        parent[newRoot] = slotParent;
+        replaceChild(slotParent, slot, newRoot);
+        updateHeight(slot);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    private int rightRotate(int slot) {
+        int newRoot = left[slot];
+        int moved = right[newRoot];
+        left[slot] = moved;
+        if (moved != NIL) {
+            parent[moved] = slot;
+        }
+        int slotParent = parent[slot];
+        right[newRoot] = slot;
+        parent[slot] = newRoot;
+        parent[newRoot] = slotParent;
+        replaceChild(slotParent, slot, newRoot);
+        updateHeight(slot);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Points the link that used to reference one child at a new child, updating the root if there is no parent.
+     */
+    private void replaceChild(int slotParent, int oldChild, int newChild) {
+        if (slotParent == NIL) {
+            root = newChild;
+        } else if (left[slotParent] == oldChild) {
+            left[slotParent] = newChild;
+        } else {
+            right[slotParent] = newChild;
+        }
+    }
+
+    private int heightOf(int slot) {
+        return (slot == NIL) ? -1 : height[slot];
+    }
+
+    private void updateHeight(int slot) {
+        height[slot] = (byte) (Math.max(heightOf(left[slot]), heightOf(right[slot])) + 1);
+    }
+
+    private int balanceFactor(int slot) {
+        return heightOf(left[slot]) - heightOf(right[slot]);
+    }
+
+    /**
+     * Takes a slot from the free list or from the unused tail of the arrays, growing them if needed.
+     *
+     * @param key        the key to store in the slot
+     * @param slotParent the parent of the new leaf
+     * @return the initialized slot
+     */
+    private int allocate(int key, int slotParent) {
+        int slot;
+        if (freeSlot != NIL) {
+            slot = freeSlot;
+            freeSlot = left[slot];
+        } else {
+            if (nextSlot == keys.length) {
+                int capacity = keys.length + (keys.length >> 1) + 1;
+                keys = Arrays.copyOf(keys, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                height = Arrays.copyOf(height, capacity);
+            }
+            slot = nextSlot++;
+        }
+        keys[slot] = key;
+        left[slot] = NIL;
+        right[slot] = NIL;
+        parent[slot] = slotParent;
+        height[slot] = 0;
+        return slot;
+    }
+
+    /**
+     * Returns a slot to the free list.
+     *
+     * @param slot the slot to release
+     */
+    private void release(int slot) {
+        left[slot] = freeSlot;
+        freeSlot = slot;
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.Objects;
+
+/**
+ * A closed interval [start, end] of comparable endpoints, such as a time window or a range of addresses.
+ * <p>
+ * Intervals are ordered by their start and then by their end, which is the order an {@link IntervalTree} keeps them
+ * in.
+ *
+ * @param <T> the data type of the endpoints
+ */
+public final class Interval<T extends Comparable<T>> implements Comparable<Interval<T>> {
+    private final T start; // The lower endpoint (inclusive)
+    private final T end; // The upper endpoint (inclusive)
+
+    /**
+     * Constructs a new closed interval.
+     *
+     * @param start the lower endpoint (inclusive)
+     * @param end   the upper endpoint (inclusive)
+     * @throws IllegalArgumentException if an endpoint is null or the start is greater than the end
+     */
+    public Interval(T start, T end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (start.compareTo(end) > 0) {
+            throw new IllegalArgumentException("Start must not be greater than end.");
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the lower endpoint of the interval.
+     *
+     * @return the lower endpoint (inclusive)
+     */
+    public T getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the upper endpoint of the interval.
+     *
+     * @return the upper endpoint (inclusive)
+     */
+    public T getEnd() {
+        return end;
+    }
+
+    /**
+     * Checks whether the interval contains the given point.
+     *
+     * @param point the point to check
+     * @return true if start &lt;= point &lt;= end, false otherwise
+     */
+    public boolean contains(T point) {
+        return start.compareTo(point) <= 0 && end.compareTo(point) >= 0;
+    }
+
+    /**
+     * Checks whether the interval shares at least one point with the closed range [lo, hi].
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return true if the interval and the range overlap, false otherwise
+     */
+    public boolean overlaps(T lo, T hi) {
+        return start.compareTo(hi) <= 0 && end.compareTo(lo) >= 0;
+    }
+
+    /**
+     * Compares the interval to another one by their starts, and by their ends if the starts are equal.
+     *
+     * @param other the interval to compare to
+     * @return a negative integer, zero, or a positive integer as this interval is less than, equal to, or greater
+     * than the other one
+     */
+    @Override
+    public int compareTo(Interval<T> other) {
+        int cmp = start.compareTo(other.start);
+        return (cmp != 0) ? cmp : end.compareTo(other.end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Interval)) {
+            return false;
+        }
+        Interval<?> other = (Interval<?>) o;
+        return start.equals(other.start) && end.equals(other.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + end + "]";
+    }
+}
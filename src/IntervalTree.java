@@ -0,0 +1,218 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Stack;
+import java.util.function.Consumer;
+
+/**
+ * Interval tree implementation that inherits from the AggregateAVL class.
+ * <p>
+ * The intervals are kept in an AVL tree ordered by their starts, and every node stores the largest end of all
+ * intervals in its subtree as its aggregate. Since the aggregate is maintained by the AVL rotations, splits and joins,
+ * insertions and deletions stay O(log(n)). An overlap query walks the intervals in order of their starts, skips every
+ * subtree whose largest end lies before the query, and stops at the first interval that starts after it.
+ * <p>
+ * For static data sets, {@link #build(Collection)} sorts the intervals once and links them into a perfectly balanced
+ * tree without any rotations.
+ *
+ * @param <T> the data type of the interval endpoints
+ */
+public class IntervalTree<T extends Comparable<T>> extends AggregateAVL<Interval<T>, T> {
+    /**
+     * Constructs a new interval tree with no intervals.
+     */
+    public IntervalTree() {
+        super(null, Interval::getEnd, IntervalTree::maxEnd);
+    }
+
+    /**
+     * Builds a perfectly balanced interval tree holding the given intervals. Duplicate intervals are kept only once.
+     *
+     * @param intervals the intervals to store in the tree
+     * @param <T>       the data type of the interval endpoints
+     * @return a new interval tree holding the distinct intervals
+     * @throws IllegalArgumentException if the collection or one of its intervals is null
+     * @implNote This method has a time complexity of O(n log(n)) for the sort and O(n) for the construction
+     */
+    public static <T extends Comparable<T>> IntervalTree<T> build(Collection<Interval<T>> intervals) {
+        IntervalTree<T> tree = new IntervalTree<>();
+        // A batch into an empty tree is always large enough to be linked into a balanced tree in one pass
+        tree.insertAll(intervals);
+        return tree;
+    }
+
+    /**
+     * Inserts the closed interval [start, end] into the tree.
+     *
+     * @param start the lower endpoint of the interval (inclusive)
+     * @param end   the upper endpoint of the interval (inclusive)
+     * @return true if the interval was successfully inserted, false if it already exists in the tree
+     * @throws IllegalArgumentException if an endpoint is null or the start is greater than the end
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    public boolean insert(T start, T end) {
+        return insert(new Interval<>(start, end));
+    }
+
+    /**
+     * Returns the largest end of all intervals in the tree.
+     *
+     * @return the largest end, or null if the tree is empty
+     * @implNote This method has a time complexity of O(1)
+     */
+    public T getMaxEnd() {
+        return aggregate();
+    }
+
+    /**
+     * Applies the given action to every interval that contains the given point, in ascending order.
+     *
+     * @param point  the point to stab the intervals with
+     * @param action the action to apply to each interval containing the point
+     * @implNote This method has a time complexity of O(log(n) + k log(n / k)), where k is the number of reported
+     * intervals.
+     */
+    public void findContaining(T point, Consumer<Interval<T>> action) {
+        findOverlapping(point, point, action);
+    }
+
+    /**
+     * Returns every interval that contains the given point, in ascending order.
+     *
+     * @param point the point to stab the intervals with
+     * @return the intervals containing the point
+     * @implNote This method has a time complexity of O(log(n) + k log(n / k)), where k is the number of reported
+     * intervals.
+     */
+    public List<Interval<T>> findContaining(T point) {
+        List<Interval<T>> result = new ArrayList<>();
+        findOverlapping(point, point, result::add);
+        return result;
+    }
+
+    /**
+     * Applies the given action to every interval that shares at least one point with the closed range [lo, hi], in
+     * ascending order. Subtrees whose largest end lies before lo are never visited, and the walk stops at the first
+     * interval that starts after hi.
+     *
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each overlapping interval
+     * @implNote This method has a time complexity of O(log(n) + k log(n / k)), where k is the number of reported
+     * intervals, which is O(log(n) + k) when the reported intervals are close together in the order of their starts.
+     */
+    public void findOverlapping(T lo, T hi, Consumer<Interval<T>> action) {
+        if (lo == null || hi == null || action == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (lo.compareTo(hi) > 0) {
+            return;
+        }
+        if (useRecursiveApproach) findOverlappingRecursive(root, lo, hi, action);
+        else findOverlappingIterative(root, lo, hi, action);
+    }
+
+    /**
+     * Returns every interval that shares at least one point with the closed range [lo, hi], in ascending order.
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return the overlapping intervals
+     * @implNote This method has a time complexity of O(log(n) + k log(n / k)), where k is the number of reported
+     * intervals.
+     */
+    public List<Interval<T>> findOverlapping(T lo, T hi) {
+        List<Interval<T>> result = new ArrayList<>();
+        findOverlapping(lo, hi, result::add);
+        return result;
+    }
+
+    /**
+     * Recursive helper method for the overlap query.
+     *
+     * @param node   the root of the subtree to search in
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each overlapping interval
+     * @return false if an interval starting after hi was reached and the walk has to stop, true otherwise
+     */
+    private boolean findOverlappingRecursive(Node<Interval<T>> node, T lo, T hi, Consumer<Interval<T>> action) {
+        // Every interval of a subtree whose largest end lies before lo ends before the range
+        if (node == null || aggregateOf(node).compareTo(lo) < 0) {
+            return true;
+        }
+        if (!findOverlappingRecursive(node.getLeft(), lo, hi, action)) {
+            return false;
+        }
+        Interval<T> interval = node.getValue();
+        if (interval.getStart().compareTo(hi) > 0) {
+            // This interval and every interval after it start after the range
+            return false;
+        }
+        if (interval.getEnd().compareTo(lo) >= 0) {
+            action.accept(interval);
+        }
+        return findOverlappingRecursive(node.getRight(), lo, hi, action);
+    }
+
+    /**
+     * Iterative helper method for the overlap query.
+     *
+     * @param node   the root of the subtree to search in
+     * @param lo     the lower bound of the range (inclusive)
+     * @param hi     the upper bound of the range (inclusive)
+     * @param action the action to apply to each overlapping interval
+     */
+    private void findOverlappingIterative(Node<Interval<T>> node, T lo, T hi, Consumer<Interval<T>> action) {
+        Stack<Node<Interval<T>>> stack = new Stack<>();
+        Node<Interval<T>> current = node;
+        while (current != null || !stack.isEmpty()) {
+            // Walk down the left spine, skipping every subtree whose largest end lies before the range
+            while (current != null && aggregateOf(current).compareTo(lo) >= 0) {
+                stack.push(current);
+                current = current.getLeft();
+            }
+            if (stack.isEmpty()) {
+                return;
+            }
+            current = stack.pop();
+            Interval<T> interval = current.getValue();
+            if (interval.getStart().compareTo(hi) > 0) {
+                // This interval and every interval after it start after the range
+                return;
+            }
+            if (interval.getEnd().compareTo(lo) >= 0) {
+                action.accept(interval);
+            }
+            current = current.getRight();
+        }
+    }
+
+    /**
+     * Creates an empty interval tree, which can receive nodes cut off from this tree.
+     *
+     * @return a new empty interval tree
+     */
+    @Override
+    protected AVL<Interval<T>> createEmptyTree() {
+        return new IntervalTree<>();
+    }
+
+    /**
+     * Combines the largest ends of two runs of intervals, where null stands for an empty run.
+     *
+     * @param a   the largest end of the first run, or null
+     * @param b   the largest end of the second run, or null
+     * @param <T> the data type of the interval endpoints
+     * @return the larger of both ends
+     */
+    private static <T extends Comparable<T>> T maxEnd(T a, T b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return (a.compareTo(b) >= 0) ? a : b;
+    }
+}
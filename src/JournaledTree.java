@@ -0,0 +1,625 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Stack;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Durable wrapper around a binary tree that records every insertion and deletion in a write-ahead log.
+ * <p>
+ * A successful mutation is applied to the wrapped tree and appended to the log file {@value #LOG_FILE} in the
+ * journal directory. Once {@code syncBatch} records are pending they are written and forced to the storage device
+ * with a single fsync. With a batch size of 1 every mutation is durable when it returns, and mutations of concurrent
+ * threads that arrive while an fsync is running are committed together by the next one (group commit). Larger batch
+ * sizes trade a bounded window of lost mutations on a crash for fewer fsyncs; {@link #sync()} forces the pending
+ * records at any time.
+ * <p>
+ * {@link #checkpoint()} writes every element to the file {@value #CHECKPOINT_FILE}, together with its number of
+ * occurrences for a tree in multiset mode, and starts a new log.
+ * {@link #open(BinaryTree, Path, Codec, int)} recovers by loading the last checkpoint and replaying the log written
+ * after it. A record torn by a crash is detected by its checksum and cut off.
+ * <p>
+ * All methods are thread-safe, and lookups are delegated to the wrapped tree. The wrapped tree must not be
+ * modified directly while it is journaled.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class JournaledTree<T extends Comparable<T>> implements Tree<T>, Closeable {
+    /**
+     * The name of the log file within the journal directory.
+     */
+    public static final String LOG_FILE = "tree.log";
+    /**
+     * The name of the checkpoint file within the journal directory.
+     */
+    public static final String CHECKPOINT_FILE = "tree.checkpoint";
+
+    private static final int LOG_MAGIC = 0x544C4F47; // "TLOG"
+    private static final int CHECKPOINT_MAGIC = 0x54434B50; // "TCKP"
+    private static final int COUNTED_CHECKPOINT_MAGIC = 0x54434B43; // "TCKC", a checkpoint of a multiset tree
+    private static final int LOG_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final byte OP_INSERT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BinaryTree<T> tree; // The journaled tree
+    private final Path directory; // The directory holding the log and the checkpoint
+    private final Codec<T> codec; // The codec writing the values
+    private final int syncBatch; // The number of pending records that triggers an fsync
+    private final int recordSize; // The maximum size of a log record
+    private final CRC32 crc; // The checksum of the record being appended
+    private final FileChannel log; // The log file, positioned at its end
+
+    private ByteBuffer pending; // The records appended since the last fsync started
+    private ByteBuffer spare; // The buffer that becomes pending when an fsync starts, null while it is being written
+    private long generation; // The number of the current checkpoint, stored in the log header
+    private long appendedRecords; // The number of records appended to the log
+    private long durableRecords; // The number of records known to be on the storage device
+    private boolean syncing; // Whether a thread is currently writing and forcing records
+    private IOException failure; // The error that made the journal unusable, if any
+    private boolean closed; // Whether the journal has been closed
+
+    private JournaledTree(BinaryTree<T> tree, Path directory, Codec<T> codec, int syncBatch, FileChannel log, long generation) {
+        this.tree = tree;
+        this.directory = directory;
+        this.codec = codec;
+        this.syncBatch = syncBatch;
+        this.log = log;
+        this.generation = generation;
+        recordSize = 1 + codec.maxEncodedSize() + Integer.BYTES;
+        crc = new CRC32();
+        pending = ByteBuffer.allocate(Math.max(BUFFER_SIZE, recordSize));
+        spare = ByteBuffer.allocate(pending.capacity());
+    }
+
+    /**
+     * Opens the journal in the given directory with a batch size of 1, so that every mutation is durable when it
+     * returns. See {@link #open(BinaryTree, Path, Codec, int)}.
+     *
+     * @param tree      the tree to journal, which is cleared and filled with the recovered elements
+     * @param directory the directory holding the log and the checkpoint, created if it does not exist
+     * @param codec     the codec writing the values
+     * @param <T>       the data type of the elements in the tree
+     * @return the journaled tree
+     * @throws IOException if the journal cannot be read or created
+     */
+    public static <T extends Comparable<T>> JournaledTree<T> open(BinaryTree<T> tree, Path directory, Codec<T> codec) throws IOException {
+        return open(tree, directory, codec, 1);
+    }
+
+    /**
+     * Opens the journal in the given directory and recovers the tree from it. The tree is cleared, filled with the
+     * elements of the last checkpoint, and then every complete record of the log written after that checkpoint is
+     * replayed. An incomplete record at the end of the log is cut off.
+     *
+     * @param tree      the tree to journal, which is cleared and filled with the recovered elements
+     * @param directory the directory holding the log and the checkpoint, created if it does not exist
+     * @param codec     the codec writing the values, which must be the one the journal was written with
+     * @param syncBatch the number of pending records that triggers an fsync, 1 to make every mutation durable
+     * @param <T>       the data type of the elements in the tree
+     * @return the journaled tree
+     * @throws IOException if the journal cannot be read or created
+     * @implNote This method has a time complexity of O((c + r) log(n)), where c is the number of elements in the
+     * checkpoint and r the number of replayed records.
+     */
+    public static <T extends Comparable<T>> JournaledTree<T> open(BinaryTree<T> tree, Path directory, Codec<T> codec, int syncBatch) throws IOException {
+        if (tree == null || directory == null || codec == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (syncBatch < 1) {
+            throw new IllegalArgumentException("Sync batch must be positive.");
+        }
+        Files.createDirectories(directory);
+        tree.clear();
+        long generation = readCheckpoint(tree, directory.resolve(CHECKPOINT_FILE), codec);
+
+        FileChannel log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long end = replayLog(tree, log, codec, generation);
+            if (end < 0) {
+                // The log is missing, empty or belongs to an older checkpoint, so start a new one
+                log.truncate(0);
+                log.write(logHeader(generation), 0);
+                end = LOG_HEADER_SIZE;
+            } else {
+                // Drop a torn record at the end, if any
+                log.truncate(end);
+            }
+            log.force(true);
+            log.position(end);
+            return new JournaledTree<>(tree, directory, codec, syncBatch, log, generation);
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the elements of the checkpoint into the tree.
+     *
+     * @return the generation of the checkpoint, or 0 if there is none
+     */
+    private static <T extends Comparable<T>> long readCheckpoint(BinaryTree<T> tree, Path path, Codec<T> codec) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, codec.maxEncodedSize()));
+            buffer.flip();
+            fill(buffer, channel, Integer.BYTES + Long.BYTES + Integer.BYTES);
+            try {
+                int magic = buffer.getInt();
+                if (magic != CHECKPOINT_MAGIC && magic != COUNTED_CHECKPOINT_MAGIC) {
+                    throw new IOException("Not a tree checkpoint: " + path);
+                }
+                boolean counted = magic == COUNTED_CHECKPOINT_MAGIC;
+                if (counted && !isMultiset(tree)) {
+                    throw new IOException("Checkpoint of a multiset tree cannot be loaded into a set: " + path);
+                }
+                int entryBytes = codec.maxEncodedSize() + (counted ? Integer.BYTES : 0);
+                long generation = buffer.getLong();
+                int count = buffer.getInt();
+                for (int i = 0; i < count; i++) {
+                    fill(buffer, channel, entryBytes);
+                    T value = codec.decode(buffer);
+                    int occurrences = counted ? buffer.getInt() : 1;
+                    if (occurrences < 1) {
+                        throw new IOException("Corrupt tree checkpoint: " + path);
+                    }
+                    tree.insert(value);
+                    if (occurrences > 1) {
+                        // Restore the count directly instead of inserting every occurrence on its own
+                        ((Node.Counted<T>) tree.find(value)).setCount(occurrences);
+                    }
+                }
+                return generation;
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated tree checkpoint: " + path);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the tree counts the occurrences of equal elements, whose counts the checkpoint has to record.
+     */
+    private static boolean isMultiset(BinaryTree<?> tree) {
+        return tree instanceof BST && ((BST<?>) tree).isMultiset();
+    }
+
+    /**
+     * Applies every complete record of the log to the tree.
+     *
+     * @return the position after the last complete record, or -1 if the log does not belong to the checkpoint
+     */
+    private static <T extends Comparable<T>> long replayLog(BinaryTree<T> tree, FileChannel log, Codec<T> codec, long generation) throws IOException {
+        int recordSize = 1 + codec.maxEncodedSize() + Integer.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, recordSize));
+        buffer.flip();
+        log.position(0);
+        fill(buffer, log, LOG_HEADER_SIZE);
+        if (buffer.remaining() < LOG_HEADER_SIZE || buffer.getInt() != LOG_MAGIC || buffer.getLong() != generation) {
+            return -1;
+        }
+        long position = LOG_HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (true) {
+            fill(buffer, log, recordSize);
+            if (!buffer.hasRemaining()) {
+                return position;
+            }
+            int start = buffer.position();
+            T value;
+            try {
+                byte op = buffer.get();
+                value = codec.decode(buffer);
+                int length = buffer.position() - start;
+                crc.reset();
+                crc.update(buffer.duplicate().position(start).limit(start + length));
+                if ((int) crc.getValue() != buffer.getInt() || (op != OP_INSERT && op != OP_DELETE)) {
+                    return position;
+                }
+                if (op == OP_INSERT) {
+                    tree.insert(value);
+                } else {
+                    tree.delete(value);
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                // A record cut short by a crash, or garbage after the last complete record
+                return position;
+            }
+            position += buffer.position() - start;
+        }
+    }
+
+    private static ByteBuffer logHeader(long generation) {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        header.putInt(LOG_MAGIC);
+        header.putLong(generation);
+        return header.flip();
+    }
+
+    /**
+     * Reads from the channel until the buffer holds at least the given number of unread bytes or the channel ends.
+     */
+    private static void fill(ByteBuffer buffer, FileChannel channel, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Inserts an element into the tree and logs the insertion.
+     *
+     * @param value the value to insert into the tree
+     * @return true if the value was successfully inserted, false if it already exists in the tree
+     * @throws UncheckedIOException if the log cannot be written
+     * @implNote This method has the time complexity of the wrapped tree, plus one fsync per batch of records.
+     */
+    @Override
+    public boolean insert(T value) {
+        return mutate(OP_INSERT, value);
+    }
+
+    /**
+     * Deletes an element from the tree and logs the deletion.
+     *
+     * @param value the value to delete
+     * @return true if the value was successfully deleted, false if it was not found in the tree
+     * @throws UncheckedIOException if the log cannot be written
+     * @implNote This method has the time complexity of the wrapped tree, plus one fsync per batch of records.
+     */
+    @Override
+    public boolean delete(T value) {
+        return mutate(OP_DELETE, value);
+    }
+
+    /**
+     * Applies a mutation to the tree, appends its record, and waits for the record to become durable if the batch
+     * is full. Mutations that do not change the tree are not logged.
+     */
+    private boolean mutate(byte op, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        long record;
+        synchronized (this) {
+            ensureUsable();
+            if (pending.remaining() < recordSize) {
+                // An fsync is still writing the spare buffer, so let the pending one grow
+                ByteBuffer grown = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                grown.put(pending);
+                pending = grown;
+            }
+            // Encode first, so that a value the codec rejects leaves both the tree and the log untouched
+            int start = pending.position();
+            boolean changed;
+            try {
+                pending.put(op);
+                codec.encode(value, pending);
+                changed = (op == OP_INSERT) ? tree.insert(value) : tree.delete(value);
+            } catch (RuntimeException e) {
+                pending.position(start);
+                throw e;
+            }
+            if (!changed) {
+                pending.position(start);
+                return false;
+            }
+            crc.reset();
+            crc.update(pending.duplicate().position(start).limit(pending.position()));
+            pending.putInt((int) crc.getValue());
+            record = ++appendedRecords;
+            if (record - durableRecords < syncBatch) {
+                return true;
+            }
+        }
+        awaitDurable(record);
+        return true;
+    }
+
+    /**
+     * Forces every record appended so far to the storage device.
+     *
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    public void sync() {
+        long record;
+        synchronized (this) {
+            ensureUsable();
+            record = appendedRecords;
+        }
+        awaitDurable(record);
+    }
+
+    /**
+     * Blocks until the given record is durable. If no other thread is writing, this thread becomes the leader and
+     * writes and forces every pending record with a single fsync; otherwise it waits for the running fsync and, if
+     * that one did not cover its record, for the next one.
+     *
+     * @param record the number of the record that has to become durable
+     */
+    private void awaitDurable(long record) {
+        ByteBuffer batch;
+        long target;
+        synchronized (this) {
+            while (durableRecords < record && syncing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the log to be written.", e);
+                }
+            }
+            if (durableRecords >= record) {
+                return;
+            }
+            ensureUsable();
+            syncing = true;
+            batch = pending;
+            pending = spare;
+            spare = null;
+            target = appendedRecords;
+        }
+        IOException error = null;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                log.write(batch);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            error = e;
+        }
+        synchronized (this) {
+            batch.clear();
+            spare = batch;
+            syncing = false;
+            if (error == null) {
+                durableRecords = Math.max(durableRecords, target);
+            } else {
+                failure = error;
+            }
+            notifyAll();
+        }
+        if (error != null) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    /**
+     * Writes every element to a new checkpoint and starts an empty log. The checkpoint is written to a temporary
+     * file and moved into place atomically, so a crash leaves either the old or the new checkpoint behind.
+     *
+     * @throws IOException if the checkpoint or the log cannot be written
+     * @implNote This method has a time complexity of O(n), where n is the number of elements in the tree.
+     */
+    public synchronized void checkpoint() throws IOException {
+        ensureUsable();
+        // Wait for a running fsync, whose buffer must not be reused while the log is being reset
+        while (syncing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the log to be written.", e);
+            }
+        }
+        long nextGeneration = generation + 1;
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            boolean counted = isMultiset(tree);
+            int entryBytes = codec.maxEncodedSize() + (counted ? Integer.BYTES : 0);
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, entryBytes));
+            buffer.putInt(counted ? COUNTED_CHECKPOINT_MAGIC : CHECKPOINT_MAGIC);
+            buffer.putLong(nextGeneration);
+            buffer.putInt(tree.size());
+            // Pre-order keeps the shape of an unbalanced tree when the checkpoint is loaded by inserting
+            Stack<Node<T>> stack = new Stack<>();
+            if (tree.root != null) {
+                stack.push(tree.root);
+            }
+            while (!stack.isEmpty()) {
+                Node<T> node = stack.pop();
+                if (buffer.remaining() < entryBytes) {
+                    drain(buffer, channel);
+                }
+                codec.encode(node.getValue(), buffer);
+                if (counted) {
+                    buffer.putInt(node.getCount());
+                }
+                if (node.getRight() != null) {
+                    stack.push(node.getRight());
+                }
+                if (node.getLeft() != null) {
+                    stack.push(node.getLeft());
+                }
+            }
+            drain(buffer, channel);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+
+        // The records are covered by the checkpoint now, so the log starts over with the new generation
+        generation = nextGeneration;
+        pending.clear();
+        log.truncate(0);
+        log.write(logHeader(generation), 0);
+        log.force(true);
+        log.position(LOG_HEADER_SIZE);
+        durableRecords = appendedRecords;
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Forces the pending records and closes the log. Later calls have no effect.
+     *
+     * @throws IOException if the log cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        boolean failed;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            failed = failure != null;
+        }
+        try {
+            if (!failed) {
+                sync();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            synchronized (this) {
+                closed = true;
+                log.close();
+            }
+        }
+    }
+
+    private void ensureUsable() {
+        if (closed) {
+            throw new IllegalStateException("The journal has been closed.");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("The log could not be written.", failure);
+        }
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return the number of elements in the tree
+     */
+    public synchronized int size() {
+        return tree.size();
+    }
+
+    /**
+     * Checks if the tree contains the given value.
+     */
+    @Override
+    public synchronized boolean contains(T value) {
+        return tree.contains(value);
+    }
+
+    /**
+     * Finds the node with the specified value in the wrapped tree.
+     */
+    @Override
+    public synchronized Node<T> find(T value) {
+        return tree.find(value);
+    }
+
+    /**
+     * Counts the number of occurrences for the specified value in the tree.
+     */
+    @Override
+    public synchronized int count(T value) {
+        return tree.count(value);
+    }
+
+    /**
+     * Performs a pre-order traversal of the wrapped tree.
+     */
+    @Override
+    public synchronized void preOrder(Consumer<T> action) {
+        tree.preOrder(action);
+    }
+
+    /**
+     * Performs an in-order traversal of the wrapped tree.
+     */
+    @Override
+    public synchronized void inOrder(Consumer<T> action) {
+        tree.inOrder(action);
+    }
+
+    /**
+     * Performs a post-order traversal of the wrapped tree.
+     */
+    @Override
+    public synchronized void postOrder(Consumer<T> action) {
+        tree.postOrder(action);
+    }
+
+    /**
+     * Returns the depth of the wrapped tree.
+     */
+    @Override
+    public synchronized int getDepth() {
+        return tree.getDepth();
+    }
+
+    /**
+     * Prints the wrapped tree to standard output.
+     */
+    @Override
+    public synchronized void printTree() {
+        tree.printTree();
+    }
+
+    /**
+     * Returns the node with the minimum value in the wrapped tree.
+     */
+    @Override
+    public synchronized Node<T> getMin() {
+        return tree.getMin();
+    }
+
+    /**
+     * Returns the node with the maximum value in the wrapped tree.
+     */
+    @Override
+    public synchronized Node<T> getMax() {
+        return tree.getMax();
+    }
+
+    /**
+     * Finds the successor of the specified node in the wrapped tree.
+     */
+    @Override
+    public synchronized Node<T> getSuccessor(Node<T> node) {
+        return tree.getSuccessor(node);
+    }
+
+    /**
+     * Finds the predecessor of the specified node in the wrapped tree.
+     */
+    @Override
+    public synchronized Node<T> getPredecessor(Node<T> node) {
+        return tree.getPredecessor(node);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return tree.toString();
+    }
+}
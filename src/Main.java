@@ -1,3 +1,14 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 
 /**
@@ -91,6 +102,379 @@ public class Main {
 
         System.out.println("*************************************************");
 
+        Consumer<RBTree<Integer>> rbTest = integerRBTree -> {
+            for (int i = 1; i <= 13; i++) {
+                integerRBTree.insert(i);
+            }
+            System.out.println(integerRBTree);
+        };
+
+        System.out.println("#################################################");
+
+        // Red-Black Tree Recursive Testing
+        System.out.println("Recursive Red-Black Tree");
+        RBTree<Integer> rbTree = new RBTree<>();
+        rbTree.setUseRecursiveApproach(true);
+        ExecutionTimeCalculator.start();
+        rbTest.accept(rbTree);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // Red-Black Tree Iterative Testing
+        System.out.println("Iterative Red-Black Tree");
+        rbTree.clear();
+        rbTree.setUseRecursiveApproach(false);
+        ExecutionTimeCalculator.start();
+        rbTest.accept(rbTree);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("*************************************************");
+
+        Consumer<ConcurrentAVL<Integer>> concurrentAvlTest = integerConcurrentAVL -> {
+            Thread[] writers = new Thread[4];
+            for (int t = 0; t < writers.length; t++) {
+                int offset = t;
+                writers[t] = new Thread(() -> {
+                    for (int i = offset + 1; i <= 10_000; i += writers.length) {
+                        integerConcurrentAVL.insert(i);
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            System.out.println("Size: " + integerConcurrentAVL.size() + ", Depth: " + integerConcurrentAVL.getDepth());
+        };
+
+        System.out.println("#################################################");
+
+        // Concurrent AVL Testing
+        System.out.println("Concurrent AVL (4 writer threads)");
+        ConcurrentAVL<Integer> concurrentAvlTree = new ConcurrentAVL<>();
+        ExecutionTimeCalculator.start();
+        concurrentAvlTest.accept(concurrentAvlTree);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("*************************************************");
+
+        int lookupKeys = 1_000_000;
+        Integer[] shuffledKeys = new Integer[lookupKeys];
+        for (int i = 0; i < lookupKeys; i++) {
+            shuffledKeys[i] = i;
+        }
+        Collections.shuffle(Arrays.asList(shuffledKeys), new Random(42));
+
+        Consumer<Tree<Integer>> lookupBenchmark = integerTree -> {
+            int found = 0;
+            for (Integer key : shuffledKeys) {
+                if (integerTree.contains(key)) {
+                    found++;
+                }
+            }
+            System.out.println("Found: " + found + ", Depth: " + integerTree.getDepth());
+        };
+
+        System.out.println("#################################################");
+
+        // AVL Lookup Benchmark
+        System.out.println("AVL lookups (" + lookupKeys + " keys)");
+        AVL<Integer> largeAvlTree = new AVL<>();
+        largeAvlTree.setUseRecursiveApproach(false);
+        for (Integer key : shuffledKeys) {
+            largeAvlTree.insert(key);
+        }
+        ExecutionTimeCalculator.start();
+        lookupBenchmark.accept(largeAvlTree);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // B+ Tree Lookup Benchmark
+        System.out.println("B+ Tree lookups (" + lookupKeys + " keys, fanout " + BPlusTree.DEFAULT_FANOUT + ")");
+        BPlusTree<Integer> bPlusTree = new BPlusTree<>();
+        for (Integer key : shuffledKeys) {
+            bPlusTree.insert(key);
+        }
+        ExecutionTimeCalculator.start();
+        lookupBenchmark.accept(bPlusTree);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // BST Lookup Benchmark
+        System.out.println("BST lookups (" + lookupKeys + " keys)");
+        BST<Integer> largeBstTree = new BST<>();
+        largeBstTree.setUseRecursiveApproach(false);
+        for (Integer key : shuffledKeys) {
+            largeBstTree.insert(key);
+        }
+        ExecutionTimeCalculator.start();
+        lookupBenchmark.accept(largeBstTree);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // Treap Lookup Benchmark
+        System.out.println("Treap lookups (" + lookupKeys + " keys)");
+        Treap<Integer> largeTreap = new Treap<>(42);
+        largeTreap.setUseRecursiveApproach(false);
+        for (Integer key : shuffledKeys) {
+            largeTreap.insert(key);
+        }
+        ExecutionTimeCalculator.start();
+        lookupBenchmark.accept(largeTreap);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("*************************************************");
+
+        Consumer<Tree<Integer>> updateBenchmark = integerTree -> {
+            for (Integer key : shuffledKeys) {
+                integerTree.insert(key);
+            }
+            int deleted = 0;
+            for (int i = 0; i < lookupKeys; i += 2) {
+                if (integerTree.delete(shuffledKeys[i])) {
+                    deleted++;
+                }
+            }
+            System.out.println("Deleted: " + deleted + ", Depth: " + integerTree.getDepth());
+        };
+
+        System.out.println("#################################################");
+
+        // AVL Update Benchmark
+        System.out.println("AVL inserts and deletes (" + lookupKeys + " keys)");
+        largeAvlTree.clear();
+        ExecutionTimeCalculator.start();
+        updateBenchmark.accept(largeAvlTree);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // BST Update Benchmark
+        System.out.println("BST inserts and deletes (" + lookupKeys + " keys)");
+        largeBstTree.clear();
+        ExecutionTimeCalculator.start();
+        updateBenchmark.accept(largeBstTree);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // Treap Update Benchmark
+        System.out.println("Treap inserts and deletes (" + lookupKeys + " keys)");
+        largeTreap.clear();
+        ExecutionTimeCalculator.start();
+        updateBenchmark.accept(largeTreap);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // AVL Batch Insert Benchmark
+        int batchSize = lookupKeys / 10;
+        System.out.println("AVL insertAll (" + lookupKeys + " keys in batches of " + batchSize + ")");
+        largeAvlTree.clear();
+        ExecutionTimeCalculator.start();
+        for (int from = 0; from < lookupKeys; from += batchSize) {
+            largeAvlTree.insertAll(Arrays.asList(shuffledKeys).subList(from, Math.min(from + batchSize, lookupKeys)));
+        }
+        System.out.println("Size: " + largeAvlTree.size() + ", Depth: " + largeAvlTree.getDepth());
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("*************************************************");
+
+        Consumer<Map<Integer, Integer>> mapBenchmark = integerMap -> {
+            for (Integer key : shuffledKeys) {
+                integerMap.put(key, key);
+            }
+            long checksum = 0;
+            for (Integer key : shuffledKeys) {
+                checksum += integerMap.get(key);
+            }
+            for (int i = 0; i < lookupKeys; i += 2) {
+                integerMap.remove(shuffledKeys[i]);
+            }
+            System.out.println("Size: " + integerMap.size() + ", Checksum: " + checksum);
+        };
+
+        // AVLMap Benchmark
+        System.out.println("AVLMap put/get/remove (" + lookupKeys + " keys)");
+        ExecutionTimeCalculator.start();
+        mapBenchmark.accept(new AVLMap<>());
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // TreeMap Benchmark
+        System.out.println("java.util.TreeMap put/get/remove (" + lookupKeys + " keys)");
+        ExecutionTimeCalculator.start();
+        mapBenchmark.accept(new TreeMap<>());
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("*************************************************");
+
+        int aggregateQueries = 100;
+        int aggregateWidth = lookupKeys / 10;
+        AggregateAVL<Integer, Long> sumTree = new AggregateAVL<>(0L, Integer::longValue, Long::sum);
+        for (Integer key : shuffledKeys) {
+            sumTree.insert(key);
+        }
+
+        // AggregateAVL Range Sum Benchmark
+        System.out.println("AggregateAVL range sums (" + aggregateQueries + " ranges of " + aggregateWidth + " keys)");
+        ExecutionTimeCalculator.start();
+        long aggregateChecksum = 0;
+        for (int i = 0; i < aggregateQueries; i++) {
+            aggregateChecksum += sumTree.aggregate(shuffledKeys[i], shuffledKeys[i] + aggregateWidth - 1);
+        }
+        System.out.println("Checksum: " + aggregateChecksum);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // Range Search Sum Benchmark
+        System.out.println("rangeSearch sums (" + aggregateQueries + " ranges of " + aggregateWidth + " keys)");
+        ExecutionTimeCalculator.start();
+        long[] rangeSum = new long[1];
+        for (int i = 0; i < aggregateQueries; i++) {
+            sumTree.rangeSearch(shuffledKeys[i], shuffledKeys[i] + aggregateWidth - 1, key -> rangeSum[0] += key);
+        }
+        System.out.println("Checksum: " + rangeSum[0]);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("*************************************************");
+
+        int stabQueries = 100;
+        List<Interval<Integer>> intervals = new ArrayList<>(lookupKeys);
+        for (Integer key : shuffledKeys) {
+            intervals.add(new Interval<>(key, key + key % 1_000));
+        }
+
+        // Interval Tree Stabbing Benchmark
+        System.out.println("IntervalTree stabbing queries (" + stabQueries + " points, " + lookupKeys + " intervals)");
+        IntervalTree<Integer> intervalTree = IntervalTree.build(intervals);
+        ExecutionTimeCalculator.start();
+        int stabbed = 0;
+        for (int i = 0; i < stabQueries; i++) {
+            stabbed += intervalTree.findContaining(shuffledKeys[i]).size();
+        }
+        System.out.println("Found: " + stabbed);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // Interval Scan Benchmark
+        System.out.println("Linear interval scans (" + stabQueries + " points, " + lookupKeys + " intervals)");
+        ExecutionTimeCalculator.start();
+        int scanned = 0;
+        for (int i = 0; i < stabQueries; i++) {
+            for (Interval<Integer> interval : intervals) {
+                if (interval.contains(shuffledKeys[i])) {
+                    scanned++;
+                }
+            }
+        }
+        System.out.println("Found: " + scanned);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("*************************************************");
+
+        int distinctEvents = 1_000;
+
+        // AVL Multiset Benchmark
+        System.out.println("AVL multiset counting (" + lookupKeys + " events, " + distinctEvents + " distinct)");
+        ExecutionTimeCalculator.start();
+        AVL<Integer> eventCounts = AVL.multiset();
+        for (Integer key : shuffledKeys) {
+            eventCounts.insert(key % distinctEvents);
+        }
+        long countedEvents = 0;
+        for (int event = 0; event < distinctEvents; event++) {
+            countedEvents += eventCounts.count(event);
+        }
+        System.out.println("Nodes: " + eventCounts.size() + ", counted: " + countedEvents);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // Journaled Multiset Round Trip
+        int journaledEvents = 100_000;
+        System.out.println("Journaled AVL multiset round trip (" + journaledEvents + " events, "
+                + distinctEvents + " distinct)");
+        ExecutionTimeCalculator.start();
+        try {
+            Path journalDirectory = Files.createTempDirectory("journal");
+            AVL<Integer> journaledCounts = AVL.multiset();
+            try (JournaledTree<Integer> journal =
+                         JournaledTree.open(journaledCounts, journalDirectory, Codec.INTEGER, 1_000)) {
+                // Half of the events end up in the checkpoint, the other half is replayed from the log
+                for (int i = 0; i < journaledEvents; i++) {
+                    if (i == journaledEvents / 2) {
+                        journal.checkpoint();
+                    }
+                    journal.insert(shuffledKeys[i] % distinctEvents);
+                }
+            }
+            AVL<Integer> recoveredCounts = AVL.multiset();
+            JournaledTree.open(recoveredCounts, journalDirectory, Codec.INTEGER).close();
+            int mismatches = 0;
+            for (int event = 0; event < distinctEvents; event++) {
+                if (recoveredCounts.count(event) != journaledCounts.count(event)) {
+                    mismatches++;
+                }
+            }
+            System.out.println("Nodes: " + recoveredCounts.size() + ", mismatched counts: " + mismatches);
+            Files.delete(journalDirectory.resolve(JournaledTree.LOG_FILE));
+            Files.delete(journalDirectory.resolve(JournaledTree.CHECKPOINT_FILE));
+            Files.delete(journalDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("#################################################");
+
+        // TreeMap Counting Benchmark
+        System.out.println("TreeMap counting (" + lookupKeys + " events, " + distinctEvents + " distinct)");
+        ExecutionTimeCalculator.start();
+        Map<Integer, Integer> eventMap = new TreeMap<>();
+        for (Integer key : shuffledKeys) {
+            eventMap.merge(key % distinctEvents, 1, Integer::sum);
+        }
+        countedEvents = 0;
+        for (int event = 0; event < distinctEvents; event++) {
+            countedEvents += eventMap.getOrDefault(event, 0);
+        }
+        System.out.println("Nodes: " + eventMap.size() + ", counted: " + countedEvents);
+        ExecutionTimeCalculator.stop();
+        ExecutionTimeCalculator.printExecutionTime();
+
+        System.out.println("*************************************************");
+
         Consumer<PriorityQueue<Integer>> testPriorityQueue = integerPriorityQueue -> {
             integerPriorityQueue.enqueue(3);
             integerPriorityQueue.enqueue(7);
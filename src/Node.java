@@ -1,24 +1,35 @@
 import java.util.Objects;
 
+/**
+ * A node of a binary tree.
+ * <p>
+ * A plain node only stores its value, its children and the size of its subtree. Trees that need parent pointers
+ * or stored heights create one of the nested subclasses instead, as described by {@link Layout}, so that no tree
+ * pays for fields it never reads. Trees in multiset mode create {@link Counted} nodes, which additionally store how
+ * often their value occurs.
+ *
+ * @param <T> the data type of the value stored in the node
+ */
 public class Node<T extends Comparable<T>> {
     private T value; // The value stored in the node
-    private Node<T> parent; // Pointer to the parent node
     private Node<T> left; // Pointer to the left child node
     private Node<T> right; // Pointer to the right child node
-    private int height; // The height of the node in the tree
+    private int size; // The number of nodes in the subtree rooted at this node
 
     /**
-     * Constructs a new node with the given value.
+     * Constructs a new plain node with the given value, which stores neither a parent pointer nor its height. Trees
+     * constructed from a root of plain nodes copy them into nodes of their own layout, while trees and callers that
+     * need parent pointers or stored heights on the nodes they link themselves create them through
+     * {@link Layout#createNode(Comparable)} or one of the nested subclasses.
      *
      * @param value the value to store in the node
      */
     public Node(T value) {
         Objects.requireNonNull(value, "Value cannot be null");
         this.value = value;
-        parent = null;
         left = null;
         right = null;
-        height = 0;
+        size = 1;
     }
 
     /**
@@ -43,19 +54,18 @@ public class Node<T extends Comparable<T>> {
     /**
      * Returns a pointer to the parent node.
      *
-     * @return a pointer to the parent node
+     * @return a pointer to the parent node, always null for layouts without parent pointers
      */
     public Node<T> getParent() {
-        return parent;
+        return null;
     }
 
     /**
-     * Sets the parent node.
+     * Sets the parent node. Ignored by layouts without parent pointers.
      *
      * @param parent a pointer to the parent node
      */
     public void setParent(Node<T> parent) {
-        this.parent = parent;
     }
 
     /**
@@ -106,18 +116,41 @@ public class Node<T extends Comparable<T>> {
      * Returns the height of the node.
      *
      * @return the height of the node
+     * @implNote This method has a time complexity of O(1) for layouts that store heights,
+     * and of O(n) otherwise, where n is the number of nodes in the subtree.
      */
     public int getHeight() {
-        return height;
+        int leftHeight = (left == null) ? -1 : left.getHeight();
+        int rightHeight = (right == null) ? -1 : right.getHeight();
+        return Math.max(leftHeight, rightHeight) + 1;
+    }
+
+    /**
+     * Returns the number of nodes in the subtree rooted at this node, including the node itself.
+     *
+     * @return the size of the subtree rooted at this node
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns how often the value of the node occurs in the tree. Only {@link Counted} nodes store more than one
+     * occurrence.
+     *
+     * @return the number of occurrences of the value
+     */
+    public int getCount() {
+        return 1;
     }
 
     /**
-     * Updates the height of the node based on the heights of its children.
+     * Updates the subtree size of the node, and its height for layouts that store it, based on its children.
      */
     public void updateHeight() {
-        int leftHeight = (left == null) ? -1 : left.getHeight();
-        int rightHeight = (right == null) ? -1 : right.getHeight();
-        height = Math.max(leftHeight, rightHeight) + 1;
+        int leftSize = (left == null) ? 0 : left.size;
+        int rightSize = (right == null) ? 0 : right.size;
+        size = leftSize + rightSize + 1;
     }
 
     /**
@@ -127,9 +160,255 @@ public class Node<T extends Comparable<T>> {
      * @return the balance factor of the node
      */
     public int getBalanceFactor() {
-        int leftHeight = (left == null) ? -1 : left.height;
-        int rightHeight = (right == null) ? -1 : right.height;
+        int leftHeight = (left == null) ? -1 : left.getHeight();
+        int rightHeight = (right == null) ? -1 : right.getHeight();
         return leftHeight - rightHeight;
     }
-    
-}
\ No newline at end of file
+
+    /**
+     * A node that additionally stores a pointer to its parent.
+     *
+     * @param <T> the data type of the value stored in the node
+     */
+    public static class WithParent<T extends Comparable<T>> extends Node<T> {
+        private Node<T> parent; // Pointer to the parent node
+
+        /**
+         * Constructs a new node with the given value.
+         *
+         * @param value the value to store in the node
+         */
+        public WithParent(T value) {
+            super(value);
+            parent = null;
+        }
+
+        @Override
+        public Node<T> getParent() {
+            return parent;
+        }
+
+        @Override
+        public void setParent(Node<T> parent) {
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * A node that additionally stores its height.
+     *
+     * @param <T> the data type of the value stored in the node
+     */
+    public static class WithHeight<T extends Comparable<T>> extends Node<T> {
+        private int height; // The height of the node in the tree
+
+        /**
+         * Constructs a new node with the given value.
+         *
+         * @param value the value to store in the node
+         */
+        public WithHeight(T value) {
+            super(value);
+            height = 0;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public void updateHeight() {
+            super.updateHeight();
+            height = storedHeight(getLeft(), getRight());
+        }
+    }
+
+    /**
+     * A node that additionally stores a pointer to its parent and its height.
+     *
+     * @param <T> the data type of the value stored in the node
+     */
+    public static class WithParentAndHeight<T extends Comparable<T>> extends WithParent<T> {
+        private int height; // The height of the node in the tree
+
+        /**
+         * Constructs a new node with the given value.
+         *
+         * @param value the value to store in the node
+         */
+        public WithParentAndHeight(T value) {
+            super(value);
+            height = 0;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public void updateHeight() {
+            super.updateHeight();
+            height = storedHeight(getLeft(), getRight());
+        }
+    }
+
+    /**
+     * A node with a parent pointer and a stored height that additionally counts the occurrences of its value, as
+     * created by trees in multiset mode. The count fits into the alignment padding of a
+     * {@link Layout#PARENT_AND_HEIGHT} node, so a counted node is as large as an uncounted one, and every further
+     * occurrence of its value costs no memory at all.
+     *
+     * @param <T> the data type of the value stored in the node
+     */
+    public static class Counted<T extends Comparable<T>> extends WithParentAndHeight<T> {
+        private int count; // The number of occurrences of the value
+
+        /**
+         * Constructs a new node holding a single occurrence of the given value.
+         *
+         * @param value the value to store in the node
+         */
+        public Counted(T value) {
+            super(value);
+            count = 1;
+        }
+
+        @Override
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Sets how often the value of the node occurs in the tree.
+         *
+         * @param count the number of occurrences, at least one
+         */
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    /**
+     * Computes the height of a node from the heights of its children.
+     *
+     * @param left  the left child
+     * @param right the right child
+     * @return the height of the node
+     */
+    private static int storedHeight(Node<?> left, Node<?> right) {
+        int leftHeight = (left == null) ? -1 : left.getHeight();
+        int rightHeight = (right == null) ? -1 : right.getHeight();
+        return Math.max(leftHeight, rightHeight) + 1;
+    }
+
+    /**
+     * The field layouts a tree can choose for its nodes.
+     * <p>
+     * The estimated sizes assume a 64-bit JVM with compressed object pointers (12 byte headers, 4 byte references
+     * and 8 byte alignment) and do not include the stored values themselves.
+     */
+    public enum Layout {
+        /**
+         * Value, children and subtree size only, for top-down algorithms that never look at heights.
+         */
+        MINIMAL(false, false, 32),
+        /**
+         * Adds parent pointers, for trees that walk upwards but never look at heights, such as {@link BST}.
+         */
+        PARENT(true, false, 32),
+        /**
+         * Adds stored heights, for balanced trees that only use top-down algorithms.
+         */
+        HEIGHT(false, true, 32),
+        /**
+         * Adds both parent pointers and stored heights, as used by {@link AVL} by default.
+         */
+        PARENT_AND_HEIGHT(true, true, 40);
+
+        private final boolean parent; // Whether nodes store parent pointers
+        private final boolean height; // Whether nodes store their height
+        private final int estimatedBytes; // The estimated size of one node in bytes
+
+        Layout(boolean parent, boolean height, int estimatedBytes) {
+            this.parent = parent;
+            this.height = height;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        /**
+         * Returns whether nodes of this layout store parent pointers.
+         *
+         * @return true if parent pointers are stored, false otherwise
+         */
+        public boolean hasParent() {
+            return parent;
+        }
+
+        /**
+         * Returns whether nodes of this layout store their height.
+         *
+         * @return true if heights are stored, false otherwise
+         */
+        public boolean hasHeight() {
+            return height;
+        }
+
+        /**
+         * Returns whether nodes of this layout store at least the fields of the other layout.
+         *
+         * @param other the layout to compare with
+         * @return true if every field of the other layout is stored by this layout, false otherwise
+         */
+        public boolean includes(Layout other) {
+            return (parent || !other.parent) && (height || !other.height);
+        }
+
+        /**
+         * Returns the estimated size of one node of this layout, excluding its value.
+         *
+         * @return the estimated size in bytes
+         */
+        public int estimatedBytes() {
+            return estimatedBytes;
+        }
+
+        /**
+         * Returns the layout of the given node.
+         *
+         * @param node the node to inspect
+         * @return the layout of the node, or {@link #PARENT_AND_HEIGHT} if the node is null
+         */
+        public static Layout of(Node<?> node) {
+            if (node == null || node instanceof WithParentAndHeight) {
+                return PARENT_AND_HEIGHT;
+            } else if (node instanceof WithParent) {
+                return PARENT;
+            } else if (node instanceof WithHeight) {
+                return HEIGHT;
+            }
+            return MINIMAL;
+        }
+
+        /**
+         * Creates a new node of this layout.
+         *
+         * @param value the value to store in the node
+         * @param <T>   the data type of the value stored in the node
+         * @return the new node
+         */
+        public <T extends Comparable<T>> Node<T> createNode(T value) {
+            switch (this) {
+                case MINIMAL:
+                    return new Node<>(value);
+                case PARENT:
+                    return new WithParent<>(value);
+                case HEIGHT:
+                    return new WithHeight<>(value);
+                default:
+                    return new WithParentAndHeight<>(value);
+            }
+        }
+    }
+}
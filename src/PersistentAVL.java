@@ -0,0 +1,484 @@
+import java.util.function.Consumer;
+
+/**
+ * Persistent AVL Tree implementation of the Tree interface.
+ * <p>
+ * Nodes are immutable and carry no parent pointers. Inserting or deleting a value copies only the nodes on the path
+ * from the root to the changed position (plus the nodes touched by rotations) and shares every other node with the
+ * previous version. A {@link #snapshot()} therefore only has to capture the current root, and keeps seeing the same
+ * elements no matter how this tree changes afterwards.
+ * <p>
+ * Updates are serialized, while lookups, traversals and snapshots never block and always see a complete version.
+ * Methods of the Tree interface that return a node return a detached {@link Node} holding the value.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class PersistentAVL<T extends Comparable<T>> implements Tree<T> {
+    /**
+     * The root node of the current version of the tree
+     */
+    private volatile PNode<T> root;
+
+    /**
+     * Constructs a new persistent AVL tree with no elements.
+     */
+    public PersistentAVL() {
+        root = null;
+    }
+
+    /**
+     * Constructs a persistent AVL tree whose current version is the given root.
+     *
+     * @param root the root node of the version
+     */
+    private PersistentAVL(PNode<T> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns an independent tree holding the current version of this tree. Later updates of either tree are not
+     * visible in the other one, and untouched nodes stay shared between both.
+     *
+     * @return a snapshot of this tree
+     * @implNote This method has a time complexity of O(1)
+     */
+    public PersistentAVL<T> snapshot() {
+        return new PersistentAVL<>(root);
+    }
+
+    /**
+     * Inserts an element into the tree by publishing a new version that shares all untouched nodes with the old one.
+     *
+     * @param value the value to insert into the tree
+     * @return true if the value was successfully inserted, false otherwise
+     * @implNote This method has a time complexity of O(log(n)) and allocates O(log(n)) nodes
+     */
+    @Override
+    public synchronized boolean insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        PNode<T> newRoot = insert(root, value);
+        if (newRoot == root) {
+            return false;
+        }
+        root = newRoot;
+        return true;
+    }
+
+    /**
+     * Helper method to recursively insert a value into a version of a subtree.
+     *
+     * @param node  the root of the subtree to insert the value into
+     * @param value the value to insert
+     * @return the root of the new version of the subtree, or the same node if the value already exists
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private PNode<T> insert(PNode<T> node, T value) {
+        if (node == null) {
+            return new PNode<>(value, null, null);
+        }
+        int cmp = value.compareTo(node.value);
+        if (cmp < 0) {
+            PNode<T> leftChild = insert(node.left, value);
+            return (leftChild == node.left) ? node : balance(node.value, leftChild, node.right);
+        } else if (cmp > 0) {
+            PNode<T> rightChild = insert(node.right, value);
+            return (rightChild == node.right) ? node : balance(node.value, node.left, rightChild);
+        } else {
+            return node;
+        }
+    }
+
+    /**
+     * Deletes an element from the tree by publishing a new version that shares all untouched nodes with the old one.
+     *
+     * @param value the value to delete
+     * @return true if the value was successfully deleted, false otherwise
+     * @implNote This method has a time complexity of O(log(n)) and allocates O(log(n)) nodes
+     */
+    @Override
+    public synchronized boolean delete(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        PNode<T> newRoot = delete(root, value);
+        if (newRoot == root) {
+            return false;
+        }
+        root = newRoot;
+        return true;
+    }
+
+    /**
+     * Helper method to recursively delete a value from a version of a subtree.
+     *
+     * @param node  the root of the subtree to delete the value from
+     * @param value the value to delete
+     * @return the root of the new version of the subtree, or the same node if the value was not found
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private PNode<T> delete(PNode<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = value.compareTo(node.value);
+        if (cmp < 0) {
+            PNode<T> leftChild = delete(node.left, value);
+            return (leftChild == node.left) ? node : balance(node.value, leftChild, node.right);
+        } else if (cmp > 0) {
+            PNode<T> rightChild = delete(node.right, value);
+            return (rightChild == node.right) ? node : balance(node.value, node.left, rightChild);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else {
+            // Replace the value with its successor and remove the successor from the right subtree
+            PNode<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            return balance(successor.value, node.left, delete(node.right, successor.value));
+        }
+    }
+
+    /**
+     * Creates a node from a value and two subtrees and restores the AVL property with the same rotations as
+     * {@link AVL}, copying the rotated nodes instead of modifying them.
+     *
+     * @param value the value of the node
+     * @param left  the left subtree
+     * @param right the right subtree
+     * @return the root of the balanced subtree
+     * @implNote This method has a time complexity of O(1)
+     */
+    private PNode<T> balance(T value, PNode<T> left, PNode<T> right) {
+        PNode<T> node = new PNode<>(value, left, right);
+        int balanceFactor = node.getBalanceFactor();
+
+        // if the balance factor is greater than 1, then the tree is left-heavy
+        if (balanceFactor > 1) {
+            // if the left subtree is right-heavy, double rotation is required
+            if (left.getBalanceFactor() < 0) {
+                node = new PNode<>(value, leftRotate(left), right);
+            }
+            // perform right rotation
+            return rightRotate(node);
+        }
+        // if the balance factor is less than -1, then the tree is right-heavy
+        else if (balanceFactor < -1) {
+            // if the right subtree is left-heavy, double rotation is required
+            if (right.getBalanceFactor() > 0) {
+                node = new PNode<>(value, left, rightRotate(right));
+            }
+            // perform left rotation
+            return leftRotate(node);
+        }
+        return node;
+    }
+
+    /**
+     * Returns a left-rotated copy of the given node.
+     *
+     * @param node the node to rotate left
+     * @return the new root of the subtree
+     * @implNote This method has a time complexity of O(1)
+     */
+    private PNode<T> leftRotate(PNode<T> node) {
+        PNode<T> newRoot = node.right;
+        return new PNode<>(newRoot.value, new PNode<>(node.value, node.left, newRoot.left), newRoot.right);
+    }
+
+    /**
+     * Returns a right-rotated copy of the given node.
+     *
+     * @param node the node to rotate right
+     * @return the new root of the subtree
+     * @implNote This method has a time complexity of O(1)
+     */
+    private PNode<T> rightRotate(PNode<T> node) {
+        PNode<T> newRoot = node.left;
+        return new PNode<>(newRoot.value, newRoot.left, new PNode<>(node.value, newRoot.right, node.right));
+    }
+
+    /**
+     * Checks if the tree contains the given value.
+     *
+     * @param value the value to search for
+     * @return true if the tree contains the value, false otherwise
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public boolean contains(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        PNode<T> current = root;
+        while (current != null) {
+            int cmp = value.compareTo(current.value);
+            if (cmp < 0) {
+                current = current.left;
+            } else if (cmp > 0) {
+                current = current.right;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a detached node holding the given value if the tree contains it.
+     *
+     * @param value the value to search for
+     * @return a new node holding the value, or null if it is not found
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> find(T value) {
+        return contains(value) ? new Node<>(value) : null;
+    }
+
+    /**
+     * Counts the number of occurrences for the specified value in the tree.
+     *
+     * @param value the value to count
+     * @return 1 if the tree contains the value, 0 otherwise
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public int count(T value) {
+        return contains(value) ? 1 : 0;
+    }
+
+    /**
+     * Performs a pre-order traversal of the current version and applies the specified action to each element.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the tree.
+     */
+    @Override
+    public void preOrder(Consumer<T> action) {
+        preOrder(root, action);
+    }
+
+    private void preOrder(PNode<T> node, Consumer<T> action) {
+        if (node != null) {
+            action.accept(node.value);
+            preOrder(node.left, action);
+            preOrder(node.right, action);
+        }
+    }
+
+    /**
+     * Performs an in-order traversal of the current version and applies the specified action to each element.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the tree.
+     */
+    @Override
+    public void inOrder(Consumer<T> action) {
+        inOrder(root, action);
+    }
+
+    private void inOrder(PNode<T> node, Consumer<T> action) {
+        if (node != null) {
+            inOrder(node.left, action);
+            action.accept(node.value);
+            inOrder(node.right, action);
+        }
+    }
+
+    /**
+     * Performs a post-order traversal of the current version and applies the specified action to each element.
+     *
+     * @param action the action to apply to each element
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the tree.
+     */
+    @Override
+    public void postOrder(Consumer<T> action) {
+        postOrder(root, action);
+    }
+
+    private void postOrder(PNode<T> node, Consumer<T> action) {
+        if (node != null) {
+            postOrder(node.left, action);
+            postOrder(node.right, action);
+            action.accept(node.value);
+        }
+    }
+
+    /**
+     * Returns the depth of the tree.
+     *
+     * @return the depth of the tree, or -1 if the tree is empty
+     * @implNote This method has a time complexity of O(1)
+     */
+    @Override
+    public int getDepth() {
+        PNode<T> current = root;
+        return (current == null) ? -1 : current.height;
+    }
+
+    /**
+     * Prints a graphical representation of the current version to standard output.
+     */
+    @Override
+    public void printTree() {
+        printTree(root, 0);
+    }
+
+    private void printTree(PNode<T> node, int indent) {
+        if (node != null) {
+            printTree(node.right, indent + 4);
+            System.out.printf("%" + indent + "s%s%n", "", node.value);
+            printTree(node.left, indent + 4);
+        }
+    }
+
+    /**
+     * Returns a detached node holding the minimum element of the tree.
+     *
+     * @return a new node holding the minimum element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getMin() {
+        PNode<T> current = root;
+        if (current == null) {
+            return null;
+        }
+        while (current.left != null) {
+            current = current.left;
+        }
+        return new Node<>(current.value);
+    }
+
+    /**
+     * Returns a detached node holding the maximum element of the tree.
+     *
+     * @return a new node holding the maximum element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getMax() {
+        PNode<T> current = root;
+        if (current == null) {
+            return null;
+        }
+        while (current.right != null) {
+            current = current.right;
+        }
+        return new Node<>(current.value);
+    }
+
+    /**
+     * Returns a detached node holding the smallest element greater than the value of the given node.
+     * Without parent pointers the successor is found by a single descent from the root.
+     *
+     * @param node the node to find the successor of
+     * @return a new node holding the successor, or null if there is none
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getSuccessor(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        PNode<T> successor = null;
+        PNode<T> current = root;
+        while (current != null) {
+            if (node.getValue().compareTo(current.value) < 0) {
+                successor = current;
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return (successor == null) ? null : new Node<>(successor.value);
+    }
+
+    /**
+     * Returns a detached node holding the greatest element less than the value of the given node.
+     * Without parent pointers the predecessor is found by a single descent from the root.
+     *
+     * @param node the node to find the predecessor of
+     * @return a new node holding the predecessor, or null if there is none
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getPredecessor(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        PNode<T> predecessor = null;
+        PNode<T> current = root;
+        while (current != null) {
+            if (node.getValue().compareTo(current.value) > 0) {
+                predecessor = current;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return (predecessor == null) ? null : new Node<>(predecessor.value);
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return the number of elements in the tree
+     * @implNote This method has a time complexity of O(1)
+     */
+    public int size() {
+        PNode<T> current = root;
+        return (current == null) ? 0 : current.size;
+    }
+
+    /**
+     * Makes the tree empty. Snapshots taken earlier are not affected.
+     */
+    public synchronized void clear() {
+        root = null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        inOrder(value -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(value);
+        });
+        return sb.append(']').toString();
+    }
+
+    /**
+     * An immutable tree node. Its height and subtree size are computed once from its children.
+     *
+     * @param <T> the data type of the value stored in the node
+     */
+    private static final class PNode<T extends Comparable<T>> {
+        private final T value; // The value stored in the node
+        private final PNode<T> left; // Pointer to the left child node
+        private final PNode<T> right; // Pointer to the right child node
+        private final int height; // The height of the node in the tree
+        private final int size; // The number of nodes in the subtree rooted at this node
+
+        PNode(T value, PNode<T> left, PNode<T> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            int leftHeight = (left == null) ? -1 : left.height;
+            int rightHeight = (right == null) ? -1 : right.height;
+            this.height = Math.max(leftHeight, rightHeight) + 1;
+            this.size = ((left == null) ? 0 : left.size) + ((right == null) ? 0 : right.size) + 1;
+        }
+
+        int getBalanceFactor() {
+            int leftHeight = (left == null) ? -1 : left.height;
+            int rightHeight = (right == null) ? -1 : right.height;
+            return leftHeight - rightHeight;
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Comparator;
 
 /**
  * This class represents a priority queue data structure that extends the MaxHeap class.
@@ -13,6 +14,15 @@ public class PriorityQueue<T extends Comparable<T>> extends MaxHeap<T> {
         super();
     }
 
+    /**
+     * Constructs a new empty Priority Queue whose highest priority is the largest element by the given comparator.
+     *
+     * @param comparator the comparator that orders the priorities, or null for the natural order of the elements
+     */
+    public PriorityQueue(Comparator<? super T> comparator) {
+        super(comparator);
+    }
+
     /**
      * Constructs a new maximum heap with the given array of elements.
      *
@@ -0,0 +1,701 @@
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * Red-Black Tree implementation that inherits from BST class.
+ * <p>
+ * Every node is colored red or black so that no red node has a red child and every path from a node down to a
+ * null child passes through the same number of black nodes. This keeps the height below 2 * log(n + 1) while
+ * performing at most two rotations per insertion and at most three rotations per deletion.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class RBTree<T extends Comparable<T>> extends BST<T> {
+    /**
+     * Constructs a new red-black tree with no elements.
+     */
+    public RBTree() {
+        super(Node.Layout.PARENT_AND_HEIGHT);
+    }
+
+    /**
+     * Inserts an element into the red-black tree.
+     *
+     * @param value the value to insert into the red-black tree
+     * @return true if the value was successfully inserted, false otherwise
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public boolean insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            RBNode<T> newRoot = new RBNode<>(value);
+            newRoot.red = false;
+            root = newRoot;
+            size++;
+            return true;
+        }
+
+        // Locate the node under which the new value has to be attached
+        Node<T> parent;
+        if (useRecursiveApproach) parent = findParentRecursive(root, value);
+        else parent = findParentIterative(root, value);
+
+        int cmp = compare(value, parent.getValue());
+        if (cmp == 0) {
+            // The value already exists in the tree, and no node has been allocated for it
+            return false;
+        }
+        RBNode<T> newNode = new RBNode<>(value);
+        if (cmp < 0) {
+            parent.setLeft(newNode);
+        } else {
+            parent.setRight(newNode);
+        }
+        size++;
+
+        insertFixup(newNode);
+
+        // Every node whose structure changed lies on the path from the new node up to the root
+        updateHeightsUpward(newNode);
+        return true;
+    }
+
+    /**
+     * Recursive helper method for locating the node under which a value has to be attached.
+     *
+     * @param node  the root of the subtree to search in
+     * @param value the value to insert
+     * @return the node holding the value if it already exists, otherwise the parent for the new node
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private Node<T> findParentRecursive(Node<T> node, T value) {
+        int cmp = compare(value, node.getValue());
+        if (cmp < 0 && node.getLeft() != null) {
+            return findParentRecursive(node.getLeft(), value);
+        } else if (cmp > 0 && node.getRight() != null) {
+            return findParentRecursive(node.getRight(), value);
+        }
+        return node;
+    }
+
+    /**
+     * Iterative helper method for locating the node under which a value has to be attached.
+     *
+     * @param node  the root of the subtree to search in
+     * @param value the value to insert
+     * @return the node holding the value if it already exists, otherwise the parent for the new node
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private Node<T> findParentIterative(Node<T> node, T value) {
+        Node<T> current = node;
+        while (true) {
+            int cmp = compare(value, current.getValue());
+            if (cmp < 0 && current.getLeft() != null) {
+                current = current.getLeft();
+            } else if (cmp > 0 && current.getRight() != null) {
+                current = current.getRight();
+            } else {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Restores the red-black properties after a red node has been attached as a leaf.
+     *
+     * @param node the newly inserted node
+     * @implNote This method has a time complexity of O(log(n)) and performs at most two rotations
+     */
+    private void insertFixup(Node<T> node) {
+        Node<T> current = node;
+        while (isRed(current.getParent())) {
+            Node<T> parent = current.getParent();
+            Node<T> grandparent = parent.getParent();
+            if (parent == grandparent.getLeft()) {
+                Node<T> uncle = grandparent.getRight();
+                if (isRed(uncle)) {
+                    // Case 1: the uncle is red, so push the blackness down from the grandparent
+                    setRed(parent, false);
+                    setRed(uncle, false);
+                    setRed(grandparent, true);
+                    current = grandparent;
+                } else {
+                    if (current == parent.getRight()) {
+                        // Case 2: the node is an inner child, rotate it into the outer position
+                        current = parent;
+                        leftRotate(current);
+                        parent = current.getParent();
+                    }
+                    // Case 3: the node is an outer child, rotate the grandparent
+                    setRed(parent, false);
+                    setRed(grandparent, true);
+                    rightRotate(grandparent);
+                }
+            } else {
+                Node<T> uncle = grandparent.getLeft();
+                if (isRed(uncle)) {
+                    // Case 1 (mirrored)
+                    setRed(parent, false);
+                    setRed(uncle, false);
+                    setRed(grandparent, true);
+                    current = grandparent;
+                } else {
+                    if (current == parent.getLeft()) {
+                        // Case 2 (mirrored)
+                        current = parent;
+                        rightRotate(current);
+                        parent = current.getParent();
+                    }
+                    // Case 3 (mirrored)
+                    setRed(parent, false);
+                    setRed(grandparent, true);
+                    leftRotate(grandparent);
+                }
+            }
+        }
+        setRed(root, false);
+    }
+
+    /**
+     * Removes an element from the red-black tree and returns the element that was stored in the tree. The node is
+     * located by a single descent, and the fixup walks back up through the parent pointers.
+     *
+     * @param value the value to remove
+     * @return the removed element, or null if the value was not found in the tree
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    public T remove(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        Node<T> node = find(value);
+        if (node == null) {
+            return null;
+        }
+        removeNode(node);
+        return node.getValue();
+    }
+
+    /**
+     * Removes the smallest or the largest element. The extreme node is reached with a single walk down the spine and
+     * unlinked directly, and the fixup restores the red-black properties on the way back up.
+     *
+     * @param first true to remove the smallest element, false to remove the largest one
+     * @return the removed element, or null if the tree is empty
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    @Override
+    protected T pollExtreme(boolean first) {
+        Node<T> node = first ? getMin() : getMax();
+        if (node == null) {
+            return null;
+        }
+        if (!removeOccurrence(node)) {
+            removeNode(node);
+        }
+        return node.getValue();
+    }
+
+    /**
+     * Unlinks a node from the red-black tree and restores the red-black properties. A node with two children is
+     * replaced by its successor node rather than by a copy of its value, so other nodes of the tree stay valid.
+     *
+     * @param node the node to remove
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private void removeNode(Node<T> node) {
+        // The child that takes the place of the removed node, and its parent (the child itself may be null)
+        Node<T> child;
+        Node<T> childParent;
+        boolean removedRed = isRed(node);
+
+        if (node.getLeft() == null) {
+            child = node.getRight();
+            childParent = node.getParent();
+            transplant(node, child);
+        } else if (node.getRight() == null) {
+            child = node.getLeft();
+            childParent = node.getParent();
+            transplant(node, child);
+        } else {
+            // Two children: the successor (which has no left child) takes the node's place and color
+            Node<T> successor = getMin(node.getRight());
+            removedRed = isRed(successor);
+            child = successor.getRight();
+            if (successor.getParent() == node) {
+                childParent = successor;
+            } else {
+                childParent = successor.getParent();
+                transplant(successor, child);
+                successor.setRight(node.getRight());
+            }
+            transplant(node, successor);
+            successor.setLeft(node.getLeft());
+            setRed(successor, isRed(node));
+        }
+        size--;
+
+        if (!removedRed) {
+            deleteFixup(child, childParent);
+        }
+
+        // Every node whose structure changed lies on the path from the removed position up to the root
+        updateHeightsUpward(childParent);
+    }
+
+    /**
+     * Removes every element within the closed range [lo, hi]. The elements are collected with a range search and
+     * removed one after another, since every removal has to restore the red-black properties on its own path.
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return the number of removed elements, or 0 if lo is greater than hi
+     * @implNote This method has a time complexity of O(log(n) + k log(n)), where k is the number of removed elements.
+     */
+    @Override
+    public int deleteRange(T lo, T hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        List<T> values = new ArrayList<>();
+        rangeSearch(lo, hi, values::add);
+        for (T value : values) {
+            remove(value);
+        }
+        return values.size();
+    }
+
+    /**
+     * Creates a new red node.
+     *
+     * @param value the value to store in the node
+     * @return the new node
+     */
+    @Override
+    protected Node<T> createNode(T value) {
+        return new RBNode<>(value);
+    }
+
+    /**
+     * Inserts a sorted batch of distinct values that is small compared to the tree. A first pass splits the batch
+     * around every visited node like {@link BST#insertSorted(List)}, without changing the tree, until every part has
+     * reached the empty subtree it belongs into. Each value of a part is then attached next to its in-order neighbor,
+     * the node bordering the empty subtree or the value attached before it, so no value needs a descent from the
+     * root. Only the fixups, which restore the red-black properties on the path of each new node, remain per value.
+     *
+     * @param batch the values to insert, sorted in ascending order and without duplicates
+     * @implNote This method has a time complexity of O(k log(n)) for a batch of k values, with the upper levels of
+     * the tree visited once for the whole batch.
+     */
+    @Override
+    protected void insertSorted(List<T> batch) {
+        if (root == null) {
+            insert(batch.get(0));
+            batch = batch.subList(1, batch.size());
+        }
+        // Find the empty subtree every part of the batch belongs into before the fixups start rotating
+        List<BatchPart<T>> gaps = new ArrayList<>();
+        Stack<BatchPart<T>> pending = new Stack<>();
+        pending.push(new BatchPart<>(root, false, 0, batch.size()));
+        while (!pending.isEmpty()) {
+            BatchPart<T> range = pending.pop();
+            Node<T> node = range.node;
+            if (range.to - range.from == 1) {
+                // A single value descends directly to its empty subtree
+                BatchPart<T> gap = findGap(node, range.from, batch.get(range.from));
+                if (gap != null) {
+                    gaps.add(gap);
+                }
+                continue;
+            }
+            int index = searchBatch(batch, range.from, range.to, node.getValue());
+            // A value equal to the node is already in the tree and is skipped
+            int leftTo = (index >= 0) ? index : -index - 1;
+            int rightFrom = (index >= 0) ? leftTo + 1 : leftTo;
+            if (range.from < leftTo) {
+                if (node.getLeft() == null) {
+                    gaps.add(new BatchPart<>(node, true, range.from, leftTo));
+                } else {
+                    pending.push(new BatchPart<>(node.getLeft(), false, range.from, leftTo));
+                }
+            }
+            if (rightFrom < range.to) {
+                if (node.getRight() == null) {
+                    gaps.add(new BatchPart<>(node, false, rightFrom, range.to));
+                } else {
+                    pending.push(new BatchPart<>(node.getRight(), false, rightFrom, range.to));
+                }
+            }
+        }
+
+        // No other value falls between the neighbors of a gap, so rotations elsewhere never move its place in order
+        for (BatchPart<T> gap : gaps) {
+            Node<T> neighbor = gap.node;
+            boolean before = gap.before;
+            for (int i = gap.from; i < gap.to; i++) {
+                RBNode<T> newNode = new RBNode<>(batch.get(i));
+                attachNextTo(neighbor, newNode, before);
+                size++;
+                insertFixup(newNode);
+                updateHeightsUpward(newNode);
+                // The next value of the part follows the value just attached
+                neighbor = newNode;
+                before = false;
+            }
+        }
+    }
+
+    /**
+     * Deletes a sorted batch of distinct values that is small compared to the tree. The nodes holding the values are
+     * found in one coordinated pass with {@link BST#findSorted(List)}, and each of them is then unlinked directly,
+     * without another descent from the root.
+     *
+     * @param batch the values to delete, sorted in ascending order and without duplicates
+     * @implNote This method has a time complexity of O(k log(n)) for a batch of k values, with the upper levels of
+     * the tree visited once for the whole batch.
+     */
+    @Override
+    protected void deleteSorted(List<T> batch) {
+        for (Node<T> node : findSorted(batch)) {
+            removeNode(node);
+        }
+    }
+
+    /**
+     * Finds the empty subtree a single value of a batch belongs into with a plain descent.
+     *
+     * @param node  the root of the subtree to descend from
+     * @param index the index of the value in the batch
+     * @param value the value to place
+     * @return the part of the batch holding only the value, or null if the subtree already contains the value
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private BatchPart<T> findGap(Node<T> node, int index, T value) {
+        Node<T> current = node;
+        while (true) {
+            int cmp = compare(value, current.getValue());
+            if (cmp == 0) {
+                return null;
+            }
+            Node<T> next = (cmp < 0) ? current.getLeft() : current.getRight();
+            if (next == null) {
+                return new BatchPart<>(current, cmp < 0, index, index + 1);
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Attaches a new leaf directly before or after the given node in order, as the rightmost node of its left subtree
+     * or the leftmost node of its right subtree.
+     *
+     * @param node    the in-order neighbor of the new leaf
+     * @param newNode the new leaf
+     * @param before  true to attach the leaf before the node, false to attach it after the node
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private void attachNextTo(Node<T> node, Node<T> newNode, boolean before) {
+        if (before) {
+            if (node.getLeft() == null) {
+                node.setLeft(newNode);
+            } else {
+                getMax(node.getLeft()).setRight(newNode);
+            }
+        } else {
+            if (node.getRight() == null) {
+                node.setRight(newNode);
+            } else {
+                getMin(node.getRight()).setLeft(newNode);
+            }
+        }
+    }
+
+    /**
+     * Replaces the contents of the tree with a perfectly balanced tree linked from the given nodes and recolors it.
+     * All levels of such a tree are full except possibly the deepest one, so coloring the nodes of an incomplete
+     * deepest level red and every other node black gives every path the same number of black nodes.
+     *
+     * @param nodes the nodes of the new tree in ascending order, whose current links are discarded
+     * @implNote This method has a time complexity of O(n)
+     */
+    @Override
+    protected void rebuildBalanced(List<Node<T>> nodes) {
+        super.rebuildBalanced(nodes);
+        // The number of full levels, the nodes below them form the incomplete deepest level
+        int fullLevels = 31 - Integer.numberOfLeadingZeros(nodes.size() + 1);
+        colorBalanced(root, 0, fullLevels);
+    }
+
+    /**
+     * Recursive helper method for coloring a perfectly balanced subtree after a rebuild.
+     *
+     * @param node       the root of the subtree
+     * @param depth      the depth of the node in the tree
+     * @param fullLevels the number of full levels of the tree, whose nodes are colored black
+     * @implNote This method has a time complexity of O(n) and a recursion depth of O(log(n)).
+     */
+    private void colorBalanced(Node<T> node, int depth, int fullLevels) {
+        if (node == null) {
+            return;
+        }
+        setRed(node, depth >= fullLevels);
+        colorBalanced(node.getLeft(), depth + 1, fullLevels);
+        colorBalanced(node.getRight(), depth + 1, fullLevels);
+    }
+
+    /**
+     * Replaces the elements of the tree with a snapshot written by
+     * {@link #writeSnapshot(WritableByteChannel, Codec)}. The snapshot does not record node colors, so the nodes
+     * are read in the written shape, collected in order and relinked into a perfectly balanced tree, which is then
+     * recolored like every other rebuild.
+     *
+     * @param channel the channel to read the snapshot from
+     * @param codec   the codec reading the values, which must match the codec the snapshot was written with
+     * @throws IOException                   if the channel cannot be read, or does not hold a complete snapshot
+     * @throws UnsupportedOperationException if the tree is in multiset mode
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the snapshot.
+     */
+    @Override
+    public void readSnapshot(ReadableByteChannel channel, Codec<T> codec) throws IOException {
+        super.readSnapshot(channel, codec);
+        // Iterative in-order traversal, so that a degenerate snapshot cannot overflow the call stack
+        List<Node<T>> nodes = new ArrayList<>(size);
+        Stack<Node<T>> stack = new Stack<>();
+        Node<T> current = root;
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
+                current = current.getLeft();
+            }
+            current = stack.pop();
+            nodes.add(current);
+            current = current.getRight();
+        }
+        rebuildBalanced(nodes);
+    }
+
+    /**
+     * Restores the red-black properties after a black node has been removed.
+     *
+     * @param node   the node that carries the extra blackness, possibly null
+     * @param parent the parent of that node
+     * @implNote This method has a time complexity of O(log(n)) and performs at most three rotations
+     */
+    private void deleteFixup(Node<T> node, Node<T> parent) {
+        Node<T> current = node;
+        while (current != root && !isRed(current)) {
+            if (current == parent.getLeft()) {
+                Node<T> sibling = parent.getRight();
+                if (isRed(sibling)) {
+                    // Case 1: the sibling is red, rotate so that the sibling becomes black
+                    setRed(sibling, false);
+                    setRed(parent, true);
+                    leftRotate(parent);
+                    sibling = parent.getRight();
+                }
+                if (!isRed(sibling.getLeft()) && !isRed(sibling.getRight())) {
+                    // Case 2: both of the sibling's children are black, move the extra blackness up
+                    setRed(sibling, true);
+                    current = parent;
+                    parent = current.getParent();
+                } else {
+                    if (!isRed(sibling.getRight())) {
+                        // Case 3: only the sibling's inner child is red, rotate it into the outer position
+                        setRed(sibling.getLeft(), false);
+                        setRed(sibling, true);
+                        rightRotate(sibling);
+                        sibling = parent.getRight();
+                    }
+                    // Case 4: the sibling's outer child is red, a rotation at the parent absorbs the extra blackness
+                    setRed(sibling, isRed(parent));
+                    setRed(parent, false);
+                    setRed(sibling.getRight(), false);
+                    leftRotate(parent);
+                    current = root;
+                }
+            } else {
+                Node<T> sibling = parent.getLeft();
+                if (isRed(sibling)) {
+                    // Case 1 (mirrored)
+                    setRed(sibling, false);
+                    setRed(parent, true);
+                    rightRotate(parent);
+                    sibling = parent.getLeft();
+                }
+                if (!isRed(sibling.getLeft()) && !isRed(sibling.getRight())) {
+                    // Case 2 (mirrored)
+                    setRed(sibling, true);
+                    current = parent;
+                    parent = current.getParent();
+                } else {
+                    if (!isRed(sibling.getLeft())) {
+                        // Case 3 (mirrored)
+                        setRed(sibling.getRight(), false);
+                        setRed(sibling, true);
+                        leftRotate(sibling);
+                        sibling = parent.getLeft();
+                    }
+                    // Case 4 (mirrored)
+                    setRed(sibling, isRed(parent));
+                    setRed(parent, false);
+                    setRed(sibling.getLeft(), false);
+                    rightRotate(parent);
+                    current = root;
+                }
+            }
+        }
+        setRed(current, false);
+    }
+
+    /**
+     * Replaces the subtree rooted at one node with the subtree rooted at another node.
+     *
+     * @param oldNode the node to replace
+     * @param newNode the node to put in its place, possibly null
+     * @implNote This method has a time complexity of O(1)
+     */
+    private void transplant(Node<T> oldNode, Node<T> newNode) {
+        Node<T> parent = oldNode.getParent();
+        if (parent == null) {
+            root = newNode;
+            if (newNode != null) {
+                newNode.setParent(null);
+            }
+        } else if (parent.getLeft() == oldNode) {
+            parent.setLeft(newNode);
+        } else {
+            parent.setRight(newNode);
+        }
+    }
+
+    /**
+     * Performs a left rotation on the given node and links the new subtree root into the node's parent.
+     *
+     * @param node the node to rotate left
+     * @implNote This method has a time complexity of O(1)
+     */
+    private void leftRotate(Node<T> node) {
+        Node<T> newRoot = node.getRight();
+        Node<T> parent = node.getParent();
+        node.setRight(newRoot.getLeft());
+        newRoot.setLeft(node);
+        replaceChild(parent, node, newRoot);
+    }
+
+    /**
+     * Performs a right rotation on the given node and links the new subtree root into the node's parent.
+     *
+     * @param node the node to rotate right
+     * @implNote This method has a time complexity of O(1)
+     */
+    private void rightRotate(Node<T> node) {
+        Node<T> newRoot = node.getLeft();
+        Node<T> parent = node.getParent();
+        node.setLeft(newRoot.getRight());
+        newRoot.setRight(node);
+        replaceChild(parent, node, newRoot);
+    }
+
+    /**
+     * Points the parent link that used to reference one child at a new child.
+     *
+     * @param parent   the parent node, or null if the old child was the root
+     * @param oldChild the child previously referenced by the parent
+     * @param newChild the child to reference instead
+     * @implNote This method has a time complexity of O(1)
+     */
+    private void replaceChild(Node<T> parent, Node<T> oldChild, Node<T> newChild) {
+        if (parent == null) {
+            root = newChild;
+            newChild.setParent(null);
+        } else if (parent.getLeft() == oldChild) {
+            parent.setLeft(newChild);
+        } else {
+            parent.setRight(newChild);
+        }
+    }
+
+    /**
+     * Recomputes the height and subtree size of every node from the given node up to the root.
+     *
+     * @param node the lowest node whose children changed, possibly null
+     * @implNote This method has a time complexity of O(log(n))
+     */
+    private void updateHeightsUpward(Node<T> node) {
+        Node<T> current = node;
+        while (current != null) {
+            current.updateHeight();
+            current = current.getParent();
+        }
+    }
+
+    /**
+     * Checks whether the given node is red. Null children count as black.
+     *
+     * @param node the node to check
+     * @return true if the node is red, false otherwise
+     */
+    private boolean isRed(Node<T> node) {
+        return node instanceof RBNode && ((RBNode<T>) node).red;
+    }
+
+    /**
+     * Sets the color of the given node. Calls on null children are ignored.
+     *
+     * @param node the node to color
+     * @param red  true to color the node red, false to color it black
+     */
+    private void setRed(Node<T> node, boolean red) {
+        if (node instanceof RBNode) {
+            ((RBNode<T>) node).red = red;
+        }
+    }
+
+    /**
+     * A tree node that additionally carries its red-black color.
+     *
+     * @param <T> the data type of the value stored in the node
+     */
+    private static class RBNode<T extends Comparable<T>> extends Node.WithParentAndHeight<T> {
+        private boolean red; // The color of the node, new nodes are red
+
+        /**
+         * Constructs a new red node with the given value.
+         *
+         * @param value the value to store in the node
+         */
+        RBNode(T value) {
+            super(value);
+            red = true;
+        }
+    }
+
+    /**
+     * A part of a sorted batch together with the node it is bound to. While the batch is being split, the node is the
+     * root of the subtree the part belongs into. Once the part has reached an empty subtree, the node is the in-order
+     * neighbor bordering that empty subtree.
+     *
+     * @param <T> the data type of the elements in the tree
+     */
+    private static class BatchPart<T extends Comparable<T>> {
+        private final Node<T> node; // The root of the subtree, or the neighbor of the empty subtree
+        private final boolean before; // Whether the values of the part precede the neighbor rather than follow it
+        private final int from; // The index of the first value of the part (inclusive)
+        private final int to; // The index after the last value of the part (exclusive)
+
+        BatchPart(Node<T> node, boolean before, int from, int to) {
+            this.node = node;
+            this.before = before;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,510 @@
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Scapegoat Tree implementation that inherits from BST class.
+ * <p>
+ * A scapegoat tree keeps no balance information in its nodes: no heights, no colors, no priorities and no parent
+ * pointers, only the subtree sizes that every node already stores. Instead, the depth of every insertion is checked
+ * against the bound log<sub>1/alpha</sub>(n). When a new node ends up deeper than that, some ancestor on its path is
+ * unbalanced by more than the factor alpha, and the subtree of that ancestor (the scapegoat) is rebuilt into a
+ * perfectly balanced one. Deletions rebuild the whole tree once it has shrunk by the factor alpha since the last
+ * full rebuild.
+ * <p>
+ * The depth of the tree therefore never exceeds log<sub>1/alpha</sub>(n) + 1, which gives O(log(n)) worst-case
+ * lookups with the smallest node layout, while insertions and deletions take O(log(n)) amortized time. Values of
+ * alpha close to 0.5 keep the tree almost perfectly balanced at the cost of more rebuilds, and values close to 1
+ * rebuild rarely but allow deeper trees.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class ScapegoatTree<T extends Comparable<T>> extends BST<T> {
+    /**
+     * The default balance factor, which allows a depth of about 1.94 log<sub>2</sub>(n).
+     */
+    public static final double DEFAULT_ALPHA = 0.7;
+
+    private final double alpha; // The maximum fraction of a subtree that one child subtree may hold
+    private final double logInverseAlpha; // The natural logarithm of 1 / alpha, the base of the depth bound
+    private int maxSize; // The largest size of the tree since the last full rebuild
+    private boolean tooDeep; // Whether the subtree last updated by a batch insertion holds a node that is too deep
+
+    /**
+     * Constructs a new scapegoat tree with no elements and the default balance factor.
+     */
+    public ScapegoatTree() {
+        this(DEFAULT_ALPHA);
+    }
+
+    /**
+     * Constructs a new scapegoat tree with no elements and the given balance factor.
+     *
+     * @param alpha the balance factor, strictly between 0.5 and 1
+     * @throws IllegalArgumentException if alpha is not strictly between 0.5 and 1
+     */
+    public ScapegoatTree(double alpha) {
+        super(Node.Layout.MINIMAL);
+        if (!(alpha > 0.5 && alpha < 1)) {
+            throw new IllegalArgumentException("Alpha must be strictly between 0.5 and 1.");
+        }
+        this.alpha = alpha;
+        this.logInverseAlpha = Math.log(1 / alpha);
+        this.maxSize = 0;
+    }
+
+    /**
+     * Returns the balance factor of the tree.
+     *
+     * @return the balance factor alpha
+     */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * Returns the largest depth a node may be inserted at without triggering a rebuild, which is
+     * log<sub>1/alpha</sub>(n) for a tree of n elements. Together with {@link #getMinHeight()}, it bounds the depth of
+     * the tree from both sides. Unlike {@link #getMaxHeight()}, which is the height of a fully degenerate tree, this
+     * is the bound the tree actually maintains.
+     *
+     * @return the depth bound of the tree
+     * @implNote This method has a time complexity of O(1)
+     */
+    public int getDepthBound() {
+        return maxHeight(size);
+    }
+
+    /**
+     * Inserts an element into the scapegoat tree. If the new node is deeper than {@link #getDepthBound()}, the
+     * subtree of the lowest unbalanced ancestor on its path is rebuilt.
+     *
+     * @param value the value to insert into the scapegoat tree
+     * @return true if the value was successfully inserted, false if it already exists in the tree
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public boolean insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = compare(value, current.getValue());
+            if (cmp == 0) {
+                return false;
+            }
+            path.add(current);
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
+        }
+
+        Node<T> newNode = createNode(value);
+        if (path.isEmpty()) {
+            root = newNode;
+        } else {
+            linkChild(path.get(path.size() - 1), newNode);
+            for (int i = path.size() - 2; i >= 0; i--) {
+                path.get(i).updateHeight();
+            }
+        }
+        size++;
+        maxSize = Math.max(maxSize, size);
+
+        // The depth of the new node equals the number of its ancestors
+        if (path.size() > maxHeight(size)) {
+            rebuildScapegoat(path, newNode);
+        }
+        return true;
+    }
+
+    /**
+     * Removes an element from the scapegoat tree. If the tree has shrunk below alpha times its largest size since the
+     * last full rebuild, the whole tree is rebuilt.
+     *
+     * @param value the value to remove
+     * @return the removed element, or null if the value was not found in the tree
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public T remove(T value) {
+        T removed = super.remove(value);
+        if (removed != null && size < alpha * maxSize) {
+            rebuild();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the smallest or the largest element in a single walk down the spine. If the tree has shrunk below alpha
+     * times its largest size since the last full rebuild, the whole tree is rebuilt.
+     *
+     * @param first true to remove the smallest element, false to remove the largest one
+     * @return the removed element, or null if the tree is empty
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    protected T pollExtreme(boolean first) {
+        T removed = super.pollExtreme(first);
+        if (removed != null && size < alpha * maxSize) {
+            rebuild();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every element within the closed range [lo, hi]. Cutting out the range never makes a node deeper, and
+     * the whole tree is rebuilt if it has shrunk below alpha times its largest size since the last full rebuild.
+     *
+     * @param lo the lower bound of the range (inclusive)
+     * @param hi the upper bound of the range (inclusive)
+     * @return the number of removed elements, or 0 if lo is greater than hi
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public int deleteRange(T lo, T hi) {
+        int removed = super.deleteRange(lo, hi);
+        if (removed > 0 && size < alpha * maxSize) {
+            rebuild();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all elements from the tree.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        maxSize = 0;
+    }
+
+    /**
+     * Replaces the elements of the tree with a snapshot written by {@link #writeSnapshot(WritableByteChannel, Codec)}.
+     * The loaded tree counts as a full rebuild, so the deletion threshold starts from its size.
+     *
+     * @param channel the channel to read the snapshot from
+     * @param codec   the codec reading the values, which must match the codec the snapshot was written with
+     * @throws IOException                   if the channel cannot be read, or does not hold a complete snapshot
+     * @throws UnsupportedOperationException if the tree is in multiset mode
+     * @implNote This method has a time complexity of O(n), where n is the number of nodes in the snapshot.
+     */
+    @Override
+    public void readSnapshot(ReadableByteChannel channel, Codec<T> codec) throws IOException {
+        super.readSnapshot(channel, codec);
+        maxSize = size;
+    }
+
+    /**
+     * Inserts a sorted batch of distinct values that is small compared to the tree in one coordinated pass. The batch
+     * is split around every visited node like {@link BST#insertSorted(List)}, a part that reaches an empty subtree is
+     * linked there as a perfectly balanced subtree, and a part of a single value finishes with a plain descent. On the
+     * way back up, the lowest ancestor of a new node deeper than {@link #getDepthBound()} that holds more than alpha
+     * times its size in the child on the path is rebuilt, as a single insertion would.
+     *
+     * @param batch the values to insert, sorted in ascending order and without duplicates
+     * @implNote This method has an amortized time complexity of O(k log(n)) for a batch of k values, with the upper
+     * levels of the tree visited once for the whole batch.
+     */
+    @Override
+    protected void insertSorted(List<T> batch) {
+        if (root == null) {
+            super.insertSorted(batch);
+        } else {
+            root = insertSorted(root, 0, batch, 0, batch.size());
+            if (tooDeep) {
+                // Cannot happen while the depth bound holds, but a full rebuild always restores it
+                root = rebuild(root);
+                tooDeep = false;
+            }
+            root.setParent(null);
+        }
+        maxSize = Math.max(maxSize, size);
+    }
+
+    /**
+     * Deletes a sorted batch of distinct values that is small compared to the tree in one coordinated pass. Splicing
+     * out nodes never makes a node deeper, and the whole tree is rebuilt if it has shrunk below alpha times its
+     * largest size since the last full rebuild.
+     *
+     * @param batch the values to delete, sorted in ascending order and without duplicates
+     * @implNote This method has an amortized time complexity of O(k log(n)) for a batch of k values.
+     */
+    @Override
+    protected void deleteSorted(List<T> batch) {
+        super.deleteSorted(batch);
+        if (size < alpha * maxSize) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recursive helper method for inserting a part of a sorted batch into a subtree. Whether the returned subtree
+     * still holds a new node that is too deep is left in {@link #tooDeep}.
+     *
+     * @param node  the root of the subtree
+     * @param depth the depth of the node in the tree
+     * @param batch the values to insert, sorted in ascending order and without duplicates
+     * @param from  the index of the first value of the part (inclusive)
+     * @param to    the index after the last value of the part (exclusive)
+     * @return the root of the updated subtree
+     * @implNote This method has a time complexity of O(m log(k)) for m visited nodes and a part of k values, plus
+     * the size of the rebuilt subtrees, and a recursion depth of O(log(n)).
+     */
+    private Node<T> insertSorted(Node<T> node, int depth, List<T> batch, int from, int to) {
+        if (to - from == 1) {
+            return insertLeaf(node, depth, batch.get(from));
+        }
+        int index = searchBatch(batch, from, to, node.getValue());
+        // A value equal to the node is already in the tree and is skipped
+        int leftTo = (index >= 0) ? index : -index - 1;
+        int rightFrom = (index >= 0) ? leftTo + 1 : leftTo;
+        boolean leftTooDeep = false;
+        if (from < leftTo) {
+            node.setLeft((node.getLeft() == null)
+                    ? linkBalanced(depth + 1, batch, from, leftTo)
+                    : insertSorted(node.getLeft(), depth + 1, batch, from, leftTo));
+            leftTooDeep = tooDeep;
+        }
+        boolean rightTooDeep = false;
+        if (rightFrom < to) {
+            node.setRight((node.getRight() == null)
+                    ? linkBalanced(depth + 1, batch, rightFrom, to)
+                    : insertSorted(node.getRight(), depth + 1, batch, rightFrom, to));
+            rightTooDeep = tooDeep;
+        }
+        // The node is a scapegoat if a child that holds a node too deep also holds more than alpha times its size
+        if ((leftTooDeep && node.getLeft().getSize() > alpha * node.getSize())
+                || (rightTooDeep && node.getRight().getSize() > alpha * node.getSize())) {
+            return rebuildChecked(node, depth);
+        }
+        tooDeep = leftTooDeep || rightTooDeep;
+        return node;
+    }
+
+    /**
+     * Inserts a single value of a batch into a subtree with a plain descent, and rebuilds the scapegoats on its path
+     * if the new node is too deep. Whether the returned subtree still holds a node that is too deep is left in
+     * {@link #tooDeep}.
+     *
+     * @param node  the root of the subtree
+     * @param depth the depth of the node in the tree
+     * @param value the value to insert
+     * @return the root of the updated subtree
+     * @implNote This method has a time complexity of O(log(n)), plus the size of the rebuilt subtrees.
+     */
+    private Node<T> insertLeaf(Node<T> node, int depth, T value) {
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> current = node;
+        while (current != null) {
+            int cmp = compare(value, current.getValue());
+            if (cmp == 0) {
+                tooDeep = false;
+                return node;
+            }
+            path.add(current);
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
+        }
+        Node<T> newNode = createNode(value);
+        linkChild(path.get(path.size() - 1), newNode);
+        for (int i = path.size() - 2; i >= 0; i--) {
+            path.get(i).updateHeight();
+        }
+        size++;
+
+        // The depth of the new node is the depth of the subtree plus the number of its ancestors within it
+        tooDeep = depth + path.size() > maxHeight(size);
+        Node<T> child = newNode;
+        for (int i = path.size() - 1; i >= 0 && tooDeep; i--) {
+            Node<T> ancestor = path.get(i);
+            if (child.getSize() > alpha * ancestor.getSize()) {
+                Node<T> rebuilt = rebuildChecked(ancestor, depth + i);
+                if (i == 0) {
+                    return rebuilt;
+                }
+                linkChild(path.get(i - 1), rebuilt);
+                child = rebuilt;
+            } else {
+                child = ancestor;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Links a part of a sorted batch into a perfectly balanced subtree of new nodes. Whether its deepest node is too
+     * deep is left in {@link #tooDeep}.
+     *
+     * @param depth the depth the root of the new subtree will have in the tree
+     * @param batch the values to insert, sorted in ascending order and without duplicates
+     * @param from  the index of the first value of the part (inclusive)
+     * @param to    the index after the last value of the part (exclusive)
+     * @return the root of the new subtree
+     * @implNote This method has a time complexity of O(k) for a part of k values.
+     */
+    private Node<T> linkBalanced(int depth, List<T> batch, int from, int to) {
+        List<Node<T>> nodes = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            nodes.add(createNode(batch.get(i)));
+        }
+        Node<T> subtree = buildBalanced(nodes, 0, nodes.size() - 1);
+        size += nodes.size();
+        tooDeep = isTooDeep(subtree, depth);
+        return subtree;
+    }
+
+    /**
+     * Rebuilds a scapegoat found after a batch insertion. A batch may have grown the subtree by more than a single
+     * insertion could, so even the perfectly balanced subtree may still reach too deep, which is left in
+     * {@link #tooDeep} for the ancestors to handle.
+     *
+     * @param node  the root of the subtree
+     * @param depth the depth of the node in the tree
+     * @return the root of the rebuilt subtree
+     * @implNote This method has a time complexity of O(m), where m is the number of nodes in the subtree.
+     */
+    private Node<T> rebuildChecked(Node<T> node, int depth) {
+        Node<T> rebuilt = rebuild(node);
+        tooDeep = isTooDeep(rebuilt, depth);
+        return rebuilt;
+    }
+
+    /**
+     * Checks whether a perfectly balanced subtree reaches deeper than {@link #getDepthBound()}.
+     *
+     * @param node  the root of the perfectly balanced subtree
+     * @param depth the depth of the node in the tree
+     * @return true if the deepest node of the subtree is too deep
+     */
+    private boolean isTooDeep(Node<T> node, int depth) {
+        // The deepest node of a perfectly balanced subtree of m nodes lies floor(log2(m)) levels below its root
+        int height = 31 - Integer.numberOfLeadingZeros(node.getSize());
+        return depth + height > maxHeight(size);
+    }
+
+    /**
+     * Replaces the contents of the tree with a perfectly balanced tree linked from the given nodes, which counts as a
+     * full rebuild.
+     *
+     * @param nodes the nodes of the new tree in ascending order, whose current links are discarded
+     * @implNote This method has a time complexity of O(n)
+     */
+    @Override
+    protected void rebuildBalanced(List<Node<T>> nodes) {
+        super.rebuildBalanced(nodes);
+        maxSize = size;
+    }
+
+    /**
+     * Rebuilds the whole tree into a perfectly balanced tree.
+     *
+     * @implNote This method has a time complexity of O(n)
+     */
+    public void rebuild() {
+        root = rebuild(root);
+        maxSize = size;
+    }
+
+    /**
+     * Finds the scapegoat on the path of a deep node, the lowest ancestor whose child on the path holds more than
+     * alpha times its subtree, and rebuilds its subtree. Such an ancestor always exists when the node is deeper than
+     * {@link #getDepthBound()}.
+     *
+     * @param path    the ancestors of the node, from the root downwards
+     * @param newNode the node that was inserted too deep
+     */
+    private void rebuildScapegoat(List<Node<T>> path, Node<T> newNode) {
+        Node<T> child = newNode;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node<T> ancestor = path.get(i);
+            if (child.getSize() > alpha * ancestor.getSize()) {
+                Node<T> rebuilt = rebuild(ancestor);
+                if (i == 0) {
+                    root = rebuilt;
+                } else {
+                    linkChild(path.get(i - 1), rebuilt);
+                }
+                return;
+            }
+            child = ancestor;
+        }
+    }
+
+    /**
+     * Rebuilds a subtree into a perfectly balanced subtree holding the same nodes.
+     *
+     * @param node the root of the subtree
+     * @return the root of the rebuilt subtree
+     * @implNote This method has a time complexity of O(m), where m is the number of nodes in the subtree.
+     */
+    private Node<T> rebuild(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        // Flatten the subtree in order, without relying on parent pointers
+        List<Node<T>> nodes = new ArrayList<>(node.getSize());
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> current = node;
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
+                current = current.getLeft();
+            }
+            current = stack.pop();
+            nodes.add(current);
+            current = current.getRight();
+        }
+        Node<T> rebuilt = buildBalanced(nodes, 0, nodes.size() - 1);
+        rebuilt.setParent(null);
+        return rebuilt;
+    }
+
+    /**
+     * Recursive helper method for linking a sorted run of nodes into a perfectly balanced subtree.
+     *
+     * @param nodes the nodes in sorted order
+     * @param from  the index of the first node of the run
+     * @param to    the index of the last node of the run
+     * @return the root of the balanced subtree, or null if the run is empty
+     * @implNote This method has a time complexity of O(m) and a recursion depth of O(log(m)), where m is the number
+     * of nodes in the run.
+     */
+    private Node<T> buildBalanced(List<Node<T>> nodes, int from, int to) {
+        if (from > to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node<T> node = nodes.get(mid);
+        node.setLeft(buildBalanced(nodes, from, mid - 1));
+        node.setRight(buildBalanced(nodes, mid + 1, to));
+        return node;
+    }
+
+    /**
+     * Links a subtree below the given parent, on the side its root belongs to.
+     *
+     * @param parent the parent node
+     * @param child  the root of the subtree to link
+     */
+    private void linkChild(Node<T> parent, Node<T> child) {
+        if (compare(child.getValue(), parent.getValue()) < 0) {
+            parent.setLeft(child);
+        } else {
+            parent.setRight(child);
+        }
+    }
+
+    /**
+     * Returns the depth bound log<sub>1/alpha</sub>(n) for a tree of the given size.
+     *
+     * @param n the number of elements in the tree
+     * @return the depth bound
+     */
+    private int maxHeight(int n) {
+        return (n <= 1) ? 0 : (int) Math.floor(Math.log(n) / logInverseAlpha);
+    }
+}
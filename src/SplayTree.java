@@ -0,0 +1,479 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splay Tree implementation that inherits from BinaryTree class.
+ * <p>
+ * Every access moves the accessed node to the root through a sequence of rotations (a splay), so recently accessed
+ * elements stay close to the root. Each operation runs in amortized O(log(n)) time, and a small set of hot elements
+ * that receives most of the lookups is found in close to O(1).
+ * <p>
+ * The bottom-up splay walks back up through the parent pointers of the nodes, either recursively or iteratively as
+ * selected by {@link #setUseRecursiveApproach(boolean)}. The top-down splay selected by {@link #SplayTree(boolean)}
+ * restructures the tree during the single descent instead, so it needs neither recursion nor a second pass.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class SplayTree<T extends Comparable<T>> extends BinaryTree<T> {
+    /**
+     * Whether to splay top-down during the descent instead of bottom-up after it.
+     */
+    private final boolean topDown;
+
+    /**
+     * Constructs a new splay tree with no elements that splays bottom-up.
+     */
+    public SplayTree() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new splay tree with no elements.
+     *
+     * @param topDown true to splay top-down during the descent, false to splay bottom-up after it
+     */
+    public SplayTree(boolean topDown) {
+        super(Node.Layout.PARENT);
+        this.topDown = topDown;
+    }
+
+    /**
+     * Inserts an element into the splay tree. The new element becomes the root.
+     *
+     * @param value the value to insert into the splay tree
+     * @return true if the value was successfully inserted, false if it already exists in the tree
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public boolean insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            root = createNode(value);
+            size++;
+            return true;
+        }
+        root = splay(root, value);
+        int cmp = value.compareTo(root.getValue());
+        if (cmp == 0) {
+            // The value already exists in the tree, and it has been moved to the root
+            return false;
+        }
+        // The root is the neighbor of the new value, so the new node splits the tree between them
+        Node<T> newNode = createNode(value);
+        if (cmp < 0) {
+            Node<T> left = root.getLeft();
+            root.setLeft(null);
+            newNode.setLeft(left);
+            newNode.setRight(root);
+        } else {
+            Node<T> right = root.getRight();
+            root.setRight(null);
+            newNode.setRight(right);
+            newNode.setLeft(root);
+        }
+        root = newNode;
+        root.setParent(null);
+        size++;
+        return true;
+    }
+
+    /**
+     * Deletes an element from the splay tree. The node is splayed to the root and removed, and the largest element
+     * of its left subtree is splayed up to join both subtrees.
+     *
+     * @param value the value to delete
+     * @return true if the value was successfully deleted, false if it was not found in the tree
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public boolean delete(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            return false;
+        }
+        root = splay(root, value);
+        if (value.compareTo(root.getValue()) != 0) {
+            return false;
+        }
+        Node<T> left = root.getLeft();
+        Node<T> right = root.getRight();
+        if (left == null) {
+            root = right;
+        } else {
+            left.setParent(null);
+            // Every element of the left subtree is less than the value, so splaying it finds their maximum,
+            // which has no right child
+            root = splay(left, value);
+            root.setRight(right);
+        }
+        if (root != null) {
+            root.setParent(null);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Finds the node with the specified value and moves it to the root.
+     *
+     * @param value the value to search for
+     * @return the node with the specified value, or null if it is not found
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> find(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (root == null) {
+            return null;
+        }
+        root = splay(root, value);
+        return (value.compareTo(root.getValue()) == 0) ? root : null;
+    }
+
+    /**
+     * Counts the number of occurrences for the specified value in the tree.
+     *
+     * @param value the value to count
+     * @return 1 if the tree contains the value, 0 otherwise
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public int count(T value) {
+        return (find(value) != null) ? 1 : 0;
+    }
+
+    /**
+     * Returns the node with the minimum value in the tree and moves it to the root.
+     *
+     * @return the node with the minimum value in the tree, or null if the tree is empty
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getMin() {
+        if (root == null) {
+            return null;
+        }
+        Node<T> current = root;
+        while (current.getLeft() != null) {
+            current = current.getLeft();
+        }
+        root = splay(root, current.getValue());
+        return root;
+    }
+
+    /**
+     * Returns the node with the maximum value in the tree and moves it to the root.
+     *
+     * @return the node with the maximum value in the tree, or null if the tree is empty
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getMax() {
+        if (root == null) {
+            return null;
+        }
+        Node<T> current = root;
+        while (current.getRight() != null) {
+            current = current.getRight();
+        }
+        root = splay(root, current.getValue());
+        return root;
+    }
+
+    /**
+     * Finds the successor of the specified node in the tree. The tree is not restructured, so the successors of
+     * consecutive nodes can be followed during an iteration.
+     *
+     * @param node the node to find the successor of
+     * @return the successor of the node
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    @Override
+    public Node<T> getSuccessor(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        if (node.getRight() != null) {
+            Node<T> current = node.getRight();
+            while (current.getLeft() != null) {
+                current = current.getLeft();
+            }
+            return current;
+        }
+        Node<T> current = node;
+        Node<T> parent = node.getParent();
+        while (parent != null && current == parent.getRight()) {
+            current = parent;
+            parent = parent.getParent();
+        }
+        return parent;
+    }
+
+    /**
+     * Finds the predecessor of the specified node in the tree. The tree is not restructured, so the predecessors of
+     * consecutive nodes can be followed during an iteration.
+     *
+     * @param node the node to find the predecessor of
+     * @return the predecessor of the node
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    @Override
+    public Node<T> getPredecessor(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        if (node.getLeft() != null) {
+            Node<T> current = node.getLeft();
+            while (current.getRight() != null) {
+                current = current.getRight();
+            }
+            return current;
+        }
+        Node<T> current = node;
+        Node<T> parent = node.getParent();
+        while (parent != null && current == parent.getLeft()) {
+            current = parent;
+            parent = parent.getParent();
+        }
+        return parent;
+    }
+
+    /**
+     * Moves the node holding the given value to the root of the subtree. If the value is not present, the last node
+     * on its search path, which holds its predecessor or successor, is moved up instead.
+     *
+     * @param subtree the root of a non-empty subtree without a parent
+     * @param value   the value to splay
+     * @return the new root of the subtree
+     */
+    private Node<T> splay(Node<T> subtree, T value) {
+        Node<T> newRoot;
+        if (topDown) newRoot = splayTopDown(subtree, value);
+        else if (useRecursiveApproach) newRoot = splayRecursive(subtree, value);
+        else newRoot = splayIterative(subtree, value);
+        newRoot.setParent(null);
+        return newRoot;
+    }
+
+    /**
+     * Recursive helper method for splaying a value to the root of a subtree. Each call handles two levels of the
+     * search path with a zig-zig or zig-zag step, and a final zig step is done by the caller at the top.
+     *
+     * @param node  the root of the subtree
+     * @param value the value to splay
+     * @return the new root of the subtree
+     * @implNote This method has an amortized time complexity of O(log(n)), and uses stack space proportional to the
+     * length of the search path.
+     */
+    private Node<T> splayRecursive(Node<T> node, T value) {
+        int cmp = value.compareTo(node.getValue());
+        if (cmp < 0) {
+            Node<T> left = node.getLeft();
+            if (left == null) {
+                return node;
+            }
+            int childCmp = value.compareTo(left.getValue());
+            if (childCmp < 0 && left.getLeft() != null) {
+                // Zig-zig: splay into the left-left grandchild, then rotate the node down first
+                left.setLeft(splayRecursive(left.getLeft(), value));
+                node = rightRotate(node);
+            } else if (childCmp > 0 && left.getRight() != null) {
+                // Zig-zag: splay into the left-right grandchild, then rotate it above the left child
+                left.setRight(splayRecursive(left.getRight(), value));
+                node.setLeft(leftRotate(left));
+            }
+            return (node.getLeft() == null) ? node : rightRotate(node);
+        } else if (cmp > 0) {
+            Node<T> right = node.getRight();
+            if (right == null) {
+                return node;
+            }
+            int childCmp = value.compareTo(right.getValue());
+            if (childCmp > 0 && right.getRight() != null) {
+                // Zig-zig (mirrored)
+                right.setRight(splayRecursive(right.getRight(), value));
+                node = leftRotate(node);
+            } else if (childCmp < 0 && right.getLeft() != null) {
+                // Zig-zag (mirrored)
+                right.setLeft(splayRecursive(right.getLeft(), value));
+                node.setRight(rightRotate(right));
+            }
+            return (node.getRight() == null) ? node : leftRotate(node);
+        }
+        return node;
+    }
+
+    /**
+     * Iterative helper method for splaying a value to the root of a subtree. The search path is walked down once,
+     * and the last node on it is then rotated up through the parent pointers.
+     *
+     * @param subtree the root of a subtree without a parent
+     * @param value   the value to splay
+     * @return the new root of the subtree
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    private Node<T> splayIterative(Node<T> subtree, T value) {
+        Node<T> node = subtree;
+        while (true) {
+            int cmp = value.compareTo(node.getValue());
+            Node<T> next = (cmp < 0) ? node.getLeft() : (cmp > 0) ? node.getRight() : null;
+            if (next == null) {
+                break;
+            }
+            node = next;
+        }
+        while (node.getParent() != null) {
+            Node<T> parent = node.getParent();
+            Node<T> grandparent = parent.getParent();
+            if (grandparent == null) {
+                // Zig: the parent is the root
+                rotateUp(node);
+            } else if ((node == parent.getLeft()) == (parent == grandparent.getLeft())) {
+                // Zig-zig: both links point the same way, so rotate the parent first
+                rotateUp(parent);
+                rotateUp(node);
+            } else {
+                // Zig-zag: the links point in opposite directions, so rotate the node twice
+                rotateUp(node);
+                rotateUp(node);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Top-down helper method for splaying a value to the root of a subtree. The nodes passed on the way down are
+     * split off into a left tree of smaller elements and a right tree of greater elements, which become the children
+     * of the final node. No recursion and no parent pointers are needed.
+     *
+     * @param subtree the root of the subtree
+     * @param value   the value to splay
+     * @return the new root of the subtree
+     * @implNote This method has an amortized time complexity of O(log(n))
+     */
+    private Node<T> splayTopDown(Node<T> subtree, T value) {
+        Node<T> node = subtree;
+        Node<T> leftRoot = null; // The root of the tree of elements less than the value
+        Node<T> leftMax = null; // The largest node of the left tree, whose right child is still open
+        Node<T> rightRoot = null; // The root of the tree of elements greater than the value
+        Node<T> rightMin = null; // The smallest node of the right tree, whose left child is still open
+        // The nodes linked into each tree, from the top down, whose subtree sizes are only known at the end
+        List<Node<T>> leftLinked = new ArrayList<>();
+        List<Node<T>> rightLinked = new ArrayList<>();
+
+        while (true) {
+            int cmp = value.compareTo(node.getValue());
+            if (cmp < 0) {
+                if (node.getLeft() == null) {
+                    break;
+                }
+                if (value.compareTo(node.getLeft().getValue()) < 0) {
+                    // Zig-zig: rotate right before linking
+                    node = rightRotate(node);
+                    if (node.getLeft() == null) {
+                        break;
+                    }
+                }
+                // Link the node into the right tree as its new smallest node
+                if (rightMin == null) rightRoot = node;
+                else rightMin.setLeft(node);
+                rightMin = node;
+                rightLinked.add(node);
+                node = node.getLeft();
+            } else if (cmp > 0) {
+                if (node.getRight() == null) {
+                    break;
+                }
+                if (value.compareTo(node.getRight().getValue()) > 0) {
+                    // Zig-zig (mirrored): rotate left before linking
+                    node = leftRotate(node);
+                    if (node.getRight() == null) {
+                        break;
+                    }
+                }
+                // Link the node into the left tree as its new largest node
+                if (leftMax == null) leftRoot = node;
+                else leftMax.setRight(node);
+                leftMax = node;
+                leftLinked.add(node);
+                node = node.getRight();
+            } else {
+                break;
+            }
+        }
+
+        // Reassemble: the children of the final node close the open links, and both trees become its children
+        if (leftMax == null) leftRoot = node.getLeft();
+        else leftMax.setRight(node.getLeft());
+        if (rightMin == null) rightRoot = node.getRight();
+        else rightMin.setLeft(node.getRight());
+        for (int i = leftLinked.size() - 1; i >= 0; i--) {
+            leftLinked.get(i).updateHeight();
+        }
+        for (int i = rightLinked.size() - 1; i >= 0; i--) {
+            rightLinked.get(i).updateHeight();
+        }
+        node.setLeft(leftRoot);
+        node.setRight(rightRoot);
+        return node;
+    }
+
+    /**
+     * Rotates a node above its parent and links it into the former grandparent.
+     *
+     * @param node the node to rotate up, which must have a parent
+     * @implNote This method has a time complexity of O(1)
+     */
+    private void rotateUp(Node<T> node) {
+        Node<T> parent = node.getParent();
+        Node<T> grandparent = parent.getParent();
+        if (node == parent.getLeft()) {
+            parent.setLeft(node.getRight());
+            node.setRight(parent);
+        } else {
+            parent.setRight(node.getLeft());
+            node.setLeft(parent);
+        }
+        if (grandparent == null) {
+            node.setParent(null);
+        } else if (grandparent.getLeft() == parent) {
+            grandparent.setLeft(node);
+        } else {
+            grandparent.setRight(node);
+        }
+    }
+
+    /**
+     * Performs a left rotation on the given node.
+     *
+     * @param node the node to rotate left
+     * @return the new root of the rotated subtree, whose parent link is left to the caller
+     * @implNote This method has a time complexity of O(1)
+     */
+    private Node<T> leftRotate(Node<T> node) {
+        Node<T> newRoot = node.getRight();
+        node.setRight(newRoot.getLeft());
+        newRoot.setLeft(node);
+        return newRoot;
+    }
+
+    /**
+     * Performs a right rotation on the given node.
+     *
+     * @param node the node to rotate right
+     * @return the new root of the rotated subtree, whose parent link is left to the caller
+     * @implNote This method has a time complexity of O(1)
+     */
+    private Node<T> rightRotate(Node<T> node) {
+        Node<T> newRoot = node.getLeft();
+        node.setLeft(newRoot.getRight());
+        newRoot.setRight(node);
+        return newRoot;
+    }
+}
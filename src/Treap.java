@@ -0,0 +1,555 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Treap implementation that inherits from BinaryTree class.
+ * <p>
+ * Every node receives a random priority when it is inserted, and the tree is kept ordered by value and heap-ordered
+ * by priority, so that a node never has a higher priority than its parent. The shape of the tree is then the same as
+ * that of a binary search tree built by inserting the elements in random order, which gives an expected depth of
+ * O(log(n)) for any sequence of operations.
+ * <p>
+ * All updates are built on two primitives: {@code split}, which cuts a subtree into the elements less than a key and
+ * the elements greater than or equal to it, and {@code merge}, which concatenates two subtrees whose elements do not
+ * overlap. Nodes only store their value, children, subtree size and priority, so an update writes no parent pointers
+ * and no heights. Both primitives are available recursively or iteratively, as selected by
+ * {@link #setUseRecursiveApproach(boolean)}.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class Treap<T extends Comparable<T>> extends BinaryTree<T> {
+    private final SplittableRandom random; // The source of the node priorities
+
+    /**
+     * Constructs a new treap with no elements.
+     */
+    public Treap() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructs a new treap with no elements whose node priorities are drawn from a generator with the given seed,
+     * so that the same sequence of operations always produces the same shape.
+     *
+     * @param seed the seed of the priority generator
+     */
+    public Treap(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructs a new treap with no elements that draws its node priorities from the given generator.
+     *
+     * @param random the source of the node priorities
+     */
+    private Treap(SplittableRandom random) {
+        super(Node.Layout.MINIMAL);
+        this.random = random;
+    }
+
+    /**
+     * Creates a new node with a random priority.
+     *
+     * @param value the value to store in the node
+     * @return the new node
+     */
+    @Override
+    protected Node<T> createNode(T value) {
+        return new TreapNode<>(value, random.nextInt());
+    }
+
+    /**
+     * Inserts an element into the treap. The priority of the new node is drawn first, and the search path is followed
+     * until it reaches a node with a lower priority. The subtree found there is split around the value to become the
+     * children of the new node. The split also detects an existing copy of the value, so the node is only allocated
+     * once the value is known to be missing.
+     *
+     * @param value the value to insert into the treap
+     * @return true if the value was successfully inserted, false if it already exists in the tree
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    @Override
+    public boolean insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        int priority = random.nextInt();
+
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> current = root;
+        while (current != null && priority(current) >= priority) {
+            int cmp = value.compareTo(current.getValue());
+            if (cmp == 0) {
+                return false;
+            }
+            path.add(current);
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
+        }
+        // The value may still exist further down, in which case the split leaves the subtree untouched
+        Parts<T> parts = split(current, value, true);
+        if (parts == null) {
+            return false;
+        }
+        Node<T> newNode = new TreapNode<>(value, priority);
+        newNode.setLeft(parts.less);
+        newNode.setRight(parts.greater);
+        replaceChild(path, value, newNode);
+        size++;
+        return true;
+    }
+
+    /**
+     * Deletes an element from the treap. The node is replaced by the merge of its two subtrees.
+     *
+     * @param value the value to delete
+     * @return true if the value was successfully deleted, false if it was not found in the tree
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    @Override
+    public boolean delete(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = value.compareTo(current.getValue());
+            if (cmp == 0) {
+                break;
+            }
+            path.add(current);
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
+        }
+        if (current == null) {
+            return false;
+        }
+        replaceChild(path, value, merge(current.getLeft(), current.getRight()));
+        size--;
+        return true;
+    }
+
+    /**
+     * Links a new subtree in place of the child of the last node on the path that lies in the direction of the
+     * value, and updates the subtree sizes along the path.
+     *
+     * @param path    the nodes from the root down to the parent of the replaced subtree
+     * @param value   the value that decides which child of the parent is replaced
+     * @param subtree the new subtree, or null
+     */
+    private void replaceChild(List<Node<T>> path, T value, Node<T> subtree) {
+        if (path.isEmpty()) {
+            root = subtree;
+            return;
+        }
+        Node<T> parent = path.get(path.size() - 1);
+        if (value.compareTo(parent.getValue()) < 0) {
+            parent.setLeft(subtree);
+        } else {
+            parent.setRight(subtree);
+        }
+        for (int i = path.size() - 2; i >= 0; i--) {
+            path.get(i).updateHeight();
+        }
+    }
+
+    /**
+     * Finds the node with the specified value in the treap.
+     *
+     * @param value the value to search for
+     * @return the node with the specified value, or null if it is not found
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> find(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = value.compareTo(current.getValue());
+            if (cmp == 0) {
+                return current;
+            }
+            current = (cmp < 0) ? current.getLeft() : current.getRight();
+        }
+        return null;
+    }
+
+    /**
+     * Counts the number of occurrences for the specified value in the tree.
+     *
+     * @param value the value to count
+     * @return 1 if the tree contains the value, 0 otherwise
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    @Override
+    public int count(T value) {
+        return (find(value) != null) ? 1 : 0;
+    }
+
+    /**
+     * Returns the node with the minimum value in the tree.
+     *
+     * @return the node with the minimum value in the tree, or null if the tree is empty
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getMin() {
+        Node<T> current = root;
+        while (current != null && current.getLeft() != null) {
+            current = current.getLeft();
+        }
+        return current;
+    }
+
+    /**
+     * Returns the node with the maximum value in the tree.
+     *
+     * @return the node with the maximum value in the tree, or null if the tree is empty
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getMax() {
+        Node<T> current = root;
+        while (current != null && current.getRight() != null) {
+            current = current.getRight();
+        }
+        return current;
+    }
+
+    /**
+     * Finds the successor of the specified node in the tree. Nodes do not store parent pointers, so the successor
+     * is searched from the root.
+     *
+     * @param node the node to find the successor of
+     * @return the successor of the node
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getSuccessor(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        Node<T> successor = null;
+        Node<T> current = root;
+        while (current != null) {
+            if (node.getValue().compareTo(current.getValue()) < 0) {
+                successor = current;
+                current = current.getLeft();
+            } else {
+                current = current.getRight();
+            }
+        }
+        return successor;
+    }
+
+    /**
+     * Finds the predecessor of the specified node in the tree. Nodes do not store parent pointers, so the predecessor
+     * is searched from the root.
+     *
+     * @param node the node to find the predecessor of
+     * @return the predecessor of the node
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    @Override
+    public Node<T> getPredecessor(Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        Node<T> predecessor = null;
+        Node<T> current = root;
+        while (current != null) {
+            if (node.getValue().compareTo(current.getValue()) > 0) {
+                predecessor = current;
+                current = current.getRight();
+            } else {
+                current = current.getLeft();
+            }
+        }
+        return predecessor;
+    }
+
+    /**
+     * Splits the tree around the given key. This tree keeps every element less than the key, and the returned tree
+     * receives every element greater than or equal to it.
+     *
+     * @param key the key to split around
+     * @return a new treap holding the elements greater than or equal to the key
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    public Treap<T> split(T key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        Parts<T> parts = split(root, key, false);
+        root = parts.less;
+        size = getSize(root);
+
+        Treap<T> result = new Treap<>(random.split());
+        result.useRecursiveApproach = useRecursiveApproach;
+        result.root = parts.greater;
+        result.size = getSize(result.root);
+        return result;
+    }
+
+    /**
+     * Appends every element of the other tree to this tree. All elements of this tree must be less than all elements
+     * of the other tree. The other tree is emptied, since its nodes are moved into this tree.
+     *
+     * @param other the tree whose elements follow the elements of this tree
+     * @throws IllegalArgumentException if the other tree is null, is this tree, or overlaps with this tree
+     * @implNote This method has an expected time complexity of O(log(n + m))
+     */
+    public void join(Treap<T> other) {
+        if (other == null || other == this) {
+            throw new IllegalArgumentException("Cannot join a tree with null or with itself.");
+        }
+        if (root != null && other.root != null && getMax().getValue().compareTo(other.getMin().getValue()) >= 0) {
+            throw new IllegalArgumentException("Every element of this tree must be less than every element of the other tree.");
+        }
+        root = merge(root, other.root);
+        size = getSize(root);
+        other.clear();
+    }
+
+    /**
+     * Splits a subtree into the elements less than the key and the elements greater than or equal to it. When the
+     * split is distinct, finding an element equal to the key aborts it before any node is relinked.
+     *
+     * @param node     the root of the subtree
+     * @param key      the key to split around
+     * @param distinct whether an element equal to the key aborts the split
+     * @return the roots of both parts, or null if the split is distinct and the subtree contains the key
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    private Parts<T> split(Node<T> node, T key, boolean distinct) {
+        if (useRecursiveApproach) return splitRecursive(node, key, distinct);
+        else return splitIterative(node, key, distinct);
+    }
+
+    /**
+     * Recursive helper method for splitting a subtree around a key. Nodes are only relinked on the way back up, so
+     * an aborted split leaves the subtree unchanged.
+     *
+     * @param node     the root of the subtree
+     * @param key      the key to split around
+     * @param distinct whether an element equal to the key aborts the split
+     * @return the roots of both parts, or null if the split was aborted
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    private Parts<T> splitRecursive(Node<T> node, T key, boolean distinct) {
+        if (node == null) {
+            return new Parts<>(null, null);
+        }
+        int cmp = node.getValue().compareTo(key);
+        if (cmp == 0 && distinct) {
+            return null;
+        }
+        if (cmp < 0) {
+            // The node and its left subtree are less than the key, only its right subtree has to be split
+            Parts<T> parts = splitRecursive(node.getRight(), key, distinct);
+            if (parts == null) {
+                return null;
+            }
+            node.setRight(parts.less);
+            parts.less = node;
+            return parts;
+        } else {
+            Parts<T> parts = splitRecursive(node.getLeft(), key, distinct);
+            if (parts == null) {
+                return null;
+            }
+            node.setLeft(parts.greater);
+            parts.greater = node;
+            return parts;
+        }
+    }
+
+    /**
+     * Iterative helper method for splitting a subtree around a key. The search path is walked down once and
+     * recorded together with the side each node belongs to, so an aborted split leaves the subtree unchanged. Every
+     * node on the path is then appended to its part. Each part grows downwards along a single spine, so the subtree
+     * sizes are fixed afterwards by visiting the path in reverse.
+     *
+     * @param node     the root of the subtree
+     * @param key      the key to split around
+     * @param distinct whether an element equal to the key aborts the split
+     * @return the roots of both parts, or null if the split was aborted
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    private Parts<T> splitIterative(Node<T> node, T key, boolean distinct) {
+        List<Node<T>> path = new ArrayList<>();
+        BitSet isLess = new BitSet(); // Whether the node at the same index of the path is less than the key
+
+        Node<T> current = node;
+        while (current != null) {
+            int cmp = current.getValue().compareTo(key);
+            if (cmp == 0 && distinct) {
+                return null;
+            }
+            isLess.set(path.size(), cmp < 0);
+            path.add(current);
+            current = (cmp < 0) ? current.getRight() : current.getLeft();
+        }
+
+        Parts<T> parts = new Parts<>(null, null);
+        Node<T> lessTail = null; // The last node of the smaller part, whose right child is still open
+        Node<T> greaterTail = null; // The last node of the greater part, whose left child is still open
+        for (int i = 0; i < path.size(); i++) {
+            current = path.get(i);
+            if (isLess.get(i)) {
+                if (lessTail == null) parts.less = current;
+                else lessTail.setRight(current);
+                lessTail = current;
+            } else {
+                if (greaterTail == null) parts.greater = current;
+                else greaterTail.setLeft(current);
+                greaterTail = current;
+            }
+        }
+        if (lessTail != null) lessTail.setRight(null);
+        if (greaterTail != null) greaterTail.setLeft(null);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).updateHeight();
+        }
+        return parts;
+    }
+
+    /**
+     * Concatenates two subtrees, where every element of the first is less than every element of the second.
+     *
+     * @param less    the root of the subtree with the smaller elements
+     * @param greater the root of the subtree with the greater elements
+     * @return the root of the merged subtree
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    private Node<T> merge(Node<T> less, Node<T> greater) {
+        if (useRecursiveApproach) return mergeRecursive(less, greater);
+        else return mergeIterative(less, greater);
+    }
+
+    /**
+     * Recursive helper method for concatenating two subtrees.
+     *
+     * @param less    the root of the subtree with the smaller elements
+     * @param greater the root of the subtree with the greater elements
+     * @return the root of the merged subtree
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    private Node<T> mergeRecursive(Node<T> less, Node<T> greater) {
+        if (less == null) {
+            return greater;
+        } else if (greater == null) {
+            return less;
+        } else if (priority(less) > priority(greater)) {
+            less.setRight(mergeRecursive(less.getRight(), greater));
+            return less;
+        } else {
+            greater.setLeft(mergeRecursive(less, greater.getLeft()));
+            return greater;
+        }
+    }
+
+    /**
+     * Iterative helper method for concatenating two subtrees. The right spine of the smaller subtree and the left
+     * spine of the greater subtree are interleaved by priority, and the subtree sizes along the result are fixed
+     * afterwards by visiting it in reverse.
+     *
+     * @param less    the root of the subtree with the smaller elements
+     * @param greater the root of the subtree with the greater elements
+     * @return the root of the merged subtree
+     * @implNote This method has an expected time complexity of O(log(n))
+     */
+    private Node<T> mergeIterative(Node<T> less, Node<T> greater) {
+        Node<T> result = null;
+        Node<T> tail = null; // The last linked node, whose child towards the remaining elements is still open
+        boolean tailFromLess = false; // Whether the open child of the tail is its right child
+        List<Node<T>> path = new ArrayList<>();
+
+        while (less != null && greater != null) {
+            Node<T> next;
+            boolean nextFromLess = priority(less) > priority(greater);
+            if (nextFromLess) {
+                // The root of the smaller subtree stays on top, and its right subtree is merged with the greater one
+                next = less;
+                less = less.getRight();
+            } else {
+                // The root of the greater subtree stays on top, and its left subtree is merged with the smaller one
+                next = greater;
+                greater = greater.getLeft();
+            }
+            if (tail == null) result = next;
+            else if (tailFromLess) tail.setRight(next);
+            else tail.setLeft(next);
+            tail = next;
+            tailFromLess = nextFromLess;
+            path.add(next);
+        }
+        Node<T> rest = (less != null) ? less : greater;
+        if (tail == null) result = rest;
+        else if (tailFromLess) tail.setRight(rest);
+        else tail.setLeft(rest);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).updateHeight();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the priority of a node.
+     *
+     * @param node a node created by this tree
+     * @return the priority of the node
+     */
+    private int priority(Node<T> node) {
+        return ((TreapNode<T>) node).priority;
+    }
+
+    /**
+     * Returns the number of nodes in the subtree rooted at the given node.
+     *
+     * @param node the root of the subtree
+     * @return the size of the subtree, or 0 if the node is null
+     * @implNote This method has a time complexity of O(1)
+     */
+    private int getSize(Node<T> node) {
+        return (node == null) ? 0 : node.getSize();
+    }
+
+    /**
+     * The roots of the two parts of a split subtree.
+     *
+     * @param <T> the data type of the elements in the tree
+     */
+    private static class Parts<T extends Comparable<T>> {
+        private Node<T> less; // The root of the elements less than the key
+        private Node<T> greater; // The root of the elements greater than or equal to the key
+
+        Parts(Node<T> less, Node<T> greater) {
+            this.less = less;
+            this.greater = greater;
+        }
+    }
+
+    /**
+     * A treap node, which additionally stores the random priority that decides its depth.
+     *
+     * @param <T> the data type of the value stored in the node
+     */
+    private static class TreapNode<T extends Comparable<T>> extends Node<T> {
+        private final int priority; // The heap priority of the node, greater priorities are closer to the root
+
+        /**
+         * Constructs a new node with the given value and priority.
+         *
+         * @param value    the value to store in the node
+         * @param priority the heap priority of the node
+         */
+        TreapNode(T value, int priority) {
+            super(value);
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+import java.util.NoSuchElementException;
+
+/**
+ * A cursor that remembers a position in a binary search tree, for lookups that arrive in nearly sorted order.
+ * <p>
+ * Instead of starting every lookup at the root, {@link #seek(Object)} climbs from the current node through the parent
+ * pointers only until it reaches the smallest subtree that can hold the key, and descends from there. For a balanced
+ * tree, a seek then costs O(log(d)) instead of O(log(n)), where d is the number of elements between the previous
+ * position and the new one. Trees whose nodes do not store parent pointers are searched from the root.
+ * <p>
+ * The cursor works with any tree that keeps its elements in binary search tree order, such as {@link BST} and its
+ * subclasses, {@link SplayTree} or {@link Treap}. Inserting or deleting elements may detach the current node from the
+ * tree, so the cursor has to be repositioned with {@link #seek(Object)}, {@link #seekFirst()} or {@link #seekLast()}
+ * after the tree is modified.
+ *
+ * @param <T> the data type of the elements in the tree
+ */
+public class TreeCursor<T extends Comparable<T>> {
+    private final BinaryTree<T> tree; // The tree the cursor moves through
+    private Node<T> current; // The node the cursor is positioned at, or null if it is not positioned
+
+    /**
+     * Constructs a new cursor over the given tree that is not positioned at any node yet.
+     *
+     * @param tree the binary search tree to move through
+     */
+    public TreeCursor(BinaryTree<T> tree) {
+        if (tree == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        this.tree = tree;
+        this.current = null;
+    }
+
+    /**
+     * Returns whether the cursor is positioned at a node.
+     *
+     * @return true if the cursor is positioned at a node, false if it has moved past either end of the tree
+     */
+    public boolean isValid() {
+        return current != null;
+    }
+
+    /**
+     * Returns the node the cursor is positioned at.
+     *
+     * @return the current node, or null if the cursor is not positioned
+     */
+    public Node<T> getNode() {
+        return current;
+    }
+
+    /**
+     * Returns the element the cursor is positioned at.
+     *
+     * @return the current element
+     * @throws NoSuchElementException if the cursor is not positioned
+     */
+    public T getValue() {
+        if (current == null) {
+            throw new NoSuchElementException();
+        }
+        return current.getValue();
+    }
+
+    /**
+     * Moves the cursor to the smallest element of the tree.
+     *
+     * @return true if the cursor is positioned at a node, false if the tree is empty
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    public boolean seekFirst() {
+        current = tree.getMin();
+        return current != null;
+    }
+
+    /**
+     * Moves the cursor to the largest element of the tree.
+     *
+     * @return true if the cursor is positioned at a node, false if the tree is empty
+     * @implNote This method has a time complexity of O(h), where h is the height of the tree.
+     */
+    public boolean seekLast() {
+        current = tree.getMax();
+        return current != null;
+    }
+
+    /**
+     * Moves the cursor to the given element, or to the smallest element greater than it if the tree does not contain
+     * it. If every element is less than the given one, the cursor is no longer positioned.
+     *
+     * @param value the element to seek
+     * @return true if the tree contains the element, false otherwise
+     * @implNote This method has a time complexity of O(log(d)) for balanced trees with parent pointers, where d is
+     * the distance between the previous and the new position, and of O(h) otherwise.
+     */
+    public boolean seek(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        Node<T> node;
+        Node<T> ceiling = null; // The smallest node greater than the value seen so far
+        if (current != null && tree.nodeLayout.hasParent()) {
+            // Climb until the value lies between the current node and the nearest ancestor on its side
+            node = current;
+            while (true) {
+                int cmp = tree.compare(value, node.getValue());
+                if (cmp == 0) {
+                    current = node;
+                    return true;
+                }
+                if (cmp > 0) {
+                    Node<T> upper = upperBound(node);
+                    if (upper == null || tree.compare(value, upper.getValue()) < 0) {
+                        ceiling = upper;
+                        node = node.getRight();
+                        break;
+                    }
+                    node = upper;
+                } else {
+                    Node<T> lower = lowerBound(node);
+                    if (lower == null || tree.compare(value, lower.getValue()) > 0) {
+                        ceiling = node;
+                        node = node.getLeft();
+                        break;
+                    }
+                    node = lower;
+                }
+            }
+        } else {
+            node = tree.root;
+        }
+
+        while (node != null) {
+            int cmp = tree.compare(value, node.getValue());
+            if (cmp == 0) {
+                current = node;
+                return true;
+            }
+            if (cmp < 0) {
+                ceiling = node;
+                node = node.getLeft();
+            } else {
+                node = node.getRight();
+            }
+        }
+        current = ceiling;
+        return false;
+    }
+
+    /**
+     * Moves the cursor to the next greater element.
+     *
+     * @return true if the cursor is positioned at a node, false if it has moved past the largest element
+     * @implNote This method has an amortized time complexity of O(1) for trees with parent pointers when the cursor
+     * walks through the whole tree, and of O(h) otherwise.
+     */
+    public boolean next() {
+        if (current != null) {
+            current = tree.getSuccessor(current);
+        }
+        return current != null;
+    }
+
+    /**
+     * Moves the cursor to the next smaller element.
+     *
+     * @return true if the cursor is positioned at a node, false if it has moved past the smallest element
+     * @implNote This method has an amortized time complexity of O(1) for trees with parent pointers when the cursor
+     * walks through the whole tree, and of O(h) otherwise.
+     */
+    public boolean prev() {
+        if (current != null) {
+            current = tree.getPredecessor(current);
+        }
+        return current != null;
+    }
+
+    /**
+     * Returns the nearest ancestor whose left subtree contains the node, which bounds the subtree of the node from
+     * above.
+     *
+     * @param node the node to start from
+     * @return the nearest greater ancestor, or null if the node lies on the right spine of the tree
+     */
+    private Node<T> upperBound(Node<T> node) {
+        Node<T> parent = node.getParent();
+        while (parent != null && node == parent.getRight()) {
+            node = parent;
+            parent = parent.getParent();
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the nearest ancestor whose right subtree contains the node, which bounds the subtree of the node from
+     * below.
+     *
+     * @param node the node to start from
+     * @return the nearest smaller ancestor, or null if the node lies on the left spine of the tree
+     */
+    private Node<T> lowerBound(Node<T> node) {
+        Node<T> parent = node.getParent();
+        while (parent != null && node == parent.getLeft()) {
+            node = parent;
+            parent = parent.getParent();
+        }
+        return parent;
+    }
+}